@@ -0,0 +1,629 @@
+package com.cyser.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * 处理{@code com.cyser.base.annotations.CopyMapping}，为每一对(源类,目标类)生成拷贝器
+ * <br/>
+ * 生成的拷贝器继承{@code com.cyser.base.copier.CompiledCopier}，与目标类在同一个包中，类名为 源类$$目标类$$CompiledCopier，
+ * 运行时按这个类名在目标类和源类的类加载器中查找，不需要额外的注册文件
+ * <br/>
+ * 字段的选取与运行时一致：包含超类字段，子类字段优先，忽略static、final、transient以及@Transient字段。
+ * 可以直接读写并且类型可以直接赋值的字段生成直接赋值的代码，其余字段交给运行时的拷贝计划处理
+ * <br/>
+ * 不依赖easy-copy本身，注解和父类都按名称引用
+ */
+public class CopyMappingProcessor extends AbstractProcessor {
+
+    private static final String COPY_MAPPING = "com.cyser.base.annotations.CopyMapping";
+
+    private static final String COPY_MAPPINGS = "com.cyser.base.annotations.CopyMappings";
+
+    private static final String COMPILED_COPIER = "com.cyser.base.copier.CompiledCopier";
+
+    private static final String SUFFIX = "$$CompiledCopier";
+
+    /**
+     * 运行时按时间处理的字段注解
+     */
+    private static final Set<String> TIME_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "com.cyser.base.annotations.TimeFormat", "com.cyser.base.annotations.Timemode"));
+
+    /**
+     * 运行时按时间处理的类型
+     */
+    private static final String[] TIME_TYPES = {"java.util.Date", "java.time.LocalDate", "java.time.LocalDateTime"};
+
+    private Types types;
+
+    private Elements elements;
+
+    private Messager messager;
+
+    private Filer filer;
+
+    /**
+     * 已生成的拷贝器全名 -> 对应的(源类,目标类)
+     */
+    private final Map<String, String> generated = new HashMap<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.types = processingEnv.getTypeUtils();
+        this.elements = processingEnv.getElementUtils();
+        this.messager = processingEnv.getMessager();
+        this.filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<>(Arrays.asList(COPY_MAPPING, COPY_MAPPINGS));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+                    String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+                    if (COPY_MAPPING.equals(name) && annotation.getQualifiedName().contentEquals(COPY_MAPPING)) {
+                        processMapping(element, mirror);
+                    } else if (COPY_MAPPINGS.equals(name) && annotation.getQualifiedName().contentEquals(COPY_MAPPINGS)) {
+                        for (AnnotationMirror inner : getMappings(mirror)) {
+                            processMapping(element, inner);
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AnnotationMirror> getMappings(AnnotationMirror mirror) {
+        List<AnnotationMirror> mappings = new ArrayList<>();
+        AnnotationValue value = getValue(mirror, "value");
+        if (value != null) {
+            for (AnnotationValue v : (List<? extends AnnotationValue>) value.getValue()) {
+                mappings.add((AnnotationMirror) v.getValue());
+            }
+        }
+        return mappings;
+    }
+
+    private static AnnotationValue getValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : mirror.getElementValues().entrySet()) {
+            if (e.getKey().getSimpleName().contentEquals(name)) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void processMapping(Element element, AnnotationMirror mirror) {
+        AnnotationValue source = getValue(mirror, "source");
+        AnnotationValue target = getValue(mirror, "target");
+        if (source == null || target == null || !(source.getValue() instanceof DeclaredType) || !(target.getValue() instanceof DeclaredType)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@CopyMapping的source和target必须是类", element, mirror);
+            return;
+        }
+        TypeElement src = (TypeElement) ((DeclaredType) source.getValue()).asElement();
+        TypeElement dest = (TypeElement) ((DeclaredType) target.getValue()).asElement();
+        String pkg = elements.getPackageOf(dest).getQualifiedName().toString();
+        if (!check(src, pkg, element, mirror) || !check(dest, pkg, element, mirror)) {
+            return;
+        }
+        String simple_name = flatName(src) + "$$" + flatName(dest) + SUFFIX;
+        String qualified_name = pkg.isEmpty() ? simple_name : pkg + "." + simple_name;
+        String mapping = src.getQualifiedName() + " -> " + dest.getQualifiedName();
+        String existing = generated.putIfAbsent(qualified_name, mapping);
+        if (existing != null) {
+            // 同一对类重复声明时只生成一次，不同的类对生成同名拷贝器时无法区分
+            if (!existing.equals(mapping)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@CopyMapping(" + mapping + ")生成的拷贝器" + qualified_name
+                        + "与@CopyMapping(" + existing + ")重名，请调整其中一个类的类名", element, mirror);
+            }
+            return;
+        }
+        try {
+            JavaFileObject file = filer.createSourceFile(qualified_name, src, dest, element);
+            try (Writer writer = file.openWriter()) {
+                writer.write(new CopierWriter(src, dest, pkg, simple_name).write());
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "生成拷贝器" + qualified_name + "失败: " + e.getMessage(), element, mirror);
+        }
+    }
+
+    /**
+     * 检查类是否可以生成拷贝器：具体类、非泛型、非内部类，并且可以从目标类所在的包访问
+     */
+    private boolean check(TypeElement clazz, String pkg, Element element, AnnotationMirror mirror) {
+        String error = null;
+        if (clazz.getKind() != ElementKind.CLASS || clazz.getModifiers().contains(Modifier.ABSTRACT)) {
+            error = "不是具体类";
+        } else if (!clazz.getTypeParameters().isEmpty()) {
+            error = "是泛型类，请使用运行时拷贝";
+        } else if (clazz.getNestingKind() == NestingKind.LOCAL || clazz.getNestingKind() == NestingKind.ANONYMOUS
+                || (clazz.getNestingKind() == NestingKind.MEMBER && !clazz.getModifiers().contains(Modifier.STATIC))) {
+            error = "是非静态内部类";
+        } else {
+            for (Element e = clazz; e instanceof TypeElement; e = e.getEnclosingElement()) {
+                if (e.getModifiers().contains(Modifier.PRIVATE)
+                        || (!e.getModifiers().contains(Modifier.PUBLIC) && !samePackage(e, pkg))) {
+                    error = "无法从包" + pkg + "访问";
+                    break;
+                }
+            }
+        }
+        if (error != null) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "类" + clazz.getQualifiedName() + error, element, mirror);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean samePackage(Element e, String pkg) {
+        return elements.getPackageOf(e).getQualifiedName().contentEquals(pkg);
+    }
+
+    /**
+     * 内部类用$连接外部类名
+     */
+    private static String flatName(TypeElement clazz) {
+        String name = clazz.getSimpleName().toString();
+        Element enclosing = clazz.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name = enclosing.getSimpleName() + "$" + name;
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name;
+    }
+
+    /**
+     * 一个可以拷贝的字段及其读写方式
+     */
+    private static class Property {
+
+        final VariableElement field;
+
+        /**
+         * 字段在所属类中的实际类型
+         */
+        final TypeMirror type;
+
+        /**
+         * 读取表达式，参数为对象变量名；为null时不能直接读取
+         */
+        String reader;
+
+        /**
+         * 写入方法名或者字段名；为null时不能直接写入
+         */
+        String writer;
+
+        boolean write_by_field;
+
+        Property(VariableElement field, TypeMirror type) {
+            this.field = field;
+            this.type = type;
+        }
+
+        String name() {
+            return field.getSimpleName().toString();
+        }
+
+        String read(String obj) {
+            return obj + reader;
+        }
+
+        String write(String obj, String value) {
+            return write_by_field ? obj + "." + writer + " = " + value : obj + "." + writer + "(" + value + ")";
+        }
+    }
+
+    /**
+     * 生成一个拷贝器的源码
+     */
+    private class CopierWriter {
+
+        private final TypeElement src;
+
+        private final TypeElement dest;
+
+        private final String pkg;
+
+        private final String simple_name;
+
+        private final StringBuilder body = new StringBuilder();
+
+        private boolean use_plan;
+
+        /**
+         * 交给运行时拷贝计划的源字段，按生成代码中的下标排列
+         */
+        private final List<String> delegated = new ArrayList<>();
+
+        private boolean use_case_sensitive;
+
+        CopierWriter(TypeElement src, TypeElement dest, String pkg, String simple_name) {
+            this.src = src;
+            this.dest = dest;
+            this.pkg = pkg;
+            this.simple_name = simple_name;
+        }
+
+        String write() {
+            Map<String, Property> src_props = properties(src);
+            Map<String, Property> dest_props = properties(dest);
+            Map<String, Property> dest_lower_props = new HashMap<>();
+            for (Property p : dest_props.values()) {
+                dest_lower_props.put(p.name().toLowerCase(Locale.ROOT), p);
+            }
+            for (Property s : src_props.values()) {
+                Property d = dest_props.get(s.name());
+                if (d != null) {
+                    writeField(s, d, false);
+                } else {
+                    d = dest_lower_props.get(s.name().toLowerCase(Locale.ROOT));
+                    if (d != null) { // 只在不区分大小写时复制
+                        use_case_sensitive = true;
+                        writeField(s, d, true);
+                    }
+                }
+            }
+
+            String src_name = src.getQualifiedName().toString();
+            String dest_name = dest.getQualifiedName().toString();
+            StringBuilder sb = new StringBuilder();
+            if (!pkg.isEmpty()) {
+                sb.append("package ").append(pkg).append(";\n\n");
+            }
+            sb.append("/**\n * ").append(src_name).append(" -> ").append(dest_name).append("\n * <br/>\n * 由")
+                    .append(CopyMappingProcessor.class.getName()).append("生成，请勿修改\n */\n");
+            sb.append("public final class ").append(simple_name).append(" extends ").append(COMPILED_COPIER).append(" {\n\n");
+            if (use_plan) {
+                sb.append("    /**\n     * 按运行时拷贝计划复制的源字段\n     */\n");
+                sb.append("    private static final String[] DELEGATED_FIELDS = {");
+                for (int i = 0; i < delegated.size(); i++) {
+                    sb.append(i == 0 ? "\"" : ", \"").append(delegated.get(i)).append('"');
+                }
+                sb.append("};\n\n");
+            }
+            sb.append("    @Override\n    public Class<?> getSrcClass() {\n        return ").append(src_name).append(".class;\n    }\n\n");
+            sb.append("    @Override\n    public Class<?> getTargetClass() {\n        return ").append(dest_name).append(".class;\n    }\n\n");
+            sb.append("    @Override\n    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            sb.append("    public Object copy(Object target, Object src, com.cyser.base.param.CopyParam cp) {\n");
+            sb.append("        ").append(src_name).append(" _src = (").append(src_name).append(") src;\n");
+            sb.append("        ").append(dest_name).append(" _target = (").append(dest_name).append(") target;\n");
+            sb.append("        java.util.Collection<String> exclude_fields = cp.exclude_fields;\n");
+            sb.append("        boolean copy_null = cp.copyFeature.isEnabled(com.cyser.base.enums.CopyFeature.COPY_NULL_VALUE);\n");
+            sb.append("        boolean force_overwrite = cp.copyFeature.isEnabled(com.cyser.base.enums.CopyFeature.FORCE_OVERWRITE);\n");
+            if (use_case_sensitive) {
+                sb.append("        boolean case_sensitive = cp.copyFeature.isEnabled(com.cyser.base.enums.CopyFeature.CASE_SENSITIVE);\n");
+            }
+            if (use_plan) {
+                sb.append("        com.cyser.base.bean.FieldSlot[] slots = slots(plan(target, src, cp), DELEGATED_FIELDS);\n");
+            }
+            sb.append(body);
+            sb.append("        return target;\n    }\n}\n");
+            return sb.toString();
+        }
+
+        private void writeField(Property s, Property d, boolean ignore_case) {
+            String name = s.name();
+            String indent = ignore_case ? "            " : "        ";
+            body.append("        // ").append(name).append(" -> ").append(d.name()).append('\n');
+            if (ignore_case) {
+                body.append("        if (!case_sensitive) {\n");
+            }
+            String code = direct(s, d, indent);
+            if (code == null) {
+                // 需要转换或者不能直接读写，按运行时拷贝计划复制；计划中已经排除了不需要拷贝的字段
+                use_plan = true;
+                body.append(indent).append("copySlot(target, src, slots[").append(delegated.size()).append("], cp);\n");
+                delegated.add(name);
+            } else {
+                body.append(indent).append("if (!excluded(exclude_fields, \"").append(name).append("\")) {\n");
+                body.append(code);
+                body.append(indent).append("}\n");
+            }
+            if (ignore_case) {
+                body.append("        }\n");
+            }
+        }
+
+        /**
+         * 生成直接赋值的代码，与运行时的PRIMITIVE、WIDEN、ASSIGN、TO_STRING保持一致；不能直接赋值时返回null
+         */
+        private String direct(Property s, Property d, String indent) {
+            if (s.reader == null || d.writer == null) {
+                return null;
+            }
+            TypeMirror st = s.type;
+            TypeMirror dt = d.type;
+            if (hasTypeVariable(st) || hasTypeVariable(dt) || isContainer(st) || isContainer(dt)) {
+                return null;
+            }
+            String in = indent + "    ";
+            StringBuilder sb = new StringBuilder();
+            boolean dest_primitive = dt.getKind().isPrimitive();
+            if (st.getKind().isPrimitive() && dest_primitive) {
+                if (!types.isAssignable(st, dt)) {
+                    return null;
+                }
+                // 基本类型的目标字段永远有值，只在强制覆盖时复制
+                sb.append(in).append("if (force_overwrite) {\n");
+                sb.append(in).append("    ").append(d.write("_target", s.read("_src"))).append(";\n");
+                sb.append(in).append("}\n");
+                return sb.toString();
+            }
+            String value;
+            if (types.isAssignable(st, dt)) {
+                value = "v";
+            } else if (isPrimitiveOrBoxed(st) && types.isAssignable(elements.getTypeElement("java.lang.String").asType(), dt)
+                    && !hasAnnotation(d.field, TIME_ANNOTATIONS) && !isTime(dt)) {
+                value = "String.valueOf(v)";
+                if (!st.getKind().isPrimitive()) {
+                    // 源字段为空时运行时不复制
+                    if (d.reader == null) {
+                        return null;
+                    }
+                    sb.append(in).append(st).append(" v = ").append(s.read("_src")).append(";\n");
+                    sb.append(in).append("if (v != null && (force_overwrite || ").append(d.read("_target")).append(" == null)) {\n");
+                    sb.append(in).append("    ").append(d.write("_target", value)).append(";\n");
+                    sb.append(in).append("}\n");
+                    return sb.toString();
+                }
+            } else {
+                return null;
+            }
+            sb.append(in).append(st).append(" v = ").append(s.read("_src")).append(";\n");
+            if (dest_primitive) {
+                // 封装类型 -> 基本类型，跳过空值
+                sb.append(in).append("if (force_overwrite && v != null) {\n");
+            } else if (d.reader == null) {
+                return null;
+            } else if (st.getKind().isPrimitive()) {
+                sb.append(in).append("if (force_overwrite || ").append(d.read("_target")).append(" == null) {\n");
+            } else {
+                sb.append(in).append("if ((v != null || copy_null) && (force_overwrite || ").append(d.read("_target")).append(" == null)) {\n");
+            }
+            sb.append(in).append("    ").append(d.write("_target", value)).append(";\n");
+            sb.append(in).append("}\n");
+            return sb.toString();
+        }
+
+        /**
+         * 与运行时一致的可拷贝字段，子类字段优先
+         */
+        private Map<String, Property> properties(TypeElement clazz) {
+            Map<String, Property> props = new LinkedHashMap<>();
+            Set<String> seen = new HashSet<>();
+            DeclaredType clazz_type = (DeclaredType) clazz.asType();
+            for (TypeElement current = clazz; current != null; current = superclass(current)) {
+                for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                    String name = field.getSimpleName().toString();
+                    if (!seen.add(name)) {
+                        continue;
+                    }
+                    Set<Modifier> modifiers = field.getModifiers();
+                    if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)
+                            || modifiers.contains(Modifier.TRANSIENT) || hasAnnotation(field, Collections.singleton("java.beans.Transient"))) {
+                        continue;
+                    }
+                    TypeMirror type = types.asMemberOf(clazz_type, field);
+                    Property p = new Property(field, type);
+                    resolveReader(clazz, p);
+                    resolveWriter(clazz, p);
+                    props.put(name, p);
+                }
+            }
+            return props;
+        }
+
+        private TypeElement superclass(TypeElement clazz) {
+            TypeMirror sup = clazz.getSuperclass();
+            if (sup.getKind() != TypeKind.DECLARED) {
+                return null;
+            }
+            return (TypeElement) ((DeclaredType) sup).asElement();
+        }
+
+        private void resolveReader(TypeElement clazz, Property p) {
+            if (accessible(p.field)) {
+                p.reader = "." + p.name();
+                return;
+            }
+            String getter = getterName(p);
+            for (ExecutableElement m : ElementFilter.methodsIn(elements.getAllMembers(clazz))) {
+                if (m.getSimpleName().contentEquals(getter) && m.getParameters().isEmpty()
+                        && !m.getModifiers().contains(Modifier.STATIC) && accessible(m)) {
+                    ExecutableType method_type = (ExecutableType) types.asMemberOf((DeclaredType) clazz.asType(), m);
+                    if (types.isSameType(method_type.getReturnType(), p.type)) {
+                        p.reader = "." + getter + "()";
+                        return;
+                    }
+                }
+            }
+            if (lombok(p.field, "lombok.Getter")) {
+                p.reader = "." + getter + "()";
+            }
+        }
+
+        private void resolveWriter(TypeElement clazz, Property p) {
+            if (accessible(p.field)) {
+                p.writer = p.name();
+                p.write_by_field = true;
+                return;
+            }
+            String setter = setterName(p);
+            for (ExecutableElement m : ElementFilter.methodsIn(elements.getAllMembers(clazz))) {
+                if (m.getSimpleName().contentEquals(setter) && m.getParameters().size() == 1
+                        && !m.getModifiers().contains(Modifier.STATIC) && accessible(m)) {
+                    ExecutableType method_type = (ExecutableType) types.asMemberOf((DeclaredType) clazz.asType(), m);
+                    if (types.isSameType(method_type.getParameterTypes().get(0), p.type)) {
+                        p.writer = setter;
+                        return;
+                    }
+                }
+            }
+            if (lombok(p.field, "lombok.Setter")) {
+                p.writer = setter;
+            }
+        }
+
+        /**
+         * 生成的拷贝器与目标类在同一个包中，public成员，或者同包中的非private成员可以直接访问
+         */
+        private boolean accessible(Element member) {
+            Set<Modifier> modifiers = member.getModifiers();
+            if (modifiers.contains(Modifier.PUBLIC)) {
+                return true;
+            }
+            return !modifiers.contains(Modifier.PRIVATE) && samePackage(member, pkg);
+        }
+
+        /**
+         * 字段或者所属类上有Lombok生成public getter/setter的注解，这时源码中还看不到生成的方法
+         */
+        private boolean lombok(VariableElement field, String accessor_annotation) {
+            Element owner = field.getEnclosingElement();
+            if (hasAnnotation(owner, Collections.singleton("lombok.experimental.Accessors"))
+                    || hasAnnotation(field, Collections.singleton("lombok.experimental.Accessors"))) {
+                return false;
+            }
+            Set<String> names = new HashSet<>(Arrays.asList("lombok.Data", accessor_annotation));
+            if ("lombok.Getter".equals(accessor_annotation)) {
+                names.add("lombok.Value");
+            }
+            for (Element e : Arrays.asList(field, owner)) {
+                for (AnnotationMirror mirror : e.getAnnotationMirrors()) {
+                    String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+                    if (names.contains(name)) {
+                        AnnotationValue level = getValue(mirror, "value");
+                        return level == null || level.getValue().toString().equals("PUBLIC");
+                    }
+                }
+            }
+            return false;
+        }
+
+        private String getterName(Property p) {
+            String name = p.name();
+            if (p.type.getKind() == TypeKind.BOOLEAN) {
+                if (name.startsWith("is") && name.length() > 2 && Character.isUpperCase(name.charAt(2))) {
+                    return name;
+                }
+                return "is" + capitalize(name);
+            }
+            return "get" + capitalize(name);
+        }
+
+        private String setterName(Property p) {
+            String name = p.name();
+            if (p.type.getKind() == TypeKind.BOOLEAN
+                    && name.startsWith("is") && name.length() > 2 && Character.isUpperCase(name.charAt(2))) {
+                return "set" + name.substring(2);
+            }
+            return "set" + capitalize(name);
+        }
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static boolean hasAnnotation(Element element, Set<String> names) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (names.contains(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isBoxed(TypeMirror type) {
+        try {
+            types.unboxedType(type);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean isPrimitiveOrBoxed(TypeMirror type) {
+        return type.getKind().isPrimitive() || isBoxed(type);
+    }
+
+    private boolean isTime(TypeMirror type) {
+        for (String name : TIME_TYPES) {
+            TypeElement time = elements.getTypeElement(name);
+            if (time != null && types.isAssignable(types.erasure(type), time.asType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 集合和Map运行时会按元素类型转换
+     */
+    private boolean isContainer(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeMirror erasure = types.erasure(type);
+        for (String name : new String[]{"java.util.Collection", "java.util.Map"}) {
+            TypeElement container = elements.getTypeElement(name);
+            if (types.isAssignable(erasure, types.erasure(container.asType()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasTypeVariable(TypeMirror type) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+            case WILDCARD:
+            case INTERSECTION:
+                return true;
+            case ARRAY:
+                return hasTypeVariable(((ArrayType) type).getComponentType());
+            case DECLARED:
+                for (TypeMirror arg : ((DeclaredType) type).getTypeArguments()) {
+                    if (hasTypeVariable(arg)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.cyser.base.accessor;
+
+/**
+ * 字段读写器
+ * <br/>
+ * 解析字段时按{@link com.cyser.base.param.CopyConfig#getFieldAccessorType()}预先创建，复制时直接使用
+ * <br/>
+ * getXxx/setXxx按基本类型读写，不装箱。getXxx与{@link java.lang.reflect.Field#getLong(Object)}一致，
+ * 允许字段类型拓宽到返回类型(例如int字段调用getLong)；setXxx只用于字段本身的类型。
+ * 默认实现通过{@link #get(Object)}/{@link #set(Object, Object)}装箱完成，具体实现按需覆盖
+ */
+public interface FieldAccessor {
+
+    /**
+     * 读取字段值，基本类型返回封装类型
+     *
+     * @param bean 对象
+     * @return 字段值
+     */
+    Object get(Object bean);
+
+    /**
+     * 设置字段值
+     *
+     * @param bean  对象
+     * @param value 字段值
+     */
+    void set(Object bean, Object value);
+
+    default boolean getBoolean(Object bean) {
+        return (Boolean) get(bean);
+    }
+
+    default byte getByte(Object bean) {
+        return (Byte) get(bean);
+    }
+
+    default char getChar(Object bean) {
+        return (Character) get(bean);
+    }
+
+    default short getShort(Object bean) {
+        Object value = get(bean);
+        return value instanceof Byte ? (Byte) value : (Short) value;
+    }
+
+    default int getInt(Object bean) {
+        Object value = get(bean);
+        return value instanceof Character ? (Character) value : ((Number) value).intValue();
+    }
+
+    default long getLong(Object bean) {
+        Object value = get(bean);
+        return value instanceof Character ? (Character) value : ((Number) value).longValue();
+    }
+
+    default float getFloat(Object bean) {
+        Object value = get(bean);
+        return value instanceof Character ? (Character) value : ((Number) value).floatValue();
+    }
+
+    default double getDouble(Object bean) {
+        Object value = get(bean);
+        return value instanceof Character ? (Character) value : ((Number) value).doubleValue();
+    }
+
+    default void setBoolean(Object bean, boolean value) {
+        set(bean, value);
+    }
+
+    default void setByte(Object bean, byte value) {
+        set(bean, value);
+    }
+
+    default void setChar(Object bean, char value) {
+        set(bean, value);
+    }
+
+    default void setShort(Object bean, short value) {
+        set(bean, value);
+    }
+
+    default void setInt(Object bean, int value) {
+        set(bean, value);
+    }
+
+    default void setLong(Object bean, long value) {
+        set(bean, value);
+    }
+
+    default void setFloat(Object bean, float value) {
+        set(bean, value);
+    }
+
+    default void setDouble(Object bean, double value) {
+        set(bean, value);
+    }
+}
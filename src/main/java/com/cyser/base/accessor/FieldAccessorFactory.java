@@ -0,0 +1,211 @@
+package com.cyser.base.accessor;
+
+import com.cyser.base.enums.FieldAccessorType;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 字段读写器工厂
+ * <br/>
+ * 启动时检测当前JVM支持的读写方式，{@link #getDefaultType()}返回其中最快的一种；
+ * 某个字段无法使用指定方式时依次退回到METHOD_HANDLE、REFLECT
+ */
+@Slf4j
+public class FieldAccessorFactory {
+
+    private FieldAccessorFactory() {
+    }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * MethodHandles.privateLookupIn(Class, Lookup)，Java 9+
+     */
+    private static final Method PRIVATE_LOOKUP_IN = findMethod(MethodHandles.class, "privateLookupIn", Class.class, MethodHandles.Lookup.class);
+
+    /**
+     * Lookup.findVarHandle(Class, String, Class)，Java 9+
+     */
+    private static final Method FIND_VAR_HANDLE = findMethod(MethodHandles.Lookup.class, "findVarHandle", Class.class, String.class, Class.class);
+
+    /**
+     * VarHandle.toMethodHandle(AccessMode)，Java 9+
+     */
+    private static final Method TO_METHOD_HANDLE;
+
+    private static final Object GET_MODE;
+
+    private static final Object SET_MODE;
+
+    private static final FieldAccessorType DEFAULT_TYPE;
+
+    static {
+        Method to_method_handle = null;
+        Object get_mode = null;
+        Object set_mode = null;
+        try {
+            Class<?> var_handle_clazz = Class.forName("java.lang.invoke.VarHandle");
+            Class access_mode_clazz = Class.forName("java.lang.invoke.VarHandle$AccessMode");
+            to_method_handle = var_handle_clazz.getMethod("toMethodHandle", access_mode_clazz);
+            get_mode = Enum.valueOf(access_mode_clazz, "GET");
+            set_mode = Enum.valueOf(access_mode_clazz, "SET");
+        } catch (ReflectiveOperationException e) {
+            // Java 8
+        }
+        TO_METHOD_HANDLE = to_method_handle;
+        GET_MODE = get_mode;
+        SET_MODE = set_mode;
+        if (isSupported(FieldAccessorType.VAR_HANDLE)) {
+            DEFAULT_TYPE = FieldAccessorType.VAR_HANDLE;
+        } else if (isSupported(FieldAccessorType.UNSAFE)) {
+            DEFAULT_TYPE = FieldAccessorType.UNSAFE;
+        } else {
+            DEFAULT_TYPE = FieldAccessorType.METHOD_HANDLE;
+        }
+    }
+
+    /**
+     * 当前JVM上默认使用的读写方式
+     *
+     * @return
+     */
+    public static FieldAccessorType getDefaultType() {
+        return DEFAULT_TYPE;
+    }
+
+    /**
+     * 当前JVM是否支持该读写方式
+     *
+     * @param type
+     * @return
+     */
+    public static boolean isSupported(FieldAccessorType type) {
+        switch (type) {
+            case VAR_HANDLE:
+                return PRIVATE_LOOKUP_IN != null && FIND_VAR_HANDLE != null && TO_METHOD_HANDLE != null;
+            case UNSAFE:
+                return UnsafeFieldAccessor.isSupported();
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 创建字段读写器
+     *
+     * @param field 字段
+     * @param type  读写方式
+     * @return
+     */
+    public static FieldAccessor create(Field field, FieldAccessorType type) {
+        FieldAccessor accessor = null;
+        try {
+            switch (type) {
+                case VAR_HANDLE:
+                    accessor = createVarHandleAccessor(field);
+                    break;
+                case LAMBDA:
+                    accessor = createLambdaAccessor(field);
+                    break;
+                case UNSAFE:
+                    if (UnsafeFieldAccessor.isSupported()) {
+                        accessor = new UnsafeFieldAccessor(field);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (accessor == null && type != FieldAccessorType.REFLECT) {
+                accessor = createMethodHandleAccessor(field);
+            }
+        } catch (Throwable e) {
+            log.debug("字段[" + field + "]无法使用" + type + "方式读写，改用反射: " + e.getMessage());
+        }
+        if (accessor == null) {
+            accessor = new ReflectFieldAccessor(field);
+        }
+        return accessor;
+    }
+
+    private static FieldAccessor createMethodHandleAccessor(Field field) throws IllegalAccessException {
+        if (!field.isAccessible()) field.setAccessible(true);
+        return new MethodHandleFieldAccessor(LOOKUP.unreflectGetter(field), LOOKUP.unreflectSetter(field));
+    }
+
+    private static FieldAccessor createVarHandleAccessor(Field field) throws ReflectiveOperationException {
+        if (!isSupported(FieldAccessorType.VAR_HANDLE)) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = privateLookupIn(field.getDeclaringClass());
+        Object var_handle = FIND_VAR_HANDLE.invoke(lookup, field.getDeclaringClass(), field.getName(), field.getType());
+        MethodHandle getter = (MethodHandle) TO_METHOD_HANDLE.invoke(var_handle, GET_MODE);
+        MethodHandle setter = (MethodHandle) TO_METHOD_HANDLE.invoke(var_handle, SET_MODE);
+        return new MethodHandleFieldAccessor(getter, setter);
+    }
+
+    /**
+     * 为public的getter/setter生成函数，找不到或者是基本类型字段时返回null
+     */
+    @SuppressWarnings("unchecked")
+    private static FieldAccessor createLambdaAccessor(Field field) throws Throwable {
+        Class<?> clazz = field.getDeclaringClass();
+        Class<?> type = field.getType();
+        if (type.isPrimitive()) {
+            return null;//基本类型字段使用MethodHandle，读写时不装箱
+        }
+        String name = StringUtils.capitalize(field.getName());
+        Method getter = findMethod(clazz, "get" + name);
+        if (getter == null && type == Boolean.class) {
+            getter = findMethod(clazz, "is" + name);
+        }
+        Method setter = findMethod(clazz, "set" + name, type);
+        if (getter == null || setter == null || getter.getReturnType() != type
+                || !Modifier.isPublic(getter.getModifiers()) || !Modifier.isPublic(setter.getModifiers())) {
+            return null;
+        }
+        MethodHandles.Lookup lookup;
+        if (PRIVATE_LOOKUP_IN != null) {
+            lookup = privateLookupIn(clazz);//在Bean所在的类加载器中生成函数类
+        } else if (isVisible(clazz)) {
+            lookup = LOOKUP;
+        } else {
+            return null;
+        }
+        MethodHandle getter_handle = lookup.unreflect(getter);
+        Function<Object, Object> getter_function = (Function<Object, Object>) LambdaMetafactory.metafactory(lookup, "apply",
+                MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+                getter_handle, MethodType.methodType(type, clazz)).getTarget().invoke();
+        MethodHandle setter_handle = lookup.unreflect(setter);
+        BiConsumer<Object, Object> setter_function = (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(BiConsumer.class), MethodType.methodType(void.class, Object.class, Object.class),
+                setter_handle, MethodType.methodType(void.class, clazz, type)).getTarget().invoke();
+        return new LambdaFieldAccessor(getter_function, setter_function);
+    }
+
+    private static MethodHandles.Lookup privateLookupIn(Class<?> clazz) throws ReflectiveOperationException {
+        return (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, clazz, LOOKUP);
+    }
+
+    private static boolean isVisible(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, FieldAccessorFactory.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameter_types) {
+        try {
+            return clazz.getMethod(name, parameter_types);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.cyser.base.accessor;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 通过LambdaMetafactory为getter/setter生成的函数读写字段
+ */
+public class LambdaFieldAccessor implements FieldAccessor {
+
+    private final Function<Object, Object> getter;
+
+    private final BiConsumer<Object, Object> setter;
+
+    public LambdaFieldAccessor(Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    @Override
+    public Object get(Object bean) {
+        return getter.apply(bean);
+    }
+
+    @Override
+    public void set(Object bean, Object value) {
+        setter.accept(bean, value);
+    }
+}
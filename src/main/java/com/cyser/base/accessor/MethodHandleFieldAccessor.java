@@ -0,0 +1,330 @@
+package com.cyser.base.accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+
+/**
+ * 通过MethodHandle读写字段
+ * <br/>
+ * 句柄可以来自Field(METHOD_HANDLE)，也可以来自VarHandle(VAR_HANDLE)，创建时统一适配为Object类型，调用时使用invokeExact
+ */
+public class MethodHandleFieldAccessor implements FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandle getter;
+
+    private final MethodHandle setter;
+
+    /**
+     * 基本类型字段按返回类型适配好的getter，字段类型不能拓宽到该类型时为null
+     */
+    private final MethodHandle boolean_getter;
+
+    private final MethodHandle byte_getter;
+
+    private final MethodHandle char_getter;
+
+    private final MethodHandle short_getter;
+
+    private final MethodHandle int_getter;
+
+    private final MethodHandle long_getter;
+
+    private final MethodHandle float_getter;
+
+    private final MethodHandle double_getter;
+
+    /**
+     * 基本类型字段的setter，(Object,字段类型)void
+     */
+    private final MethodHandle primitive_setter;
+
+    /**
+     * @param getter (Bean)字段类型
+     * @param setter (Bean,字段类型)void
+     */
+    public MethodHandleFieldAccessor(MethodHandle getter, MethodHandle setter) {
+        this.getter = getter.asType(GETTER_TYPE);
+        this.setter = setter.asType(SETTER_TYPE);
+        this.boolean_getter = typedGetter(getter, boolean.class);
+        this.byte_getter = typedGetter(getter, byte.class);
+        this.char_getter = typedGetter(getter, char.class);
+        this.short_getter = typedGetter(getter, short.class);
+        this.int_getter = typedGetter(getter, int.class);
+        this.long_getter = typedGetter(getter, long.class);
+        this.float_getter = typedGetter(getter, float.class);
+        this.double_getter = typedGetter(getter, double.class);
+        Class<?> type = getter.type().returnType();
+        this.primitive_setter = type.isPrimitive() ? setter.asType(MethodType.methodType(void.class, Object.class, type)) : null;
+    }
+
+    private static MethodHandle typedGetter(MethodHandle getter, Class<?> return_type) {
+        Class<?> type = getter.type().returnType();
+        if (!type.isPrimitive() || (type != return_type && (type == boolean.class || return_type == boolean.class))) {
+            return null;
+        }
+        try {
+            return getter.asType(MethodType.methodType(return_type, Object.class));
+        } catch (WrongMethodTypeException e) {
+            return null;//不能拓宽
+        }
+    }
+
+    @Override
+    public Object get(Object bean) {
+        try {
+            return (Object) getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void set(Object bean, Object value) {
+        try {
+            setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Object bean) {
+        if (boolean_getter == null) {
+            return FieldAccessor.super.getBoolean(bean);
+        }
+        try {
+            return (boolean) boolean_getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setBoolean(Object bean, boolean value) {
+        if (primitive_setter == null || primitive_setter.type().parameterType(1) != boolean.class) {
+            FieldAccessor.super.setBoolean(bean, value);
+            return;
+        }
+        try {
+            primitive_setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public byte getByte(Object bean) {
+        if (byte_getter == null) {
+            return FieldAccessor.super.getByte(bean);
+        }
+        try {
+            return (byte) byte_getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setByte(Object bean, byte value) {
+        if (primitive_setter == null || primitive_setter.type().parameterType(1) != byte.class) {
+            FieldAccessor.super.setByte(bean, value);
+            return;
+        }
+        try {
+            primitive_setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public char getChar(Object bean) {
+        if (char_getter == null) {
+            return FieldAccessor.super.getChar(bean);
+        }
+        try {
+            return (char) char_getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setChar(Object bean, char value) {
+        if (primitive_setter == null || primitive_setter.type().parameterType(1) != char.class) {
+            FieldAccessor.super.setChar(bean, value);
+            return;
+        }
+        try {
+            primitive_setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public short getShort(Object bean) {
+        if (short_getter == null) {
+            return FieldAccessor.super.getShort(bean);
+        }
+        try {
+            return (short) short_getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setShort(Object bean, short value) {
+        if (primitive_setter == null || primitive_setter.type().parameterType(1) != short.class) {
+            FieldAccessor.super.setShort(bean, value);
+            return;
+        }
+        try {
+            primitive_setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int getInt(Object bean) {
+        if (int_getter == null) {
+            return FieldAccessor.super.getInt(bean);
+        }
+        try {
+            return (int) int_getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setInt(Object bean, int value) {
+        if (primitive_setter == null || primitive_setter.type().parameterType(1) != int.class) {
+            FieldAccessor.super.setInt(bean, value);
+            return;
+        }
+        try {
+            primitive_setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public long getLong(Object bean) {
+        if (long_getter == null) {
+            return FieldAccessor.super.getLong(bean);
+        }
+        try {
+            return (long) long_getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setLong(Object bean, long value) {
+        if (primitive_setter == null || primitive_setter.type().parameterType(1) != long.class) {
+            FieldAccessor.super.setLong(bean, value);
+            return;
+        }
+        try {
+            primitive_setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public float getFloat(Object bean) {
+        if (float_getter == null) {
+            return FieldAccessor.super.getFloat(bean);
+        }
+        try {
+            return (float) float_getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setFloat(Object bean, float value) {
+        if (primitive_setter == null || primitive_setter.type().parameterType(1) != float.class) {
+            FieldAccessor.super.setFloat(bean, value);
+            return;
+        }
+        try {
+            primitive_setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public double getDouble(Object bean) {
+        if (double_getter == null) {
+            return FieldAccessor.super.getDouble(bean);
+        }
+        try {
+            return (double) double_getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setDouble(Object bean, double value) {
+        if (primitive_setter == null || primitive_setter.type().parameterType(1) != double.class) {
+            FieldAccessor.super.setDouble(bean, value);
+            return;
+        }
+        try {
+            primitive_setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
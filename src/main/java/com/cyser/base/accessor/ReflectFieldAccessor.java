@@ -0,0 +1,178 @@
+package com.cyser.base.accessor;
+
+import java.lang.reflect.Field;
+
+/**
+ * 通过反射读写字段
+ */
+public class ReflectFieldAccessor implements FieldAccessor {
+
+    private final Field field;
+
+    public ReflectFieldAccessor(Field field) {
+        if (!field.isAccessible()) field.setAccessible(true);
+        this.field = field;
+    }
+
+    @Override
+    public Object get(Object bean) {
+        try {
+            return field.get(bean);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void set(Object bean, Object value) {
+        try {
+            field.set(bean, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Object bean) {
+        try {
+            return field.getBoolean(bean);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setBoolean(Object bean, boolean value) {
+        try {
+            field.setBoolean(bean, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public byte getByte(Object bean) {
+        try {
+            return field.getByte(bean);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setByte(Object bean, byte value) {
+        try {
+            field.setByte(bean, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public char getChar(Object bean) {
+        try {
+            return field.getChar(bean);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setChar(Object bean, char value) {
+        try {
+            field.setChar(bean, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public short getShort(Object bean) {
+        try {
+            return field.getShort(bean);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setShort(Object bean, short value) {
+        try {
+            field.setShort(bean, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public int getInt(Object bean) {
+        try {
+            return field.getInt(bean);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setInt(Object bean, int value) {
+        try {
+            field.setInt(bean, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public long getLong(Object bean) {
+        try {
+            return field.getLong(bean);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setLong(Object bean, long value) {
+        try {
+            field.setLong(bean, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public float getFloat(Object bean) {
+        try {
+            return field.getFloat(bean);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setFloat(Object bean, float value) {
+        try {
+            field.setFloat(bean, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public double getDouble(Object bean) {
+        try {
+            return field.getDouble(bean);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setDouble(Object bean, double value) {
+        try {
+            field.setDouble(bean, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+}
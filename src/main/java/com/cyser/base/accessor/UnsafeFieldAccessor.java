@@ -0,0 +1,489 @@
+package com.cyser.base.accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * 通过sun.misc.Unsafe按字段偏移量读写字段
+ * <br/>
+ * Unsafe通过反射加载，各个读写方法绑定为静态常量MethodHandle，编译时不引用内部API，JIT后与直接调用相同
+ */
+public class UnsafeFieldAccessor implements FieldAccessor {
+
+    /**
+     * sun.misc.Unsafe.theUnsafe，当前JVM不支持时为null
+     */
+    private static final Object UNSAFE = findUnsafe();
+
+    private static final MethodHandle OBJECT_FIELD_OFFSET = bind("objectFieldOffset", long.class, Field.class);
+
+    private static final MethodHandle GET_OBJECT = bind("getObject", Object.class, Object.class, long.class);
+
+    private static final MethodHandle PUT_OBJECT = bind("putObject", void.class, Object.class, long.class, Object.class);
+
+    private static final MethodHandle GET_INT = bind("getInt", int.class, Object.class, long.class);
+
+    private static final MethodHandle PUT_INT = bind("putInt", void.class, Object.class, long.class, int.class);
+
+    private static final MethodHandle GET_LONG = bind("getLong", long.class, Object.class, long.class);
+
+    private static final MethodHandle PUT_LONG = bind("putLong", void.class, Object.class, long.class, long.class);
+
+    private static final MethodHandle GET_DOUBLE = bind("getDouble", double.class, Object.class, long.class);
+
+    private static final MethodHandle PUT_DOUBLE = bind("putDouble", void.class, Object.class, long.class, double.class);
+
+    private static final MethodHandle GET_FLOAT = bind("getFloat", float.class, Object.class, long.class);
+
+    private static final MethodHandle PUT_FLOAT = bind("putFloat", void.class, Object.class, long.class, float.class);
+
+    private static final MethodHandle GET_BOOLEAN = bind("getBoolean", boolean.class, Object.class, long.class);
+
+    private static final MethodHandle PUT_BOOLEAN = bind("putBoolean", void.class, Object.class, long.class, boolean.class);
+
+    private static final MethodHandle GET_BYTE = bind("getByte", byte.class, Object.class, long.class);
+
+    private static final MethodHandle PUT_BYTE = bind("putByte", void.class, Object.class, long.class, byte.class);
+
+    private static final MethodHandle GET_SHORT = bind("getShort", short.class, Object.class, long.class);
+
+    private static final MethodHandle PUT_SHORT = bind("putShort", void.class, Object.class, long.class, short.class);
+
+    private static final MethodHandle GET_CHAR = bind("getChar", char.class, Object.class, long.class);
+
+    private static final MethodHandle PUT_CHAR = bind("putChar", void.class, Object.class, long.class, char.class);
+
+    private static final boolean SUPPORTED = allBound(OBJECT_FIELD_OFFSET, GET_OBJECT, PUT_OBJECT, GET_INT,
+            PUT_INT, GET_LONG, PUT_LONG, GET_DOUBLE, PUT_DOUBLE, GET_FLOAT, PUT_FLOAT,
+            GET_BOOLEAN, PUT_BOOLEAN, GET_BYTE, PUT_BYTE, GET_SHORT, PUT_SHORT, GET_CHAR, PUT_CHAR);
+
+    private final long offset;
+
+    private final Class<?> type;
+
+    public UnsafeFieldAccessor(Field field) {
+        if (!SUPPORTED) {
+            throw new UnsupportedOperationException("当前JVM不支持sun.misc.Unsafe");
+        }
+        try {
+            this.offset = (long) OBJECT_FIELD_OFFSET.invokeExact(field);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+        this.type = field.getType();
+    }
+
+    /**
+     * 当前JVM是否可以使用sun.misc.Unsafe
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    private static Object findUnsafe() {
+        try {
+            Field field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return field.get(null);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * 查找Unsafe的实例方法并绑定到theUnsafe
+     *
+     * @return 找不到时返回null
+     */
+    private static MethodHandle bind(String name, Class<?> return_type, Class<?>... parameter_types) {
+        if (UNSAFE == null) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().findVirtual(UNSAFE.getClass(), name, MethodType.methodType(return_type, parameter_types)).bindTo(UNSAFE);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static boolean allBound(MethodHandle... handles) {
+        for (MethodHandle handle : handles) {
+            if (handle == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new RuntimeException(e);
+    }
+
+    @Override
+    public Object get(Object bean) {
+        bean.getClass();//与反射一致，对象为空时抛出空指针
+        if (!type.isPrimitive()) {
+            return readObject(bean);
+        } else if (type == int.class) {
+            return readInt(bean);
+        } else if (type == long.class) {
+            return readLong(bean);
+        } else if (type == double.class) {
+            return readDouble(bean);
+        } else if (type == float.class) {
+            return readFloat(bean);
+        } else if (type == boolean.class) {
+            return readBoolean(bean);
+        } else if (type == byte.class) {
+            return readByte(bean);
+        } else if (type == short.class) {
+            return readShort(bean);
+        } else {
+            return readChar(bean);
+        }
+    }
+
+    @Override
+    public void set(Object bean, Object value) {
+        bean.getClass();
+        if (!type.isPrimitive()) {
+            if (value != null && !type.isInstance(value)) {
+                throw new IllegalArgumentException("无法将" + value.getClass().getName() + "赋值给" + type.getName() + "类型的字段");
+            }
+            writeObject(bean, value);
+        } else if (type == int.class) {
+            writeInt(bean, (Integer) value);
+        } else if (type == long.class) {
+            writeLong(bean, (Long) value);
+        } else if (type == double.class) {
+            writeDouble(bean, (Double) value);
+        } else if (type == float.class) {
+            writeFloat(bean, (Float) value);
+        } else if (type == boolean.class) {
+            writeBoolean(bean, (Boolean) value);
+        } else if (type == byte.class) {
+            writeByte(bean, (Byte) value);
+        } else if (type == short.class) {
+            writeShort(bean, (Short) value);
+        } else {
+            writeChar(bean, (Character) value);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Object bean) {
+        if (type != boolean.class) {
+            return FieldAccessor.super.getBoolean(bean);
+        }
+        bean.getClass();
+        return readBoolean(bean);
+    }
+
+    @Override
+    public byte getByte(Object bean) {
+        if (type != byte.class) {
+            return FieldAccessor.super.getByte(bean);
+        }
+        bean.getClass();
+        return readByte(bean);
+    }
+
+    @Override
+    public char getChar(Object bean) {
+        if (type != char.class) {
+            return FieldAccessor.super.getChar(bean);
+        }
+        bean.getClass();
+        return readChar(bean);
+    }
+
+    @Override
+    public short getShort(Object bean) {
+        if (type == short.class) {
+            bean.getClass();
+            return readShort(bean);
+        } else if (type == byte.class) {
+            return getByte(bean);
+        }
+        return FieldAccessor.super.getShort(bean);
+    }
+
+    @Override
+    public int getInt(Object bean) {
+        if (type == int.class) {
+            bean.getClass();
+            return readInt(bean);
+        } else if (type == char.class) {
+            return getChar(bean);
+        } else if (type == short.class || type == byte.class) {
+            return getShort(bean);
+        }
+        return FieldAccessor.super.getInt(bean);
+    }
+
+    @Override
+    public long getLong(Object bean) {
+        if (type == long.class) {
+            bean.getClass();
+            return readLong(bean);
+        } else if (type == int.class || type == char.class || type == short.class || type == byte.class) {
+            return getInt(bean);
+        }
+        return FieldAccessor.super.getLong(bean);
+    }
+
+    @Override
+    public float getFloat(Object bean) {
+        if (type == float.class) {
+            bean.getClass();
+            return readFloat(bean);
+        } else if (type == long.class || type == int.class || type == char.class || type == short.class || type == byte.class) {
+            return getLong(bean);
+        }
+        return FieldAccessor.super.getFloat(bean);
+    }
+
+    @Override
+    public double getDouble(Object bean) {
+        if (type == double.class) {
+            bean.getClass();
+            return readDouble(bean);
+        } else if (type == float.class) {
+            return getFloat(bean);
+        } else if (type == long.class || type == int.class || type == char.class || type == short.class || type == byte.class) {
+            return getLong(bean);
+        }
+        return FieldAccessor.super.getDouble(bean);
+    }
+
+    @Override
+    public void setBoolean(Object bean, boolean value) {
+        if (type != boolean.class) {
+            FieldAccessor.super.setBoolean(bean, value);
+            return;
+        }
+        bean.getClass();
+        writeBoolean(bean, value);
+    }
+
+    @Override
+    public void setByte(Object bean, byte value) {
+        if (type != byte.class) {
+            FieldAccessor.super.setByte(bean, value);
+            return;
+        }
+        bean.getClass();
+        writeByte(bean, value);
+    }
+
+    @Override
+    public void setChar(Object bean, char value) {
+        if (type != char.class) {
+            FieldAccessor.super.setChar(bean, value);
+            return;
+        }
+        bean.getClass();
+        writeChar(bean, value);
+    }
+
+    @Override
+    public void setShort(Object bean, short value) {
+        if (type != short.class) {
+            FieldAccessor.super.setShort(bean, value);
+            return;
+        }
+        bean.getClass();
+        writeShort(bean, value);
+    }
+
+    @Override
+    public void setInt(Object bean, int value) {
+        if (type != int.class) {
+            FieldAccessor.super.setInt(bean, value);
+            return;
+        }
+        bean.getClass();
+        writeInt(bean, value);
+    }
+
+    @Override
+    public void setLong(Object bean, long value) {
+        if (type != long.class) {
+            FieldAccessor.super.setLong(bean, value);
+            return;
+        }
+        bean.getClass();
+        writeLong(bean, value);
+    }
+
+    @Override
+    public void setFloat(Object bean, float value) {
+        if (type != float.class) {
+            FieldAccessor.super.setFloat(bean, value);
+            return;
+        }
+        bean.getClass();
+        writeFloat(bean, value);
+    }
+
+    @Override
+    public void setDouble(Object bean, double value) {
+        if (type != double.class) {
+            FieldAccessor.super.setDouble(bean, value);
+            return;
+        }
+        bean.getClass();
+        writeDouble(bean, value);
+    }
+
+    private Object readObject(Object bean) {
+        try {
+            return (Object) GET_OBJECT.invokeExact(bean, offset);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void writeObject(Object bean, Object value) {
+        try {
+            PUT_OBJECT.invokeExact(bean, offset, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private int readInt(Object bean) {
+        try {
+            return (int) GET_INT.invokeExact(bean, offset);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void writeInt(Object bean, int value) {
+        try {
+            PUT_INT.invokeExact(bean, offset, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private long readLong(Object bean) {
+        try {
+            return (long) GET_LONG.invokeExact(bean, offset);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void writeLong(Object bean, long value) {
+        try {
+            PUT_LONG.invokeExact(bean, offset, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private double readDouble(Object bean) {
+        try {
+            return (double) GET_DOUBLE.invokeExact(bean, offset);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void writeDouble(Object bean, double value) {
+        try {
+            PUT_DOUBLE.invokeExact(bean, offset, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private float readFloat(Object bean) {
+        try {
+            return (float) GET_FLOAT.invokeExact(bean, offset);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void writeFloat(Object bean, float value) {
+        try {
+            PUT_FLOAT.invokeExact(bean, offset, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private boolean readBoolean(Object bean) {
+        try {
+            return (boolean) GET_BOOLEAN.invokeExact(bean, offset);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void writeBoolean(Object bean, boolean value) {
+        try {
+            PUT_BOOLEAN.invokeExact(bean, offset, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private byte readByte(Object bean) {
+        try {
+            return (byte) GET_BYTE.invokeExact(bean, offset);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void writeByte(Object bean, byte value) {
+        try {
+            PUT_BYTE.invokeExact(bean, offset, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private short readShort(Object bean) {
+        try {
+            return (short) GET_SHORT.invokeExact(bean, offset);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void writeShort(Object bean, short value) {
+        try {
+            PUT_SHORT.invokeExact(bean, offset, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private char readChar(Object bean) {
+        try {
+            return (char) GET_CHAR.invokeExact(bean, offset);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void writeChar(Object bean, char value) {
+        try {
+            PUT_CHAR.invokeExact(bean, offset, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.cyser.base.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * 声明一对需要在编译期生成拷贝器的类，由easy-copy-processor处理
+ * <br/>
+ * 可以标注在任意类上，同一个类上可以标注多个。生成的拷贝器与目标类在同一个包中，
+ * 运行时按类名查找，{@link com.cyser.base.utils.BeanUtil#copy(Object, Object, com.cyser.base.param.CopyParam)}
+ * 会优先使用，不需要反射，也不需要预热
+ * <pre>
+ * {@code
+ * @CopyMapping(source = Order.class, target = OrderDTO.class)
+ * @CopyMapping(source = OrderDTO.class, target = Order.class)
+ * public class CopyConfiguration {
+ * }
+ * }
+ * </pre>
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.SOURCE)
+@Repeatable(CopyMappings.class)
+@Documented
+public @interface CopyMapping {
+
+    /**
+     * 源类
+     */
+    Class<?> source();
+
+    /**
+     * 目标类
+     */
+    Class<?> target();
+}
@@ -0,0 +1,14 @@
+package com.cyser.base.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * {@link CopyMapping}的容器注解
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.SOURCE)
+@Documented
+public @interface CopyMappings {
+
+    CopyMapping[] value();
+}
@@ -0,0 +1,65 @@
+package com.cyser.base.bean;
+
+import com.google.common.collect.MapMaker;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 挂在Class上的元数据
+ * <br/>
+ * 通过{@link ClassValue}保存，随类(以及类加载器)一起卸载，不会因为热部署而泄漏
+ */
+public class ClassMetadata {
+
+    /**
+     * 类型定义，第一次解析后设置，之后不再改变
+     */
+    public final AtomicReference<TypeDefinition> type_def = new AtomicReference<>();
+
+    /**
+     * 类所有的声明字段(包含超类)
+     */
+    public final AtomicReference<Map<String, Field>> all_fields_map = new AtomicReference<>();
+
+    /**
+     * 类型定义 -> 可序列化字段，类型定义按引用比较
+     */
+    public final ConcurrentMap<TypeDefinition, Map<String, FieldDefinition>> serial_fd_def_cache = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * 范型实际类型 -> 可序列化字段，非范型类的key为空字符串
+     */
+    public final ConcurrentMap<String, Map<String, FieldDefinition>> serial_fd_name_cache = new ConcurrentHashMap<>();
+
+    /**
+     * 保存在该类上的拷贝计划(该类是源类或者目标类)，由{@link com.cyser.base.cache.CopyPlanCache}维护，新增时整体替换数组
+     */
+    public volatile CopyPlan[] copy_plans = new CopyPlan[0];
+
+    /**
+     * 按Class解析出的拷贝计划，另一方的类 -> 计划，由{@link com.cyser.base.cache.CopyPlanCache#putClassPlan(CopyPlan)}登记，
+     * 新增时整体替换数组。另一方的类加载器是该类的类加载器或者其祖先，不会引用住其它类加载器
+     */
+    public final ConcurrentMap<Class<?>, CopyPlan[]> class_plans = new ConcurrentHashMap<>();
+
+    /**
+     * 新增拷贝计划时的锁，与{@link CopyPlan#lock}一样不使用synchronized
+     */
+    public final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 创建实例的方法，由{@link com.cyser.base.utils.ClassUtil#getInstantiator(Class)}设置
+     */
+    public volatile Supplier<Object> instantiator;
+
+    /**
+     * 与Map互转时的字段绑定，由{@link com.cyser.base.copier.MapBinder}设置
+     */
+    public volatile PropertyBinding[] property_bindings;
+}
@@ -0,0 +1,103 @@
+package com.cyser.base.bean;
+
+import com.cyser.base.copier.Copier;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 拷贝计划
+ * <br/>
+ * 一对(源类型,目标类型)在一组拷贝参数下需要复制的全部字段对，字段匹配、排除字段、转换方法都已经确定，
+ * 复制时只需按顺序执行{@link #slots}
+ */
+public class CopyPlan {
+
+    /**
+     * 源类
+     */
+    public final Class src_clazz;
+
+    /**
+     * 目标类
+     */
+    public final Class target_clazz;
+
+    /**
+     * 生成计划时的拷贝特色掩码
+     */
+    public final int features;
+
+    /**
+     * 按源对象字段顺序排列的字段对
+     */
+    public final FieldSlot[] slots;
+
+    /**
+     * 生成计划时的源类、目标类可序列化字段，来自{@link com.cyser.base.cache.CopyableFieldsCache}，查找计划时按引用比较
+     */
+    public final Map<String, FieldDefinition> serial_src_fd_map;
+    public final Map<String, FieldDefinition> serial_dest_fd_map;
+
+    /**
+     * 生成计划时不需要拷贝的字段
+     */
+    public final Set<String> exclude_fields;
+
+    /**
+     * 为该计划生成的拷贝器，由{@link com.cyser.base.cache.CopierCache}设置
+     * <br/>
+     * 拷贝器跟随计划保存，不放在全局Map中，避免生成类通过父类加载器反向引用住源类
+     */
+    public volatile Copier copier;
+
+    /**
+     * 为该计划组合的MethodHandle拷贝器，由{@link com.cyser.base.cache.CopierCache}设置
+     */
+    public volatile Copier mh_copier;
+
+    /**
+     * 编译期生成的拷贝器交给运行时复制的字段对，按生成时的下标排列，由{@link com.cyser.base.copier.CompiledCopier}设置
+     */
+    public volatile FieldSlot[] compiled_slots;
+
+    /**
+     * 分层拷贝引擎下生成拷贝器之前、或者拷贝器被淘汰后重新生成之前的调用次数
+     */
+    public final AtomicInteger invocation_count = new AtomicInteger();
+
+    /**
+     * 分层拷贝引擎下，是否已经提交后台生成
+     */
+    public final AtomicBoolean compile_queued = new AtomicBoolean();
+
+    /**
+     * 生成的拷贝器是否被淘汰过，淘汰过的计划调用次数达到阈值后才重新生成
+     */
+    public volatile boolean evicted;
+
+    /**
+     * 拷贝器最近是否被使用过，淘汰生成的拷贝器时使用，不要求严格可见
+     */
+    public boolean recently_used;
+
+    /**
+     * 生成拷贝器时的锁，生成过程可能读写磁盘缓存，使用ReentrantLock而不是synchronized，虚拟线程等待时不会占住载体线程
+     */
+    public final ReentrantLock lock = new ReentrantLock();
+
+    public CopyPlan(Class src_clazz, Class target_clazz, int features, FieldSlot[] slots,
+                    Map<String, FieldDefinition> serial_src_fd_map, Map<String, FieldDefinition> serial_dest_fd_map,
+                    Set<String> exclude_fields) {
+        this.src_clazz = src_clazz;
+        this.target_clazz = target_clazz;
+        this.features = features;
+        this.slots = slots;
+        this.serial_src_fd_map = serial_src_fd_map;
+        this.serial_dest_fd_map = serial_dest_fd_map;
+        this.exclude_fields = exclude_fields;
+    }
+}
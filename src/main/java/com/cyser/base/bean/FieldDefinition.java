@@ -1,5 +1,6 @@
 package com.cyser.base.bean;
 
+import com.cyser.base.accessor.FieldAccessor;
 import com.cyser.base.annotations.Timemode;
 import com.cyser.base.enums.DataTypeEnum;
 import com.cyser.base.enums.FastDateFormatPattern;
@@ -15,6 +16,11 @@ public class FieldDefinition extends TypeDefinition {
 
     public Field field;
 
+    /**
+     * 字段读写器，解析字段时创建
+     */
+    public FieldAccessor accessor;
+
     public Type genericType;
 
     /**
@@ -46,6 +52,13 @@ public class FieldDefinition extends TypeDefinition {
      */
     public Map<Class, EnumInfo> enumInfos;
 
+    /**
+     * 字段运行时类型的类型定义，例如字段定义为List&lt;T&gt;，运行时T为String时，这里是List&lt;String&gt;的类型定义
+     * <br/>
+     * 第一次使用时解析，见{@link com.cyser.base.utils.ClassUtil#getRuntimeTypeDefinition(FieldDefinition)}
+     */
+    public volatile TypeDefinition runtime_type_def;
+
     public DataTypeEnum getData_type(Class id) {
         if (isEnum(id)) {
             return DataTypeEnum.Enum;
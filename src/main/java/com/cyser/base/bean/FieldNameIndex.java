@@ -0,0 +1,220 @@
+package com.cyser.base.bean;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按字段名称查找字段，不区分大小写，可以忽略下划线和中划线(user_name、userName、USER-NAME视为同一个名称)
+ * <br/>
+ * 构造时把名称规范化后放入开放寻址表，并选择一个使表中没有冲突的种子，查找时通常只探测一次；
+ * 查找直接在原字符串上逐个字符折叠大小写，不生成小写字符串
+ * <br/>
+ * 规范化后相同的多个字段，保留声明在前的字段
+ */
+public final class FieldNameIndex {
+
+    /**
+     * 寻找无冲突种子的次数，超过后扩大表
+     */
+    private static final int SEED_ATTEMPTS = 32;
+
+    private final boolean ignore_separator;
+
+    private final int seed;
+
+    private final int mask;
+
+    /**
+     * 规范化后的名称，空槽为null
+     */
+    private final char[][] keys;
+
+    /**
+     * 字段在字段Map中的位置
+     */
+    private final int[] positions;
+
+    private final FieldDefinition[] fds;
+
+    /**
+     * 创建索引
+     *
+     * @param fd_map           字段Map，位置按Map的迭代顺序
+     * @param ignore_separator 是否忽略下划线和中划线
+     * @return
+     */
+    public static FieldNameIndex of(Map<String, FieldDefinition> fd_map, boolean ignore_separator) {
+        List<char[]> names = new ArrayList<>(fd_map.size());
+        List<Integer> name_positions = new ArrayList<>(fd_map.size());
+        List<FieldDefinition> name_fds = new ArrayList<>(fd_map.size());
+        int position = 0;
+        for (Map.Entry<String, FieldDefinition> entry : fd_map.entrySet()) {
+            char[] key = normalize(entry.getKey(), ignore_separator);
+            boolean duplicate = false;
+            for (char[] name : names) {
+                if (Arrays.equals(name, key)) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (!duplicate) {
+                names.add(key);
+                name_positions.add(position);
+                name_fds.add(entry.getValue());
+            }
+            position++;
+        }
+        int capacity = Math.max(2, Integer.highestOneBit(Math.max(1, names.size()) * 2 - 1) << 1);
+        while (true) {
+            for (int seed = 0; seed < SEED_ATTEMPTS; seed++) {
+                if (isPerfect(names, capacity, seed, ignore_separator)) {
+                    return new FieldNameIndex(names, name_positions, name_fds, capacity, seed, ignore_separator);
+                }
+            }
+            if (capacity >= names.size() * 16) {
+                // 名称很多或者分布很差时不再扩大，少量冲突按线性探测查找
+                return new FieldNameIndex(names, name_positions, name_fds, capacity, 0, ignore_separator);
+            }
+            capacity <<= 1;
+        }
+    }
+
+    private FieldNameIndex(List<char[]> names, List<Integer> name_positions, List<FieldDefinition> name_fds,
+                           int capacity, int seed, boolean ignore_separator) {
+        this.ignore_separator = ignore_separator;
+        this.seed = seed;
+        this.mask = capacity - 1;
+        this.keys = new char[capacity][];
+        this.positions = new int[capacity];
+        this.fds = new FieldDefinition[capacity];
+        for (int i = 0; i < names.size(); i++) {
+            char[] name = names.get(i);
+            int slot = hash(CharBuffer.wrap(name), 0, name.length, seed, ignore_separator) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = name;
+            positions[slot] = name_positions.get(i);
+            fds[slot] = name_fds.get(i);
+        }
+    }
+
+    private static boolean isPerfect(List<char[]> names, int capacity, int seed, boolean ignore_separator) {
+        boolean[] used = new boolean[capacity];
+        for (char[] name : names) {
+            int slot = hash(CharBuffer.wrap(name), 0, name.length, seed, ignore_separator) & (capacity - 1);
+            if (used[slot]) {
+                return false;
+            }
+            used[slot] = true;
+        }
+        return true;
+    }
+
+    /**
+     * 查找字段
+     *
+     * @param name 字段名称
+     * @return 不存在时返回null
+     */
+    public FieldDefinition get(CharSequence name) {
+        int slot = find(name, 0, name.length());
+        return slot < 0 ? null : fds[slot];
+    }
+
+    /**
+     * 查找字段在字段Map中的位置
+     *
+     * @param name 字段名称
+     * @return 不存在时返回-1
+     */
+    public int indexOf(CharSequence name) {
+        return indexOf(name, 0, name.length());
+    }
+
+    /**
+     * 查找name中[start,end)部分对应的字段位置，例如点分隔路径中的一段，不需要截取字符串
+     *
+     * @param name  字段名称或者路径
+     * @param start 开始位置(包含)
+     * @param end   结束位置(不包含)
+     * @return 不存在时返回-1
+     */
+    public int indexOf(CharSequence name, int start, int end) {
+        int slot = find(name, start, end);
+        return slot < 0 ? -1 : positions[slot];
+    }
+
+    private int find(CharSequence name, int start, int end) {
+        int slot = hash(name, start, end, seed, ignore_separator) & mask;
+        char[] key;
+        while ((key = keys[slot]) != null) {
+            if (matches(key, name, start, end)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean matches(char[] key, CharSequence name, int start, int end) {
+        int k = 0;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (ignore_separator && isSeparator(c)) {
+                continue;
+            }
+            if (k == key.length || key[k++] != fold(c)) {
+                return false;
+            }
+        }
+        return k == key.length;
+    }
+
+    private static int hash(CharSequence name, int start, int end, int seed, boolean ignore_separator) {
+        int h = seed;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (ignore_separator && isSeparator(c)) {
+                continue;
+            }
+            h = 31 * h + fold(c);
+        }
+        return mix(h, seed);
+    }
+
+    private static int mix(int h, int seed) {
+        h *= 0x9E3779B1 + (seed << 1);
+        return h ^ (h >>> 16);
+    }
+
+    private static char[] normalize(String name, boolean ignore_separator) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(ignore_separator && isSeparator(c))) {
+                sb.append(fold(c));
+            }
+        }
+        char[] key = new char[sb.length()];
+        sb.getChars(0, sb.length(), key, 0);
+        return key;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '_' || c == '-';
+    }
+
+    /**
+     * 与{@link String#equalsIgnoreCase(String)}相同的大小写折叠，ASCII字符不查Unicode表
+     */
+    private static char fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
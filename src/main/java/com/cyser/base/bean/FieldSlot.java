@@ -0,0 +1,55 @@
+package com.cyser.base.bean;
+
+import com.cyser.base.enums.SlotTypeEnum;
+import com.cyser.base.function.PentaFunction;
+import com.cyser.base.function.TernaryFunction;
+import com.cyser.base.param.CopyParam;
+
+/**
+ * 拷贝计划中的一对字段，以及已经确定好的复制方式
+ * <br/>
+ * 在生成拷贝计划时创建，之后不再修改
+ */
+public class FieldSlot {
+
+    /**
+     * 源对象字段定义
+     */
+    public FieldDefinition src_fd;
+
+    /**
+     * 目标对象字段定义
+     */
+    public FieldDefinition dest_fd;
+
+    /**
+     * 复制方式
+     */
+    public SlotTypeEnum slot_type;
+
+    /**
+     * 当slot_type为CONVERT或者RUNTIME_CONVERT时的转换方法
+     */
+    public PentaFunction<Object, Object, CopyDefinition, CopyDefinition, CopyParam, Object> method;
+
+    /**
+     * 当slot_type为TIME时的转换方法
+     */
+    public TernaryFunction<FieldDefinition, FieldDefinition, Object, Object> time_method;
+
+    /**
+     * 当slot_type为RUNTIME_CONVERT时，字段的运行时类型定义
+     */
+    public TypeDefinition runtime_dest_def;
+    public TypeDefinition runtime_src_def;
+
+    /**
+     * 当slot_type为ERROR时的错误信息
+     */
+    public String error;
+
+    public FieldSlot(FieldDefinition src_fd, FieldDefinition dest_fd) {
+        this.src_fd = src_fd;
+        this.dest_fd = dest_fd;
+    }
+}
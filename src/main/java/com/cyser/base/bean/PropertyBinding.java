@@ -0,0 +1,27 @@
+package com.cyser.base.bean;
+
+/**
+ * 实体类与Map互转时的一个字段
+ */
+public class PropertyBinding {
+
+    /**
+     * 字段定义
+     */
+    public final FieldDefinition fd;
+
+    /**
+     * Map中的键，嵌套字段展开时为点分隔的路径，例如address.city
+     */
+    public final String path;
+
+    /**
+     * 字段是实体类时，展开后嵌套字段的绑定，第一次展开时创建
+     */
+    public volatile PropertyBinding[] nested;
+
+    public PropertyBinding(FieldDefinition fd, String path) {
+        this.fd = fd;
+        this.path = path;
+    }
+}
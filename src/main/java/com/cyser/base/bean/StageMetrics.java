@@ -0,0 +1,84 @@
+package com.cyser.base.bean;
+
+/**
+ * 复制流水线中一个阶段的统计快照，由{@link com.cyser.base.pipeline.CopyPipeline#getMetrics()}生成
+ */
+public class StageMetrics {
+
+    /**
+     * 阶段名称
+     */
+    public final String name;
+
+    /**
+     * 工作线程数
+     */
+    public final int threads;
+
+    /**
+     * 已处理的元素数量
+     */
+    public final long processed;
+
+    /**
+     * 已处理的批次数量
+     */
+    public final long batches;
+
+    /**
+     * 所有工作线程处理批次的累计耗时(纳秒)，不包括等待输入和向下游阻塞的时间
+     */
+    public final long busy_nanos;
+
+    /**
+     * 输入队列当前的元素数量
+     */
+    public final int queue_size;
+
+    /**
+     * 输入队列容量
+     */
+    public final int queue_capacity;
+
+    /**
+     * 流水线启动至今的时间(纳秒)
+     */
+    public final long elapsed_nanos;
+
+    public StageMetrics(String name, int threads, long processed, long batches, long busy_nanos,
+                        int queue_size, int queue_capacity, long elapsed_nanos) {
+        this.name = name;
+        this.threads = threads;
+        this.processed = processed;
+        this.batches = batches;
+        this.busy_nanos = busy_nanos;
+        this.queue_size = queue_size;
+        this.queue_capacity = queue_capacity;
+        this.elapsed_nanos = elapsed_nanos;
+    }
+
+    /**
+     * 每秒处理的元素数量
+     */
+    public double getThroughput() {
+        return elapsed_nanos == 0 ? 0 : processed * 1e9 / elapsed_nanos;
+    }
+
+    /**
+     * 工作线程的繁忙比例，接近1说明该阶段是瓶颈
+     */
+    public double getUtilization() {
+        return elapsed_nanos == 0 ? 0 : (double) busy_nanos / elapsed_nanos / threads;
+    }
+
+    @Override
+    public String toString() {
+        return "StageMetrics{name=" + name
+                + ", threads=" + threads
+                + ", processed=" + processed
+                + ", batches=" + batches
+                + ", throughput=" + String.format("%.0f", getThroughput())
+                + ", utilization=" + String.format("%.4f", getUtilization())
+                + ", queue=" + queue_size + "/" + queue_capacity + "}";
+    }
+}
@@ -0,0 +1,58 @@
+package com.cyser.base.bean;
+
+/**
+ * 分层拷贝引擎的统计快照，由{@link com.cyser.base.cache.CopierCache#getTierStatistics()}生成
+ */
+public class TierStatistics {
+
+    /**
+     * 按反射复制的次数
+     */
+    public final long reflect_copies;
+
+    /**
+     * 使用生成的拷贝器复制的次数
+     */
+    public final long compiled_copies;
+
+    /**
+     * 后台生成成功的拷贝器数量
+     */
+    public final long compiled_plans;
+
+    /**
+     * 无法生成拷贝器、一直按反射复制的计划数量
+     */
+    public final long unsupported_plans;
+
+    /**
+     * 已提交、尚未生成完成的计划数量
+     */
+    public final long pending_plans;
+
+    public TierStatistics(long reflect_copies, long compiled_copies, long compiled_plans, long unsupported_plans, long pending_plans) {
+        this.reflect_copies = reflect_copies;
+        this.compiled_copies = compiled_copies;
+        this.compiled_plans = compiled_plans;
+        this.unsupported_plans = unsupported_plans;
+        this.pending_plans = pending_plans;
+    }
+
+    /**
+     * 生成的拷贝器复制的次数占全部复制次数的比例
+     */
+    public double getCompiledRatio() {
+        long total = reflect_copies + compiled_copies;
+        return total == 0 ? 0 : (double) compiled_copies / total;
+    }
+
+    @Override
+    public String toString() {
+        return "TierStatistics{reflect_copies=" + reflect_copies
+                + ", compiled_copies=" + compiled_copies
+                + ", compiled_ratio=" + String.format("%.4f", getCompiledRatio())
+                + ", compiled_plans=" + compiled_plans
+                + ", unsupported_plans=" + unsupported_plans
+                + ", pending_plans=" + pending_plans + "}";
+    }
+}
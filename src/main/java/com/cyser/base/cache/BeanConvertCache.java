@@ -1,22 +1,35 @@
 package com.cyser.base.cache;
 
+import com.cyser.base.accessor.FieldAccessor;
 import com.cyser.base.bean.CopyDefinition;
+import com.cyser.base.bean.CopyPlan;
 import com.cyser.base.bean.EnumInfo;
 import com.cyser.base.bean.FieldDefinition;
+import com.cyser.base.bean.FieldSlot;
 import com.cyser.base.bean.TypeDefinition;
+import com.cyser.base.copier.Copier;
+import com.cyser.base.copier.ElementCopier;
+import com.cyser.base.copier.ParallelCopier;
+import com.cyser.base.enums.ClassTypeEnum;
+import com.cyser.base.enums.CopyEngine;
 import com.cyser.base.enums.CopyFeature;
 import com.cyser.base.enums.DataTypeEnum;
+import com.cyser.base.enums.SlotTypeEnum;
+import com.cyser.base.function.CollectionFactory;
+import com.cyser.base.function.MapFactory;
 import com.cyser.base.function.PentaFunction;
-import com.cyser.base.function.TernaryFunction;
+import com.cyser.base.param.CopyConfig;
 import com.cyser.base.param.CopyParam;
+import com.cyser.base.type.ParameterizedTypeImpl;
+import com.cyser.base.utils.ArrayUtil;
 import com.cyser.base.utils.BeanUtil;
 import com.cyser.base.utils.ClassUtil;
 import com.cyser.base.utils.EnumUtil;
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Table;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.map.CaseInsensitiveMap;
 import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.ObjectUtils;
@@ -25,11 +38,13 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 
 import java.io.Serializable;
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 public class BeanConvertCache {
@@ -52,6 +67,10 @@ public class BeanConvertCache {
     static {
         bean_method_table.put(DataTypeEnum.Entity_Class, DataTypeEnum.Entity_Class, (target, src, target_def, src_def, cp) -> copyEntity2Entity(target, src, target_def, src_def, cp));
         bean_method_table.put(DataTypeEnum.Collection, DataTypeEnum.Collection, (target, src, target_def, src_def, cp) -> copyCollection2Collection(target, src, target_def, src_def, cp));
+        bean_method_table.put(DataTypeEnum.Array, DataTypeEnum.Array, (target, src, target_def, src_def, cp) -> copyArray2Array(target, src, target_def, src_def, cp));
+        bean_method_table.put(DataTypeEnum.Array, DataTypeEnum.Collection, (target, src, target_def, src_def, cp) -> copyArray2Collection(target, src, target_def, src_def, cp));
+        bean_method_table.put(DataTypeEnum.Collection, DataTypeEnum.Array, (target, src, target_def, src_def, cp) -> copyCollection2Array(target, src, target_def, src_def, cp));
+        bean_method_table.put(DataTypeEnum.Map, DataTypeEnum.Map, (target, src, target_def, src_def, cp) -> copyMap2Map(target, src, target_def, src_def, cp));
         bean_method_table.put(DataTypeEnum.PrimitiveOrWrapperOrString, DataTypeEnum.Enum, (target, src, target_def, src_def, cp) -> copyPrimitiveOrWrapperOrString2Enum(target, src, target_def, src_def, cp));
         bean_method_table.put(DataTypeEnum.Enum, DataTypeEnum.PrimitiveOrWrapperOrString, (target, src, target_def, src_def, cp) -> copyEnum2PrimitiveOrWrapperOrString(target, src, target_def, src_def, cp));
         bean_method_table.put(DataTypeEnum.Enum, DataTypeEnum.Enum, (target, src, target_def, src_def, cp) -> copyEnum2Enum(target, src, target_def, src_def, cp));
@@ -86,8 +105,21 @@ public class BeanConvertCache {
                 throw new RuntimeException(e);
             }
         }
-        Collection<String> exclude_fields = cp.exclude_fields;
-        CopyFeature.CopyFeatureHolder cfh = cp.copyFeature;
+        CopyPlan plan = getEntityPlan(target, src, target_def, src_def, cp);
+        return plan == null ? target : copyByPlan(target, src, plan, cp);
+    }
+
+    /**
+     * 获取实体类之间的拷贝计划
+     *
+     * @param target     目标对象，不能为null
+     * @param src        源对象
+     * @param target_def 目标类型定义
+     * @param src_def    源类型定义
+     * @param cp         拷贝参数
+     * @return 源对象为空或者源类没有可序列化字段时返回null
+     */
+    public static CopyPlan getEntityPlan(Object target, Object src, TypeDefinition target_def, TypeDefinition src_def, CopyParam cp) {
         try {
             Class target_clazz = target_def.runtime_class;
             if (target_clazz == null) {
@@ -95,10 +127,9 @@ public class BeanConvertCache {
             }
             Class src_clazz = src_def.runtime_class;
             if (ObjectUtils.isNotEmpty(src)) {
-                ClassLoader target_cl=src.getClass().getClassLoader();
-                // 获取目标类字段
+                // 获取目标类字段，源类与目标类各自按自己的类加载器解析，源类在父加载器中时不会把目标类解析成父加载器中的同名类
                 Map<String, FieldDefinition> serial_dest_fd_map =
-                        CopyableFieldsCache.getSerialFieldDefinitions(target_cl,target_def);
+                        CopyableFieldsCache.getSerialFieldDefinitions(target.getClass().getClassLoader(),target_def);
                 if (serial_dest_fd_map.size() == 0) {
                     throw new IllegalArgumentException("目标类[" + target_clazz.getName() + "]未包含任何可序列化字段.");
                 }
@@ -117,128 +148,219 @@ public class BeanConvertCache {
 
                     // 获取源对象字段
                     Map<String, FieldDefinition> serial_src_fd_map =
-                            CopyableFieldsCache.getSerialFieldDefinitions(target_cl,src_def);
-                    Collection<FieldDefinition> serial_src_fd_list; // 源对象所有可序列化字段
+                            CopyableFieldsCache.getSerialFieldDefinitions(src.getClass().getClassLoader(),src_def);
                     if (serial_src_fd_map.size() == 0) {
                         log.warn("源对象的可序列化字段为空，停止复制！");
-                        return target;
-                    } else serial_src_fd_list = serial_src_fd_map.values();
-
-                    if (ObjectUtils.isNotEmpty(exclude_fields)) {
-                        serial_src_fd_list =
-                                serial_src_fd_list.stream()
-                                        .filter(o -> exclude_fields.contains(o.field.getName()))
-                                        .collect(Collectors.toList());
-                    }
-                    // 复制源对象字段值到目标对象
-                    FieldDefinition tmp_src_fd, tmp_dest_fd;
-                    Iterator<FieldDefinition> serial_src_fd_itera = serial_src_fd_list.iterator();
-                    boolean case_sensitive=cfh.isEnabled(CopyFeature.CASE_SENSITIVE);//字段名称是否区分大小写
-                    if(!case_sensitive){
-                        Map<String,FieldDefinition> _serial_dest_fd_map=new CaseInsensitiveMap<>(serial_dest_fd_map);
-                        serial_dest_fd_map=_serial_dest_fd_map;
-                    }
-                    Field tmp_dest_field,tmp_src_field;
-                    loop_copy_fields:
-                    while (serial_src_fd_itera.hasNext()) {
-                        tmp_src_fd = serial_src_fd_itera.next(); // 源对象字段
-                        tmp_dest_fd = serial_dest_fd_map.get(tmp_src_fd.field.getName()); // 目标对象字段
-                        if (tmp_dest_fd != null) {
-                            tmp_dest_field=tmp_dest_fd.field;
-                            tmp_src_field=tmp_src_fd.field;
-                            tmp_dest_field.setAccessible(true);
-                            tmp_src_field.setAccessible(true);
-                            Object _f_dest_val = tmp_dest_field.get(target); // 目标对象字段值
-                            Object _f_src_val = tmp_src_field.get(src); // 源对象字段值
-
-                            // 如果不拷贝空值
-                            if (_f_src_val == null
-                                    && !cfh.isEnabled(CopyFeature.COPY_NULL_VALUE)) {
-                                continue loop_copy_fields;
-                            }
-                            // 如果没有启用强制覆盖
-                            if (_f_dest_val != null
-                                    && !cfh.isEnabled(CopyFeature.FORCE_OVERWRITE)) {
-                                continue loop_copy_fields;
-                            }
-                            // 如果两者类型相同，直接赋值
-                            if (ClassUtils.isAssignable(
-                                    tmp_src_fd.runtime_class, tmp_dest_fd.runtime_class, true)) {
-                                if(tmp_src_fd.data_type==DataTypeEnum.Collection
-                                        ||tmp_src_fd.data_type==DataTypeEnum.Map){//如果字段类型是集合或者Map
-                                    if(tmp_src_fd.parameter_Type_classes==tmp_dest_fd.parameter_Type_classes){//如果两者参数类型相同，直接赋值
-                                        tmp_dest_fd.field.set(target, _f_src_val);
-                                    }else{
-                                        PentaFunction<Object, Object, CopyDefinition, CopyDefinition, CopyParam, Object> copy_opera= BeanConvertCache.bean_method_table.get(tmp_src_fd.data_type,tmp_dest_fd.data_type);
-                                        if (copy_opera != null) {
-                                            Object tmp_f_dest_val=copy_opera.apply(_f_dest_val,_f_src_val,tmp_dest_fd,tmp_src_fd,cp);
-                                            tmp_dest_fd.field.set(target, tmp_f_dest_val);
-                                        }
-                                    }
-                                }else{
-                                    tmp_dest_fd.field.set(target, _f_src_val);
-                                }
-                            } else {
-                                Class<?> _src_clazz = tmp_src_fd.runtime_class;
-                                Class<?> _dest_clazz = tmp_dest_fd.runtime_class;
-                                // 两个字段是否有一个是时间类型
-                                boolean t1 = tmp_src_fd.isTime || tmp_dest_fd.isTime;
-                                // 源字段是字符串，并且目标字段是基本或者封装类型，并且目标字段不是空类型或者布尔类型
-                                boolean t2 =
-                                        String.class.isAssignableFrom(_src_clazz)
-                                                && ClassUtils.isPrimitiveOrWrapper(_dest_clazz)
-                                                && (!(Void.TYPE.equals(_dest_clazz) || Boolean.TYPE.equals(_dest_clazz)));
-                                // 目标字段是字符串，并且源字段是基本或者封装类型，并且源字段不是空类型或者布尔类型
-                                boolean t3 =
-                                        _dest_clazz.isAssignableFrom(String.class)
-                                                && ClassUtils.isPrimitiveOrWrapper(_src_clazz)
-                                                && (!(Void.TYPE.equals(_src_clazz) || Boolean.TYPE.equals(_src_clazz)));
-                                if (!(t1 || t2 || t3)) {
-                                    PentaFunction<Object, Object, CopyDefinition, CopyDefinition, CopyParam, Object> method;
-                                    // 如果有枚举
-                                    if (tmp_src_fd.isEnum(tmp_dest_fd.field.getDeclaringClass())
-                                            || tmp_dest_fd.isEnum(tmp_src_fd.field.getDeclaringClass())) {
-                                        method = BeanConvertCache.bean_method_table.get(tmp_src_fd.getData_type(tmp_dest_fd.field.getDeclaringClass()), tmp_dest_fd.getData_type(tmp_src_fd.field.getDeclaringClass()));
-                                        if (method != null) {
-                                            _f_dest_val=method.apply(_f_dest_val, _f_src_val, tmp_dest_fd, tmp_src_fd, cp);
-                                            tmp_dest_fd.field.set(target, _f_dest_val);
-                                        } else {
-                                            throw new RuntimeException("字段" + tmp_src_fd.field.getName() + "类型不匹配，无法赋值!");
-                                        }
-                                    } else {
-                                        Type runtime_dest_type = ClassUtil.generateRuntimeField(tmp_dest_fd);
-                                        Type runtime_src_type = ClassUtil.generateRuntimeField(tmp_src_fd);
-                                        TypeDefinition runtime_dest_def = ClassUtil.parseType(runtime_dest_type);
-                                        TypeDefinition runtime_src_def = ClassUtil.parseType(runtime_src_type);
-                                        method = BeanConvertCache.bean_method_table.get(runtime_src_def.getData_type(), runtime_dest_def.getData_type());
-                                        if (method != null) {
-                                            _f_dest_val = method.apply(_f_dest_val, _f_src_val, runtime_dest_def, runtime_src_def, cp);
-                                            tmp_dest_fd.field.set(target, _f_dest_val);
-                                        } else {
-                                            throw new RuntimeException("字段" + tmp_src_fd.field.getName() + "类型不匹配，无法赋值!");
-                                        }
-                                    }
-                                }
-                                if (t1 && _f_src_val != null) { // 如果有日期类型
-                                    assginValue_DateTime(tmp_src_fd, tmp_dest_fd, target, _f_src_val);
-                                } else if (t2 && _f_src_val != null) { // String转基本类型或者封装类型
-                                    tmp_dest_fd.field.set(target, BeanUtil.parsePrimitiveOrWrapperOrStringType(_f_src_val, _dest_clazz));
-                                } else if (t3 && _f_src_val != null) { // 基本类型或者封装类型转String
-                                    tmp_dest_fd.field.set(target, String.valueOf(_f_src_val == null ? "" : _f_src_val));
-                                }
-                            }
-                        }
+                        return null;
                     }
+                    return CopyPlanCache.getCopyPlan(target_clazz, src_clazz, serial_dest_fd_map, serial_src_fd_map, cp);
                 }
 
             }
-        } catch (IllegalAccessException | ClassNotFoundException e) {
+        } catch (ClassNotFoundException e) {
             System.out.println(ExceptionUtils.getStackTrace(e));
             throw new RuntimeException(e.getMessage());
         }
+        return null;
+    }
+
+    /**
+     * 按拷贝计划复制，根据拷贝引擎选择拷贝器，不支持时按字段对逐个复制
+     *
+     * @param target 目标对象
+     * @param src    源对象
+     * @param plan   拷贝计划
+     * @param cp     拷贝参数，拷贝特色必须与计划一致
+     * @return 目标对象
+     */
+    public static Object copyByPlan(Object target, Object src, CopyPlan plan, CopyParam cp) {
+        // 使用生成的拷贝器
+        CopyEngine engine = CopyConfig.getCopyEngine();
+        if (engine != CopyEngine.REFLECT) {
+            Copier copier;
+            switch (engine) {
+                case BYTECODE:
+                    copier = CopierCache.getCopier(plan);
+                    break;
+                case TIERED:
+                    copier = CopierCache.getTieredCopier(plan);
+                    break;
+                default:
+                    copier = CopierCache.getMethodHandleCopier(plan);
+                    break;
+            }
+            if (copier != null) {
+                return copier.copy(target, src, cp);
+            }
+        }
+        // 复制源对象字段值到目标对象
+        for (FieldSlot slot : plan.slots) {
+            copySlot(target, src, slot, cp);
+        }
         return target;
     }
 
+    /**
+     * 按目标字段的基本类型读取源字段(必要时拓宽)并写入目标字段，不装箱
+     *
+     * @param target 目标对象
+     * @param src    源对象
+     * @param slot   字段对
+     */
+    private static void copyPrimitive(Object target, Object src, FieldSlot slot) {
+        FieldAccessor src_accessor = slot.src_fd.accessor;
+        FieldAccessor dest_accessor = slot.dest_fd.accessor;
+        Class<?> type = slot.dest_fd.field.getType();
+        if (type == int.class) {
+            dest_accessor.setInt(target, src_accessor.getInt(src));
+        } else if (type == long.class) {
+            dest_accessor.setLong(target, src_accessor.getLong(src));
+        } else if (type == double.class) {
+            dest_accessor.setDouble(target, src_accessor.getDouble(src));
+        } else if (type == boolean.class) {
+            dest_accessor.setBoolean(target, src_accessor.getBoolean(src));
+        } else if (type == float.class) {
+            dest_accessor.setFloat(target, src_accessor.getFloat(src));
+        } else if (type == short.class) {
+            dest_accessor.setShort(target, src_accessor.getShort(src));
+        } else if (type == byte.class) {
+            dest_accessor.setByte(target, src_accessor.getByte(src));
+        } else {
+            dest_accessor.setChar(target, src_accessor.getChar(src));
+        }
+    }
+
+    /**
+     * 基本类型的值拓宽为目标类型，例如Integer转Long
+     *
+     * @param value 源值，Number或者Character
+     * @param type  目标类型，基本类型或者封装类型
+     * @return
+     */
+    private static Object widen(Object value, Class<?> type) {
+        if (type.isPrimitive()) {
+            type = ClassUtils.primitiveToWrapper(type);
+        }
+        if (type == Character.class || type == Boolean.class || type == value.getClass()) {
+            return value;
+        }
+        if (value instanceof Character) {
+            value = (int) (Character) value;
+        }
+        Number number = (Number) value;
+        if (type == Long.class) {
+            return number.longValue();
+        } else if (type == Integer.class) {
+            return number.intValue();
+        } else if (type == Double.class) {
+            return number.doubleValue();
+        } else if (type == Float.class) {
+            return number.floatValue();
+        } else if (type == Short.class) {
+            return number.shortValue();
+        }
+        return number.byteValue();
+    }
+
+    /**
+     * 按基本类型读取字段并转为字符串，不装箱
+     */
+    private static String primitiveToString(Object src, FieldDefinition src_fd) {
+        FieldAccessor accessor = src_fd.accessor;
+        Class<?> type = src_fd.field.getType();
+        if (type == int.class || type == short.class || type == byte.class) {
+            return String.valueOf(accessor.getInt(src));
+        } else if (type == long.class) {
+            return String.valueOf(accessor.getLong(src));
+        } else if (type == double.class) {
+            return String.valueOf(accessor.getDouble(src));
+        } else if (type == float.class) {
+            return String.valueOf(accessor.getFloat(src));
+        } else if (type == char.class) {
+            return String.valueOf(accessor.getChar(src));
+        }
+        return String.valueOf(accessor.get(src));
+    }
+
+    /**
+     * 按拷贝计划中已经确定的复制方式复制一对字段的值
+     *
+     * @param target 目标对象
+     * @param src    源对象
+     * @param slot   字段对
+     * @param cp     拷贝参数
+     */
+    public static void copySlot(Object target, Object src, FieldSlot slot, CopyParam cp) {
+        CopyFeature.CopyFeatureHolder cfh = cp.copyFeature;
+        FieldAccessor dest_accessor = slot.dest_fd.accessor;
+        if (slot.slot_type == SlotTypeEnum.PRIMITIVE) {
+            // 基本类型的目标字段永远有值，只在强制覆盖时复制
+            if (cfh.isEnabled(CopyFeature.FORCE_OVERWRITE)) {
+                copyPrimitive(target, src, slot);
+            }
+            return;
+        }
+        if (slot.slot_type == SlotTypeEnum.TO_STRING && slot.src_fd.isPrimitive) {
+            if (!cfh.isEnabled(CopyFeature.FORCE_OVERWRITE) && dest_accessor.get(target) != null) {
+                return;
+            }
+            dest_accessor.set(target, primitiveToString(src, slot.src_fd));
+            return;
+        }
+        Object _f_src_val = slot.src_fd.accessor.get(src); // 源对象字段值
+        // 如果不拷贝空值
+        if (_f_src_val == null
+                && !cfh.isEnabled(CopyFeature.COPY_NULL_VALUE)) {
+            return;
+        }
+        Object _f_dest_val = null; // 目标对象字段值
+        boolean force_overwrite = cfh.isEnabled(CopyFeature.FORCE_OVERWRITE);
+        if (!force_overwrite || slot.slot_type == SlotTypeEnum.CONVERT || slot.slot_type == SlotTypeEnum.RUNTIME_CONVERT) {
+            _f_dest_val = dest_accessor.get(target);
+            // 如果没有启用强制覆盖
+            if (_f_dest_val != null && !force_overwrite) {
+                return;
+            }
+        }
+        switch (slot.slot_type) {
+            case ASSIGN:
+                dest_accessor.set(target, _f_src_val);
+                break;
+            case WIDEN:
+                if (_f_src_val != null) {
+                    dest_accessor.set(target, widen(_f_src_val, slot.dest_fd.field.getType()));
+                } else if (!slot.dest_fd.isPrimitive) {
+                    dest_accessor.set(target, null);
+                }
+                break;
+            case CONVERT:
+                dest_accessor.set(target, slot.method.apply(_f_dest_val, _f_src_val, slot.dest_fd, slot.src_fd, cp));
+                break;
+            case RUNTIME_CONVERT:
+                dest_accessor.set(target, slot.method.apply(_f_dest_val, _f_src_val, slot.runtime_dest_def, slot.runtime_src_def, cp));
+                break;
+            case TIME:
+                if (_f_src_val != null) { // 如果有日期类型
+                    dest_accessor.set(target, slot.time_method.apply(slot.src_fd, slot.dest_fd, _f_src_val));
+                }
+                break;
+            case PARSE:
+                if (_f_src_val != null) { // String转基本类型或者封装类型
+                    dest_accessor.set(target, BeanUtil.parsePrimitiveOrWrapperOrStringType(_f_src_val, slot.dest_fd.runtime_class));
+                }
+                break;
+            case TO_STRING:
+                if (_f_src_val != null) { // 基本类型或者封装类型转String
+                    dest_accessor.set(target, String.valueOf(_f_src_val));
+                }
+                break;
+            case ERROR:
+                throw new RuntimeException(slot.error);
+            default:
+                break;
+        }
+    }
+
     /**
      * 集合向集合复制
      * <br/>
@@ -253,106 +375,383 @@ public class BeanConvertCache {
     public static Object copyCollection2Collection(Object target, Object src, CopyDefinition _target_def, CopyDefinition _src_def, CopyParam cp) {
         TypeDefinition target_def = (TypeDefinition) _target_def;
         TypeDefinition src_def = (TypeDefinition) _src_def;
-        //如果目标对象为空，实例化一个出来
-        if (target == null || (target.getClass() != target_def.runtime_class
-                &&(!target_def.runtime_class.isAssignableFrom(target.getClass())))) {//这一行代码持怀疑态度
-            try {
-                target = ClassUtil.newInstance(target_def.runtime_class);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+        //目标对象与目标类型不符时重新生成
+        if (target != null && target.getClass() != target_def.runtime_class
+                &&(!target_def.runtime_class.isAssignableFrom(target.getClass()))) {//这一行代码持怀疑态度
+            target = null;
+        }
+        Class _dest_Element_clazz = null, _src_Element_clazz = null;
+        if (target_def.isGeneric && src_def.isGeneric) {
+            _dest_Element_clazz = target_def.parameter_type_Defines[0].runtime_class;
+            _src_Element_clazz = src_def.parameter_type_Defines[0].runtime_class;
+            if (target_def.parameter_type_Defines[0].isPrimitive) {
+                _dest_Element_clazz = ClassUtils.primitiveToWrapper(_dest_Element_clazz);
+            }
+            if (src_def.parameter_type_Defines[0].isPrimitive) {
+                _src_Element_clazz = ClassUtils.primitiveToWrapper(_src_Element_clazz);
             }
         }
-        Collection<String> exclude_fields = cp.exclude_fields;
-        CopyFeature.CopyFeatureHolder cfh = cp.copyFeature;
-        try {
-            Class target_clazz = target_def.runtime_class;
-            if (target_clazz == null) {
-                target_clazz = target.getClass(); // 目标对象类
+        if (ObjectUtils.isEmpty(src)) {
+            return target != null ? target : CollectionFactoryCache.newCollection(target_def.runtime_class, 0, _dest_Element_clazz);
+        }
+        if (_dest_Element_clazz == null) {
+            throw new IllegalArgumentException("集合[" + target_def.runtime_class.getName() + "]未指定范型参数，无法复制元素！");
+        }
+        Collection src_collection = (Collection) src;
+        int size = src_collection.size();
+        // 元素的转换方式每次调用只解析一次
+        Supplier<Function<Object, Object>> converters = elementConverters(_dest_Element_clazz, _src_Element_clazz,
+                target_def.parameter_type_Defines[0], src_def.parameter_type_Defines[0], cp);
+        Iterator<Object> converted;
+        if (cp.copyFeature.isEnabled(CopyFeature.PARALLEL) && ParallelCopier.isParallelizable(size)) {
+            converted = Arrays.asList(ParallelCopier.convert(src_collection.toArray(), converters)).iterator();
+        } else {
+            converted = Iterators.transform(src_collection.iterator(), converters.get()::apply);
+        }
+        Collection dest_collection = (Collection) target;
+        Object rejected = SKIP_ELEMENT;
+        if (dest_collection != null && CollectionFactoryCache.isModifiable(dest_collection)) {
+            // 直接加入已有的目标集合
+            if (dest_collection instanceof ArrayList) {
+                ((ArrayList) dest_collection).ensureCapacity(dest_collection.size() + size);
             }
-            Class src_clazz = src_def.runtime_class;
-            if (ObjectUtils.isNotEmpty(src)) {
-                Collection src_collection = (Collection) src;
-                Class _dest_Element_clazz = null, _src_Element_clazz = null;
-                if (target_def.isGeneric) {
-                    _dest_Element_clazz = target_def.parameter_type_Defines[0].runtime_class;
-                    _src_Element_clazz = src_def.parameter_type_Defines[0].runtime_class;
-                    if (target_def.parameter_type_Defines[0].isPrimitive) {
-                        _dest_Element_clazz = ClassUtils.primitiveToWrapper(_dest_Element_clazz);
-                    }
-                    if (src_def.parameter_type_Defines[0].isPrimitive) {
-                        _src_Element_clazz = ClassUtils.primitiveToWrapper(_src_Element_clazz);
-                    }
+            while (converted.hasNext()) {
+                Object target_obj = converted.next();
+                if (target_obj == SKIP_ELEMENT) {
+                    continue;
                 }
+                try {
+                    dest_collection.add(target_obj);
+                } catch (UnsupportedOperationException e) {
+                    // 未识别的不可修改集合，改为通过集合工厂生成
+                    rejected = target_obj;
+                    break;
+                }
+            }
+            if (rejected == SKIP_ELEMENT) {
+                return dest_collection;
+            }
+        }
+        // 生成新的目标集合，不可修改的目标集合保留已有的元素
+        CollectionFactory<Object> factory = CollectionFactoryCache.getFactory(target_def.runtime_class);
+        Object container = factory.newContainer(size + (dest_collection != null ? dest_collection.size() : 0), _dest_Element_clazz);
+        if (dest_collection != null) {
+            for (Object target_obj : dest_collection) {
+                factory.add(container, target_obj);
+            }
+        }
+        if (rejected != SKIP_ELEMENT) {
+            factory.add(container, rejected);
+        }
+        while (converted.hasNext()) {
+            Object target_obj = converted.next();
+            if (target_obj != SKIP_ELEMENT) {
+                factory.add(container, target_obj);
+            }
+        }
+        return factory.build(container);
+    }
 
-                Collection dest_collection = (Collection) target;
-                // 源字段是字符串，并且目标字段是基本或者封装类型，并且目标字段不是空类型或者布尔类型
-                boolean t2 =
-                        String.class.isAssignableFrom(_src_Element_clazz)
-                                && ClassUtils.isPrimitiveOrWrapper(_dest_Element_clazz)
-                                && (!(Void.TYPE.equals(_dest_Element_clazz) || Boolean.TYPE.equals(_dest_Element_clazz)));
-                // 目标字段是字符串，并且源字段是基本或者封装类型，并且源字段不是空类型或者布尔类型
-                boolean t3 =
-                        String.class.isAssignableFrom(_dest_Element_clazz)
-                                && ClassUtils.isPrimitiveOrWrapper(_src_Element_clazz)
-                                && (!(Void.TYPE.equals(_src_Element_clazz) || Boolean.TYPE.equals(_src_Element_clazz)));
-                Iterator src_itera = src_collection.iterator();
-                while (src_itera.hasNext()) {
-                    Object _f_src_val = src_itera.next();
-                    if (t2) {
-                        if (Character.class.isAssignableFrom(_dest_Element_clazz)) {
-                            if (String.valueOf(_f_src_val).length() > 1)
-                                throw new RuntimeException(
-                                        "值" + _f_src_val + "数据长度大于一，无法给char或者Character类型赋值!");
-                            dest_collection.add(_f_src_val);
-                        } else if (Short.class.isAssignableFrom(_dest_Element_clazz)) {
-                            dest_collection.add(Short.valueOf(String.valueOf(_f_src_val)));
-                        } else if (Integer.class.isAssignableFrom(_dest_Element_clazz)) {
-                            dest_collection.add(Integer.valueOf(String.valueOf(_f_src_val)));
-                        } else if (Float.class.isAssignableFrom(_dest_Element_clazz)) {
-                            dest_collection.add(Float.valueOf(String.valueOf(_f_src_val)));
-                        } else if (Double.class.isAssignableFrom(_dest_Element_clazz)) {
-                            dest_collection.add(Double.valueOf(String.valueOf(_f_src_val)));
-                        } else if (Long.class.isAssignableFrom(_dest_Element_clazz)) {
-                            dest_collection.add(Long.valueOf(String.valueOf(_f_src_val)));
-                        }
-                    } else if (t3) {
-                        dest_collection.add(String.valueOf(_f_src_val == null ? "" : _f_src_val));
-                    } else {
-                        if(_dest_Element_clazz.isEnum()||_src_Element_clazz.isEnum())
-                            continue;
-                        // 创建元素对象实例
-                        Object target_obj = ClassUtil.newInstance(_dest_Element_clazz);
-                        TypeDefinition _dest_element_def = ClassUtil.parseType(_dest_Element_clazz);
-                        TypeDefinition _src_element_def = ClassUtil.parseType(_src_Element_clazz);
-                        if(_dest_element_def.getData_type()==DataTypeEnum.Object_Class){
-                            target_obj=BeanConvertCache.copyObject2Object(target_obj, _f_src_val, _dest_element_def, _src_element_def, cp);
-                        }else {
-                            PentaFunction<Object, Object, CopyDefinition, CopyDefinition, CopyParam, Object> method = BeanConvertCache.bean_method_table.get(_src_element_def.getData_type(), _dest_element_def.getData_type());
-                            if (method != null) {
-                                target_obj = method.apply(target_obj, _f_src_val, _dest_element_def, _src_element_def, cp);//这里cp可能会有问题，我会仔细想想
-                            }
-                        }
-                        try {
-                            dest_collection.add(target_obj);
-                        } catch (UnsupportedOperationException e) {
-                            target=ClassUtil.newInstance(target_def.runtime_class);
-                            dest_collection= (Collection) target;
-                            dest_collection.add(target_obj);
-                        }
-                    }
+    /**
+     * 集合元素不需要加入目标集合时的返回值
+     */
+    private static final Object SKIP_ELEMENT = new Object();
+
+    /**
+     * 解析集合元素的转换方式，不需要加入目标集合的元素转换为{@link #SKIP_ELEMENT}
+     *
+     * @param _dest_Element_clazz 目标元素类，基本类型已转为封装类型
+     * @param _src_Element_clazz  源元素类，基本类型已转为封装类型
+     * @param dest_element_def    目标元素的类型定义，带范型的元素(例如List&lt;List&lt;Cat&gt;&gt;)需要
+     * @param src_element_def     源元素的类型定义
+     * @return 转换函数的工厂，每个线程各自创建一个转换函数
+     */
+    private static Supplier<Function<Object, Object>> elementConverters(Class _dest_Element_clazz, Class _src_Element_clazz,
+                                                                        TypeDefinition dest_element_def, TypeDefinition src_element_def, CopyParam cp) {
+        // 源字段是字符串，并且目标字段是基本或者封装类型，并且目标字段不是空类型或者布尔类型
+        boolean t2 =
+                String.class.isAssignableFrom(_src_Element_clazz)
+                        && ClassUtils.isPrimitiveOrWrapper(_dest_Element_clazz)
+                        && (!(Void.TYPE.equals(_dest_Element_clazz) || Boolean.TYPE.equals(_dest_Element_clazz)));
+        // 目标字段是字符串，并且源字段是基本或者封装类型，并且源字段不是空类型或者布尔类型
+        boolean t3 =
+                String.class.isAssignableFrom(_dest_Element_clazz)
+                        && ClassUtils.isPrimitiveOrWrapper(_src_Element_clazz)
+                        && (!(Void.TYPE.equals(_src_Element_clazz) || Boolean.TYPE.equals(_src_Element_clazz)));
+        if (t2) {
+            Function<String, Object> parser = stringParser(_dest_Element_clazz);
+            return () -> _f_src_val -> parser == null ? SKIP_ELEMENT : parser.apply(String.valueOf(_f_src_val));
+        }
+        if (t3) {
+            return () -> _f_src_val -> String.valueOf(_f_src_val == null ? "" : _f_src_val);
+        }
+        if (_dest_Element_clazz.isEnum() || _src_Element_clazz.isEnum()) {
+            return () -> _f_src_val -> SKIP_ELEMENT;
+        }
+        // 字符串、封装类型可以直接赋值
+        if (_dest_Element_clazz.isAssignableFrom(_src_Element_clazz)
+                && (_dest_Element_clazz == String.class || ClassUtils.isPrimitiveWrapper(_dest_Element_clazz))) {
+            return () -> _f_src_val -> _f_src_val;
+        }
+        // 封装类型之间拓宽，例如Integer转Long
+        if (ClassUtils.isPrimitiveWrapper(_dest_Element_clazz) && ClassUtils.isPrimitiveWrapper(_src_Element_clazz)
+                && ClassUtils.isAssignable(ClassUtils.wrapperToPrimitive(_src_Element_clazz), ClassUtils.wrapperToPrimitive(_dest_Element_clazz), false)) {
+            Class dest_wrapper = _dest_Element_clazz;
+            return () -> _f_src_val -> _f_src_val == null ? null : widen(_f_src_val, dest_wrapper);
+        }
+        TypeDefinition _dest_element_def;
+        TypeDefinition _src_element_def;
+        try {
+            _dest_element_def = dest_element_def != null && dest_element_def.class_type == ClassTypeEnum.ParameterizedType
+                    ? dest_element_def : ClassUtil.parseType(_dest_Element_clazz);
+            _src_element_def = src_element_def != null && src_element_def.class_type == ClassTypeEnum.ParameterizedType
+                    ? src_element_def : ClassUtil.parseType(_src_Element_clazz);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+        Class dest_element_clazz = _dest_Element_clazz;
+        Supplier<Object> instantiator = ClassUtil.getInstantiator(_dest_Element_clazz);
+        if (_dest_element_def.getData_type() == DataTypeEnum.Object_Class) {
+            return () -> _f_src_val -> _f_src_val != null ? _f_src_val
+                    : copyObject2Object(instantiator.get(), null, _dest_element_def, _src_element_def, cp);
+        }
+        if (_dest_element_def.getData_type() == DataTypeEnum.Entity_Class && _src_element_def.getData_type() == DataTypeEnum.Entity_Class
+                && _dest_element_def.isSerializable) {
+            // 实体类元素复用同一个拷贝计划
+            return () -> {
+                ElementCopier<Object> copier = new ElementCopier<>(dest_element_clazz, cp);
+                return _f_src_val -> _f_src_val == null ? instantiator.get() : copier.copy(_f_src_val);
+            };
+        }
+        PentaFunction<Object, Object, CopyDefinition, CopyDefinition, CopyParam, Object> method = BeanConvertCache.bean_method_table.get(_src_element_def.getData_type(), _dest_element_def.getData_type());
+        if (method == null) {
+            return () -> _f_src_val -> instantiator.get();
+        }
+        if (_dest_element_def.getData_type() == DataTypeEnum.Array || _dest_element_def.getData_type() == DataTypeEnum.Collection
+                || _dest_element_def.getData_type() == DataTypeEnum.Map) {
+            // 数组没有构造方法，集合、Map按源对象大小生成，都交给转换方法创建
+            return () -> _f_src_val -> method.apply(null, _f_src_val, _dest_element_def, _src_element_def, cp);
+        }
+        return () -> _f_src_val -> method.apply(instantiator.get(), _f_src_val, _dest_element_def, _src_element_def, cp);
+    }
+
+    /**
+     * 字符串转封装类型，不支持的类型返回null
+     */
+    private static Function<String, Object> stringParser(Class _dest_Element_clazz) {
+        if (Character.class.isAssignableFrom(_dest_Element_clazz)) {
+            return value -> {
+                if (value.length() > 1)
+                    throw new RuntimeException(
+                            "值" + value + "数据长度大于一，无法给char或者Character类型赋值!");
+                return value;
+            };
+        } else if (Short.class.isAssignableFrom(_dest_Element_clazz)) {
+            return Short::valueOf;
+        } else if (Integer.class.isAssignableFrom(_dest_Element_clazz)) {
+            return Integer::valueOf;
+        } else if (Float.class.isAssignableFrom(_dest_Element_clazz)) {
+            return Float::valueOf;
+        } else if (Double.class.isAssignableFrom(_dest_Element_clazz)) {
+            return Double::valueOf;
+        } else if (Long.class.isAssignableFrom(_dest_Element_clazz)) {
+            return Long::valueOf;
+        }
+        return null;
+    }
+
+    /**
+     * 直接放入已有的目标Map，不创建容器
+     */
+    private static final MapFactory<Object> EXISTING_MAP = (size, key_clazz) -> {
+        throw new UnsupportedOperationException();
+    };
+
+    /**
+     * Map向Map复制
+     * <br/>
+     * 键和值的转换方式按范型参数解析一次，与集合元素相同；键或者值不支持转换(例如枚举)的键值对不复制。
+     * 目标Map为空或者不可修改时按声明类型生成，见{@link MapFactoryCache}
+     * @param target
+     * @param src
+     * @param _target_def
+     * @param _src_def
+     * @param cp
+     * @return
+     */
+    public static Object copyMap2Map(Object target, Object src, CopyDefinition _target_def, CopyDefinition _src_def, CopyParam cp) {
+        TypeDefinition target_def = (TypeDefinition) _target_def;
+        TypeDefinition src_def = (TypeDefinition) _src_def;
+        //目标对象与目标类型不符时重新生成
+        if (target != null && !target_def.runtime_class.isAssignableFrom(target.getClass())) {
+            target = null;
+        }
+        boolean generic = target_def.isGeneric && src_def.isGeneric
+                && target_def.parameter_type_Defines != null && target_def.parameter_type_Defines.length == 2
+                && src_def.parameter_type_Defines != null && src_def.parameter_type_Defines.length == 2;
+        Class dest_key_clazz = generic ? target_def.parameter_type_Defines[0].runtime_class : null;
+        if (ObjectUtils.isEmpty(src)) {
+            return target != null ? target : MapFactoryCache.newMap(target_def.runtime_class, 0, dest_key_clazz);
+        }
+        if (!generic) {
+            throw new IllegalArgumentException("Map[" + target_def.runtime_class.getName() + "]未指定范型参数，无法复制键值对！");
+        }
+        Map<Object, Object> src_map = (Map) src;
+        int size = src_map.size();
+        TypeDefinition dest_key_def = target_def.parameter_type_Defines[0], src_key_def = src_def.parameter_type_Defines[0];
+        TypeDefinition dest_value_def = target_def.parameter_type_Defines[1], src_value_def = src_def.parameter_type_Defines[1];
+        Supplier<Function<Object, Object>> key_converters = elementConverters(ClassUtils.primitiveToWrapper(dest_key_def.runtime_class),
+                ClassUtils.primitiveToWrapper(src_key_def.runtime_class), dest_key_def, src_key_def, cp);
+        Supplier<Function<Object, Object>> value_converters = elementConverters(ClassUtils.primitiveToWrapper(dest_value_def.runtime_class),
+                ClassUtils.primitiveToWrapper(src_value_def.runtime_class), dest_value_def, src_value_def, cp);
+        Map dest_map = (Map) target;
+        MapFactory<Object> factory;
+        Object container;
+        if (dest_map != null && MapFactoryCache.isModifiable(dest_map)) {
+            factory = EXISTING_MAP;
+            container = dest_map;
+        } else {
+            // 生成新的目标Map，不可修改的目标Map保留已有的键值对
+            factory = MapFactoryCache.getFactory(target_def.runtime_class);
+            container = factory.newContainer(size + (dest_map != null ? dest_map.size() : 0), dest_key_clazz);
+            if (dest_map != null) {
+                for (Object entry : dest_map.entrySet()) {
+                    factory.put(container, ((Map.Entry) entry).getKey(), ((Map.Entry) entry).getValue());
                 }
-                return target;
             }
-        } catch (IllegalAccessException | ClassNotFoundException e) {
+        }
+        if (cp.copyFeature.isEnabled(CopyFeature.PARALLEL) && ParallelCopier.isParallelizable(size)) {
+            Object[] keys = new Object[size];
+            Object[] values = new Object[size];
+            int i = 0;
+            for (Map.Entry<Object, Object> entry : src_map.entrySet()) {
+                keys[i] = entry.getKey();
+                values[i++] = entry.getValue();
+            }
+            keys = ParallelCopier.convert(keys, key_converters);
+            values = ParallelCopier.convert(values, value_converters);
+            for (i = 0; i < size; i++) {
+                if (keys[i] != SKIP_ELEMENT && values[i] != SKIP_ELEMENT) {
+                    factory.put(container, keys[i], values[i]);
+                }
+            }
+        } else {
+            Function<Object, Object> key_converter = key_converters.get();
+            Function<Object, Object> value_converter = value_converters.get();
+            for (Map.Entry<Object, Object> entry : src_map.entrySet()) {
+                Object key = key_converter.apply(entry.getKey());
+                Object value = value_converter.apply(entry.getValue());
+                if (key != SKIP_ELEMENT && value != SKIP_ELEMENT) {
+                    factory.put(container, key, value);
+                }
+            }
+        }
+        return factory.build(container);
+    }
+
+    /**
+     * 数组向数组复制
+     * <br/>
+     * 数组长度固定，总是生成新数组，不保留目标数组的元素。元素类型相同的基本类型、封装类型、字符串数组使用System.arraycopy，
+     * 基本类型数组之间拓宽(例如int[]转long[])见{@link ArrayUtil#copyPrimitiveArray(Object, Class)}，其它数组逐个转换元素
+     * @param target
+     * @param src
+     * @param _target_def
+     * @param _src_def
+     * @param cp
+     * @return
+     */
+    public static Object copyArray2Array(Object target, Object src, CopyDefinition _target_def, CopyDefinition _src_def, CopyParam cp) {
+        TypeDefinition target_def = (TypeDefinition) _target_def;
+        TypeDefinition src_def = (TypeDefinition) _src_def;
+        Class dest_component = target_def.runtime_class.getComponentType();
+        if (src == null) {
+            return target != null ? target : Array.newInstance(dest_component, 0);
+        }
+        Class src_component = src.getClass().getComponentType();
+        if (dest_component.isPrimitive() && src_component.isPrimitive()) {
+            Object dest = ArrayUtil.copyPrimitiveArray(src, dest_component);
+            if (dest == null) {
+                throw new IllegalArgumentException("数组[" + src.getClass().getSimpleName() + "]无法复制到数组[" + target_def.runtime_class.getSimpleName() + "]！");
+            }
+            return dest;
+        }
+        int length = Array.getLength(src);
+        Object dest = Array.newInstance(dest_component, length);
+        if (dest_component == src_component && (dest_component == String.class || ClassUtils.isPrimitiveWrapper(dest_component))) {
+            System.arraycopy(src, 0, dest, 0, length);
+            return dest;
+        }
+        Function<Object, Object> converter = elementConverters(ClassUtils.primitiveToWrapper(dest_component), ClassUtils.primitiveToWrapper(src_component),
+                componentDefinition(target_def), componentDefinition(src_def), cp).get();
+        for (int i = 0; i < length; i++) {
+            Object target_obj = converter.apply(Array.get(src, i));
+            // 基本类型数组的空元素保持默认值
+            if (target_obj != SKIP_ELEMENT && (target_obj != null || !dest_component.isPrimitive())) {
+                Array.set(dest, i, target_obj);
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * 数组向集合复制，按集合的方式转换元素
+     */
+    public static Object copyArray2Collection(Object target, Object src, CopyDefinition _target_def, CopyDefinition _src_def, CopyParam cp) {
+        TypeDefinition list_def = listDefinition(componentDefinition((TypeDefinition) _src_def));
+        return copyCollection2Collection(target, src == null ? null : ArrayUtil.asList(src), _target_def, list_def, cp);
+    }
+
+    /**
+     * 集合向数组复制，按集合的方式转换元素后放入新数组
+     */
+    public static Object copyCollection2Array(Object target, Object src, CopyDefinition _target_def, CopyDefinition _src_def, CopyParam cp) {
+        TypeDefinition target_def = (TypeDefinition) _target_def;
+        Class dest_component = target_def.runtime_class.getComponentType();
+        if (src == null) {
+            return target != null ? target : Array.newInstance(dest_component, 0);
+        }
+        List converted = (List) copyCollection2Collection(null, src, listDefinition(componentDefinition(target_def)), _src_def, cp);
+        Object dest = Array.newInstance(dest_component, converted.size());
+        if (!dest_component.isPrimitive()) {
+            return converted.toArray((Object[]) dest);
+        }
+        for (int i = 0; i < converted.size(); i++) {
+            Object target_obj = converted.get(i);
+            if (target_obj != null) {
+                Array.set(dest, i, target_obj);
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * 数组元素的类型定义
+     */
+    private static TypeDefinition componentDefinition(TypeDefinition array_def) {
+        if (array_def.componetClassDefine != null) {
+            return array_def.componetClassDefine;
+        }
+        if (array_def.genericComponentType != null) {
+            return array_def.genericComponentType;
+        }
+        try {
+            return ClassUtil.parseType(array_def.runtime_class.getComponentType());
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    /**
+     * 以数组元素为范型参数的List类型定义，基本类型转为封装类型，例如int[]对应List&lt;Integer&gt;
+     */
+    private static TypeDefinition listDefinition(TypeDefinition component_def) {
+        Type element_type = component_def.isPrimitive ? ClassUtils.primitiveToWrapper(component_def.runtime_class) : component_def.raw_type;
+        try {
+            return ClassUtil.parseType(new ParameterizedTypeImpl(List.class, new Type[]{element_type}));
+        } catch (ClassNotFoundException e) {
             throw new RuntimeException(e.getMessage());
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
-        } catch (InstantiationException e) {
-            throw new RuntimeException(e);
         }
-        return target;
     }
 
     public static Object copyPrimitiveOrWrapperOrString2Enum(Object target, Object src, CopyDefinition _target_def, CopyDefinition _src_def, CopyParam cp) {
@@ -473,21 +872,4 @@ public class BeanConvertCache {
         }
         return target;
     }
-
-
-    private static void assginValue_DateTime(
-            FieldDefinition src_fd, FieldDefinition dest_fd, Object target, Object src_val)
-            throws IllegalAccessException {
-        Class<?> _src_clazz = src_fd.runtime_class;
-        Class<?> _dest_clazz = dest_fd.runtime_class;
-        if (src_fd.isPrimitive) {
-            _src_clazz = ClassUtils.primitiveToWrapper(_src_clazz);
-        }
-        if (dest_fd.isPrimitive) {
-            _dest_clazz = ClassUtils.primitiveToWrapper(_dest_clazz);
-        }
-        TernaryFunction<FieldDefinition, FieldDefinition, Object, Object> method =
-                TimeConvertCache.time_method_table.get(_dest_clazz, _src_clazz);
-        dest_fd.field.set(target, method.apply(src_fd, dest_fd, src_val));
-    }
 }
@@ -0,0 +1,31 @@
+package com.cyser.base.cache;
+
+import com.cyser.base.bean.ClassMetadata;
+
+/**
+ * 类元数据缓存
+ * <br/>
+ * 使用{@link ClassValue}，元数据直接存放在Class对象上，查找不需要构造key，类卸载时一起回收
+ */
+public class ClassMetadataCache {
+
+    private ClassMetadataCache() {
+    }
+
+    private static final ClassValue<ClassMetadata> METADATA = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata();
+        }
+    };
+
+    /**
+     * 获取类的元数据
+     *
+     * @param clazz
+     * @return
+     */
+    public static ClassMetadata get(Class clazz) {
+        return METADATA.get(clazz);
+    }
+}
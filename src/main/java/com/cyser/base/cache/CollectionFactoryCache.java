@@ -0,0 +1,212 @@
+package com.cyser.base.cache;
+
+import com.cyser.base.function.CollectionFactory;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 集合工厂缓存
+ * <br/>
+ * 按声明的集合类型查找集合工厂：先查找注册的类型，没有注册的具体类使用默认构造方法；
+ * 目标集合按源集合的大小预分配容量，不可变集合通过Builder生成，不依赖UnsupportedOperationException
+ */
+public class CollectionFactoryCache {
+
+    private CollectionFactoryCache() {
+    }
+
+    /**
+     * 注册的集合工厂，声明类型 -> 集合工厂
+     */
+    private static final Map<Class<?>, CollectionFactory<?>> REGISTERED_FACTORIES = new ConcurrentHashMap<>();
+
+    /**
+     * 解析过的集合工厂，包括没有注册、使用默认构造方法的类
+     * <br/>
+     * 保存在类上，不会阻止类加载器卸载
+     */
+    private static final ClassValue<Resolved> RESOLVED_FACTORIES = new ClassValue<Resolved>() {
+        @Override
+        protected Resolved computeValue(Class<?> clazz) {
+            int generation = GENERATION.get();
+            return new Resolved(generation, resolve(clazz));
+        }
+    };
+
+    /**
+     * 注册的版本，每次注册加一，解析结果的版本不一致时重新解析
+     */
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    /**
+     * 实例是否可以加入元素
+     */
+    private static final ClassValue<Boolean> MODIFIABLE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> clazz) {
+            if (ImmutableCollection.class.isAssignableFrom(clazz)) {
+                return false;
+            }
+            String name = clazz.getName();
+            return !(name.startsWith("java.util.ImmutableCollections$")
+                    || name.startsWith("java.util.Collections$Unmodifiable")
+                    || name.startsWith("java.util.Collections$Empty")
+                    || name.startsWith("java.util.Collections$Singleton")
+                    || name.equals("java.util.Arrays$ArrayList"));
+        }
+    };
+
+    static {
+        CollectionFactory<List<Object>> array_list = (size, element_clazz) -> new ArrayList<>(size);
+        register(Collection.class, array_list);
+        register(List.class, array_list);
+        register(AbstractList.class, array_list);
+        register(ArrayList.class, array_list);
+        register(LinkedList.class, (size, element_clazz) -> new LinkedList<>());
+        register(Vector.class, (size, element_clazz) -> new Vector<>(size));
+        CollectionFactory<Set<Object>> hash_set = (size, element_clazz) -> Sets.newHashSetWithExpectedSize(size);
+        register(Set.class, hash_set);
+        register(AbstractSet.class, hash_set);
+        register(HashSet.class, hash_set);
+        register(LinkedHashSet.class, (size, element_clazz) -> Sets.newLinkedHashSetWithExpectedSize(size));
+        CollectionFactory<TreeSet<Object>> tree_set = (size, element_clazz) -> new TreeSet<>();
+        register(SortedSet.class, tree_set);
+        register(NavigableSet.class, tree_set);
+        register(TreeSet.class, tree_set);
+        register(EnumSet.class, (size, element_clazz) -> {
+            if (element_clazz == null || !element_clazz.isEnum()) {
+                throw new IllegalArgumentException("EnumSet的元素类型必须是枚举！");
+            }
+            return EnumSet.noneOf((Class) element_clazz);
+        });
+        CollectionFactory<ArrayDeque<Object>> array_deque = (size, element_clazz) -> new ArrayDeque<>(size);
+        register(Queue.class, array_deque);
+        register(Deque.class, array_deque);
+        register(ArrayDeque.class, array_deque);
+        register(PriorityQueue.class, (size, element_clazz) -> new PriorityQueue<>(Math.max(1, size)));
+        register(LinkedBlockingQueue.class, (size, element_clazz) -> new LinkedBlockingQueue<>());
+        register(LinkedBlockingDeque.class, (size, element_clazz) -> new LinkedBlockingDeque<>());
+        // 写时复制的集合逐个加入元素每次都要复制数组，先放入ArrayList再一次生成
+        register(CopyOnWriteArrayList.class, CollectionFactory.<ArrayList<Object>>ofBuilder(
+                (size, element_clazz) -> new ArrayList<>(size), ArrayList::add, CopyOnWriteArrayList::new));
+        register(CopyOnWriteArraySet.class, CollectionFactory.<ArrayList<Object>>ofBuilder(
+                (size, element_clazz) -> new ArrayList<>(size), ArrayList::add, CopyOnWriteArraySet::new));
+        CollectionFactory<ImmutableList.Builder<Object>> immutable_list = CollectionFactory.ofBuilder(
+                (size, element_clazz) -> ImmutableList.builderWithExpectedSize(size), CollectionFactoryCache::addNonNull, ImmutableList.Builder::build);
+        register(ImmutableCollection.class, immutable_list);
+        register(ImmutableList.class, immutable_list);
+        register(ImmutableSet.class, CollectionFactory.<ImmutableSet.Builder<Object>>ofBuilder(
+                (size, element_clazz) -> ImmutableSet.builderWithExpectedSize(size), CollectionFactoryCache::addNonNull, ImmutableSet.Builder::build));
+        register(ImmutableSortedSet.class, CollectionFactory.<ImmutableSortedSet.Builder<Comparable>>ofBuilder(
+                (size, element_clazz) -> ImmutableSortedSet.naturalOrder(), CollectionFactoryCache::addNonNull, ImmutableSortedSet.Builder::build));
+    }
+
+    private static <B extends ImmutableCollection.Builder> void addNonNull(B builder, Object element) {
+        if (element == null) {
+            throw new IllegalArgumentException("不可变集合不能包含null元素！");
+        }
+        builder.add(element);
+    }
+
+    /**
+     * 注册集合工厂，覆盖已有的注册
+     *
+     * @param clazz   声明的集合类型
+     * @param factory 集合工厂
+     */
+    public static void register(Class<?> clazz, CollectionFactory<?> factory) {
+        if (!Collection.class.isAssignableFrom(clazz)) {
+            throw new IllegalArgumentException("类型[" + clazz.getName() + "]不是集合！");
+        }
+        REGISTERED_FACTORIES.put(clazz, factory);
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * 获取声明类型的集合工厂
+     *
+     * @param clazz 声明的集合类型
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <B> CollectionFactory<B> getFactory(Class<?> clazz) {
+        Resolved resolved = RESOLVED_FACTORIES.get(clazz);
+        if (resolved.generation != GENERATION.get()) {
+            RESOLVED_FACTORIES.remove(clazz);
+            resolved = RESOLVED_FACTORIES.get(clazz);
+        }
+        return (CollectionFactory<B>) resolved.factory;
+    }
+
+    /**
+     * 解析结果及解析时注册的版本
+     */
+    private static final class Resolved {
+
+        final int generation;
+
+        final CollectionFactory<?> factory;
+
+        Resolved(int generation, CollectionFactory<?> factory) {
+            this.generation = generation;
+            this.factory = factory;
+        }
+    }
+
+    private static CollectionFactory<?> resolve(Class<?> clazz) {
+        CollectionFactory<?> factory = REGISTERED_FACTORIES.get(clazz);
+        if (factory != null) {
+            return factory;
+        }
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+            throw new IllegalArgumentException("集合类型[" + clazz.getName() + "]是接口或抽象类，没有注册集合工厂，不支持生成实例！");
+        }
+        Constructor<?> constructor;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("集合类型[" + clazz.getName() + "]没有默认构造方法，不支持生成实例！");
+        }
+        return (size, element_clazz) -> {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * 创建声明类型的集合
+     *
+     * @param clazz         声明的集合类型
+     * @param size          预计的元素数量
+     * @param element_clazz 元素类型
+     * @return 空集合
+     */
+    public static Collection newCollection(Class<?> clazz, int size, Class<?> element_clazz) {
+        CollectionFactory<Object> factory = getFactory(clazz);
+        return factory.build(factory.newContainer(size, element_clazz));
+    }
+
+    /**
+     * 集合实例是否可以直接加入元素：Guava不可变集合、Collections.unmodifiableXxx、List.of等返回false
+     */
+    public static boolean isModifiable(Collection collection) {
+        return MODIFIABLE.get(collection.getClass());
+    }
+}
@@ -0,0 +1,94 @@
+package com.cyser.base.cache;
+
+import com.cyser.base.copier.CompiledCopier;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 编译期生成的拷贝器缓存
+ * <br/>
+ * 生成的拷贝器与目标类在同一个包中，类名为 源类$$目标类$$CompiledCopier，第一次复制某一对类时按类名
+ * 先在目标类的类加载器、再在源类的类加载器中加载，只实例化找到的这一个拷贝器
+ * <br/>
+ * 结果与拷贝计划一样保存在不会让另一方的类加载器无法卸载的那个类上，见{@link CopyPlanCache}
+ */
+@Slf4j
+public class CompiledCopierCache {
+
+    private CompiledCopierCache() {
+    }
+
+    private static final String SUFFIX = "$$CompiledCopier";
+
+    /**
+     * 保存结果的类 -> (另一方的类 -> 拷贝器)
+     */
+    private static final ClassValue<Map<Class<?>, Optional<CompiledCopier>>> COPIER_CACHE = new ClassValue<Map<Class<?>, Optional<CompiledCopier>>>() {
+        @Override
+        protected Map<Class<?>, Optional<CompiledCopier>> computeValue(Class<?> clazz) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * 获取编译期生成的拷贝器
+     *
+     * @param src_clazz    源类
+     * @param target_clazz 目标类
+     * @return 没有时返回null
+     */
+    public static CompiledCopier getCopier(Class<?> src_clazz, Class<?> target_clazz) {
+        Class owner = CopyPlanCache.owner(src_clazz, target_clazz);
+        Map<Class<?>, Optional<CompiledCopier>> copiers = COPIER_CACHE.get(owner);
+        Class<?> other = owner == src_clazz ? target_clazz : src_clazz;
+        Optional<CompiledCopier> copier = copiers.get(other);
+        if (copier == null) {
+            copier = Optional.ofNullable(loadCopier(src_clazz, target_clazz));
+            copiers.putIfAbsent(other, copier);
+        }
+        return copier.orElse(null);
+    }
+
+    private static CompiledCopier loadCopier(Class<?> src_clazz, Class<?> target_clazz) {
+        String target_name = target_clazz.getName();
+        int dot = target_name.lastIndexOf('.');
+        String copier_name = target_name.substring(0, dot + 1) + simpleName(src_clazz) + "$$" + simpleName(target_clazz) + SUFFIX;
+        ClassLoader target_loader = target_clazz.getClassLoader();
+        ClassLoader src_loader = src_clazz.getClassLoader();
+        Class<?> copier_clazz = findClass(copier_name, target_loader);
+        if (copier_clazz == null && src_loader != target_loader) {
+            copier_clazz = findClass(copier_name, src_loader);
+        }
+        if (copier_clazz == null || !CompiledCopier.class.isAssignableFrom(copier_clazz)) {
+            return null;
+        }
+        try {
+            CompiledCopier copier = (CompiledCopier) copier_clazz.getDeclaredConstructor().newInstance();
+            if (copier.getSrcClass() == src_clazz && copier.getTargetClass() == target_clazz) {
+                return copier;
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("加载编译期生成的拷贝器" + copier_name + "失败: " + e);
+        }
+        return null;
+    }
+
+    private static Class<?> findClass(String name, ClassLoader loader) {
+        try {
+            return Class.forName(name, false, loader == null ? ClassLoader.getSystemClassLoader() : loader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * 去掉包名的类名，内部类保留外部类名，与生成拷贝器时的命名一致
+     */
+    private static String simpleName(Class<?> clazz) {
+        String name = clazz.getName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
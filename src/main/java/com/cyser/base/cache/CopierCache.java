@@ -0,0 +1,267 @@
+package com.cyser.base.cache;
+
+import com.cyser.base.bean.CopyPlan;
+import com.cyser.base.bean.TierStatistics;
+import com.cyser.base.copier.Copier;
+import com.cyser.base.copier.CopierGenerator;
+import com.cyser.base.copier.MethodHandleCopier;
+import com.cyser.base.param.CopyConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 拷贝器缓存
+ * <br/>
+ * 每个拷贝计划只生成一次拷贝器，之后一直复用，拷贝器保存在计划上
+ * <br/>
+ * 分层拷贝引擎下，计划先按反射复制并计数，达到阈值后提交到后台线程生成，生成完成后写入{@link CopyPlan#copier}，之后的调用直接使用
+ * <br/>
+ * 生成的拷贝器数量超过{@link CopyConfig#getMaxGeneratedCopiers()}时按CLOCK算法淘汰最近没有使用的拷贝器，
+ * 拷贝类没有引用后随之卸载，元空间占用不会随类型数量无限增长
+ * <br/>
+ * 被淘汰的计划不在调用线程上立即重新生成，先按MethodHandle复制，与分层拷贝引擎一样调用次数达到{@link CopyConfig#getTieredThreshold()}后
+ * 才在后台重新生成；活跃的计划略多于上限时，不会每次复制都生成一个类
+ */
+@Slf4j
+public class CopierCache {
+
+    /**
+     * 无法生成拷贝器时缓存的占位对象，避免反复尝试生成
+     */
+    private static final Copier UNSUPPORTED = (target, src, cp) -> target;
+
+    /**
+     * 后台生成拷贝器的线程，空闲时退出，不阻止JVM关闭
+     */
+    private static final ThreadPoolExecutor COMPILER = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+        Thread thread = new Thread(r, "easy-copy-compiler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        COMPILER.allowCoreThreadTimeOut(true);
+    }
+
+    private static final LongAdder REFLECT_COPIES = new LongAdder();
+    private static final LongAdder COMPILED_COPIES = new LongAdder();
+    private static final LongAdder COMPILED_PLANS = new LongAdder();
+    private static final LongAdder UNSUPPORTED_PLANS = new LongAdder();
+    private static final LongAdder PENDING_PLANS = new LongAdder();
+    private static final LongAdder EVICTED_COPIERS = new LongAdder();
+    private static final LongAdder REGENERATED_COPIERS = new LongAdder();
+
+    /**
+     * 已生成拷贝器的计划，按生成顺序排列，淘汰时从头部开始扫描；弱引用不阻止计划随源类卸载
+     */
+    private static final ArrayDeque<WeakReference<CopyPlan>> GENERATED = new ArrayDeque<>();
+
+    /**
+     * 获取拷贝器
+     *
+     * @param plan 拷贝计划
+     * @return 拷贝器，不支持时返回null
+     */
+    public static Copier getCopier(CopyPlan plan) {
+        Copier copier = plan.copier;
+        if (copier == null) {
+            if (plan.evicted) {
+                // 被淘汰过的计划重新计数，达到阈值后在后台重新生成，之前按MethodHandle复制
+                if (plan.invocation_count.incrementAndGet() >= CopyConfig.getTieredThreshold()
+                        && plan.compile_queued.compareAndSet(false, true)) {
+                    submit(plan);
+                }
+                return getMethodHandleCopier(plan);
+            }
+            copier = generate(plan);
+        } else if (!plan.recently_used) {
+            plan.recently_used = true;
+        }
+        return copier == UNSUPPORTED ? null : copier;
+    }
+
+    /**
+     * 为计划生成拷贝器，同一个计划只生成一次
+     */
+    private static Copier generate(CopyPlan plan) {
+        Copier copier;
+        plan.lock.lock();
+        try {
+            copier = plan.copier;
+            if (copier == null) {
+                Copier generated = CopierGenerator.generate(plan);
+                copier = generated == null ? UNSUPPORTED : generated;
+                plan.copier = copier;
+                if (generated != null) {
+                    if (plan.evicted) {
+                        REGENERATED_COPIERS.increment();
+                    }
+                    register(plan);
+                }
+            }
+        } finally {
+            plan.lock.unlock();
+        }
+        return copier;
+    }
+
+    /**
+     * 获取MethodHandle拷贝器
+     *
+     * @param plan 拷贝计划
+     * @return 拷贝器，不支持时返回null
+     */
+    public static Copier getMethodHandleCopier(CopyPlan plan) {
+        Copier copier = plan.mh_copier;
+        if (copier == null) {
+            plan.lock.lock();
+            try {
+                copier = plan.mh_copier;
+                if (copier == null) {
+                    Copier created = MethodHandleCopier.create(plan);
+                    copier = created == null ? UNSUPPORTED : created;
+                    plan.mh_copier = copier;
+                }
+            } finally {
+                plan.lock.unlock();
+            }
+        }
+        return copier == UNSUPPORTED ? null : copier;
+    }
+
+    /**
+     * 分层拷贝引擎获取拷贝器，拷贝器还没有生成时计数，达到阈值后提交后台生成
+     *
+     * @param plan 拷贝计划
+     * @return 拷贝器，还没有生成或者不支持时返回null，调用方按反射复制
+     */
+    public static Copier getTieredCopier(CopyPlan plan) {
+        Copier copier = plan.copier;
+        if (copier != null && copier != UNSUPPORTED) {
+            if (!plan.recently_used) {
+                plan.recently_used = true;
+            }
+            COMPILED_COPIES.increment();
+            return copier;
+        }
+        REFLECT_COPIES.increment();
+        if (copier == null
+                && plan.invocation_count.incrementAndGet() >= CopyConfig.getTieredThreshold()
+                && plan.compile_queued.compareAndSet(false, true)) {
+            submit(plan);
+        }
+        return null;
+    }
+
+    /**
+     * 登记新生成的拷贝器，超过数量上限时淘汰
+     * <br/>
+     * CLOCK算法：从头部开始扫描，最近使用过的计划清除标记后移到尾部，没有使用过的淘汰
+     */
+    private static void register(CopyPlan plan) {
+        List<CopyPlan> evicted = new ArrayList<>();
+        synchronized (GENERATED) {
+            plan.recently_used = true;
+            GENERATED.addLast(new WeakReference<>(plan));
+            int max = CopyConfig.getMaxGeneratedCopiers();
+            while (GENERATED.size() > max) {
+                WeakReference<CopyPlan> ref = GENERATED.pollFirst();
+                CopyPlan candidate = ref.get();
+                if (candidate == null) {
+                    continue;
+                }
+                if (candidate.recently_used) {
+                    candidate.recently_used = false;
+                    GENERATED.addLast(ref);
+                } else {
+                    evicted.add(candidate);
+                }
+            }
+        }
+        // 不在GENERATED锁内修改计划，避免与getCopier的计划锁交叉
+        for (CopyPlan candidate : evicted) {
+            candidate.evicted = true;
+            candidate.copier = null;
+            candidate.invocation_count.set(0);
+            candidate.compile_queued.set(false);
+            EVICTED_COPIERS.increment();
+        }
+    }
+
+    /**
+     * 当前存活的生成拷贝器数量
+     */
+    public static int getGeneratedCopierCount() {
+        synchronized (GENERATED) {
+            GENERATED.removeIf(ref -> ref.get() == null);
+            return GENERATED.size();
+        }
+    }
+
+    /**
+     * 因超过数量上限被淘汰的拷贝器数量
+     */
+    public static long getEvictedCopierCount() {
+        return EVICTED_COPIERS.sum();
+    }
+
+    /**
+     * 被淘汰后重新生成的拷贝器数量
+     */
+    public static long getRegeneratedCopierCount() {
+        return REGENERATED_COPIERS.sum();
+    }
+
+    private static void submit(CopyPlan plan) {
+        PENDING_PLANS.increment();
+        try {
+            COMPILER.execute(() -> {
+                try {
+                    if (generate(plan) != UNSUPPORTED) {
+                        COMPILED_PLANS.increment();
+                    } else {
+                        UNSUPPORTED_PLANS.increment();
+                    }
+                } catch (RuntimeException | LinkageError e) {
+                    // 生成失败时一直按反射复制
+                    plan.copier = UNSUPPORTED;
+                    UNSUPPORTED_PLANS.increment();
+                    log.warn("生成拷贝器失败[" + plan.src_clazz.getName() + " -> " + plan.target_clazz.getName() + "]: " + e.getMessage());
+                } finally {
+                    PENDING_PLANS.decrement();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            PENDING_PLANS.decrement();
+            plan.compile_queued.set(false);
+        }
+    }
+
+    /**
+     * 分层拷贝引擎的统计
+     */
+    public static TierStatistics getTierStatistics() {
+        return new TierStatistics(REFLECT_COPIES.sum(), COMPILED_COPIES.sum(),
+                COMPILED_PLANS.sum(), UNSUPPORTED_PLANS.sum(), PENDING_PLANS.sum());
+    }
+
+    /**
+     * 清空分层拷贝引擎的统计
+     */
+    public static void resetTierStatistics() {
+        REFLECT_COPIES.reset();
+        COMPILED_COPIES.reset();
+        COMPILED_PLANS.reset();
+        UNSUPPORTED_PLANS.reset();
+    }
+}
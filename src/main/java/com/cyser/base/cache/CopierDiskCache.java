@@ -0,0 +1,195 @@
+package com.cyser.base.cache;
+
+import com.cyser.base.bean.CopyPlan;
+import com.cyser.base.bean.FieldSlot;
+import com.cyser.base.classloader.ByteBuddyClassLoader;
+import com.cyser.base.copier.CopierGenerator;
+import com.cyser.base.copier.GeneratedCopier;
+import com.cyser.base.param.CopyConfig;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * 生成的拷贝类的磁盘缓存
+ * <br/>
+ * 拷贝类的类名由源类、目标类的结构(字段、方法、父类)以及拷贝计划计算哈希得到，类结构变化后类名随之变化，旧文件不会再被使用；
+ * 文件保存在{@link CopyConfig#getCopierCacheDir()}下的版本目录中，版本由生成器本身的字节码计算，升级后自动换用新目录。
+ * 重启后直接加载已有的字节码，不需要重新生成
+ */
+@Slf4j
+public class CopierDiskCache {
+
+    private CopierDiskCache() {
+    }
+
+    /**
+     * 缓存文件格式版本
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String VERSION = "v" + FORMAT_VERSION + "-" + generatorVersion();
+
+    /**
+     * 当前版本的缓存目录，未配置缓存目录时返回null
+     */
+    public static File getDirectory() {
+        String dir = CopyConfig.getCopierCacheDir();
+        return StringUtils.isEmpty(dir) ? null : new File(dir, VERSION);
+    }
+
+    /**
+     * 从磁盘加载拷贝类
+     *
+     * @param classLoader 以当前版本缓存目录为classPath的类加载器
+     * @param class_name  拷贝类全名
+     * @return 不存在或者无法加载时返回null
+     */
+    public static Class<?> load(ByteBuddyClassLoader classLoader, String class_name) {
+        try {
+            return classLoader.loadClass(class_name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (LinkageError e) {
+            // 文件损坏，删除后重新生成
+            log.warn("加载缓存的拷贝类[" + class_name + "]失败，重新生成: " + e.getMessage());
+            delete(class_name);
+            return null;
+        }
+    }
+
+    /**
+     * 读取缓存的拷贝类字节码
+     *
+     * @param class_name 拷贝类全名
+     * @return 不存在时返回null
+     */
+    public static byte[] read(String class_name) {
+        File directory = getDirectory();
+        if (directory == null) {
+            return null;
+        }
+        File file = classFile(directory, class_name);
+        try {
+            return file.isFile() ? Files.readAllBytes(file.toPath()) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 删除缓存的拷贝类
+     *
+     * @param class_name 拷贝类全名
+     */
+    public static void delete(String class_name) {
+        File directory = getDirectory();
+        if (directory != null) {
+            classFile(directory, class_name).delete();
+        }
+    }
+
+    /**
+     * 保存拷贝类字节码，先写临时文件再改名，多个进程同时写入时不会读到不完整的文件
+     *
+     * @param class_name 拷贝类全名
+     * @param bytes      字节码
+     */
+    public static void save(String class_name, byte[] bytes) {
+        File directory = getDirectory();
+        if (directory == null) {
+            return;
+        }
+        File file = classFile(directory, class_name);
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            Path tmp = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".tmp");
+            try {
+                Files.write(tmp, bytes);
+                Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("保存拷贝类[" + class_name + "]失败: " + e.getMessage());
+        }
+    }
+
+    private static File classFile(File directory, String class_name) {
+        return new File(directory, class_name.replace('.', File.separatorChar) + ".class");
+    }
+
+    /**
+     * 拷贝计划的结构哈希，用作拷贝类类名的一部分
+     * <br/>
+     * 包含源类和目标类(含父类)的字段、方法签名，以及拷贝特色、排除字段和每个字段对的复制方式
+     */
+    public static String structureHash(CopyPlan plan) {
+        StringBuilder sb = new StringBuilder();
+        appendClass(sb, plan.src_clazz);
+        appendClass(sb, plan.target_clazz);
+        sb.append("features:").append(plan.features).append('\n');
+        sb.append("exclude:").append(new TreeSet<>(plan.exclude_fields)).append('\n');
+        for (FieldSlot slot : plan.slots) {
+            sb.append("slot:").append(slot.src_fd.field.getName())
+                    .append("->").append(slot.dest_fd.field.getName())
+                    .append(':').append(slot.slot_type).append('\n');
+        }
+        return Hashing.murmur3_128().hashString(sb, StandardCharsets.UTF_8).toString().substring(0, 16);
+    }
+
+    private static void appendClass(StringBuilder sb, Class<?> clazz) {
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            sb.append("class:").append(current.getName()).append(':').append(current.getModifiers()).append('\n');
+            Field[] fields = current.getDeclaredFields();
+            Arrays.sort(fields, Comparator.comparing(Field::getName));
+            for (Field field : fields) {
+                sb.append("field:").append(field.getName()).append(':').append(field.getGenericType().getTypeName())
+                        .append(':').append(field.getModifiers()).append('\n');
+            }
+            Method[] methods = current.getDeclaredMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::toGenericString));
+            for (Method method : methods) {
+                sb.append("method:").append(method.toGenericString()).append('\n');
+            }
+        }
+    }
+
+    /**
+     * 生成器版本：生成器与拷贝器父类字节码的哈希
+     */
+    private static String generatorVersion() {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (Class<?> clazz : new Class<?>[]{CopierGenerator.class, GeneratedCopier.class}) {
+                try (InputStream in = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+                    if (in == null) {
+                        return "unknown";
+                    }
+                    byte[] buf = new byte[4096];
+                    int n;
+                    while ((n = in.read(buf)) > 0) {
+                        out.write(buf, 0, n);
+                    }
+                }
+            }
+            return Hashing.murmur3_128().hashBytes(out.toByteArray()).toString().substring(0, 12);
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
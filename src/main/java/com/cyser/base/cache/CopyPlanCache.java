@@ -0,0 +1,296 @@
+package com.cyser.base.cache;
+
+import com.cyser.base.bean.ClassMetadata;
+import com.cyser.base.bean.CopyPlan;
+import com.cyser.base.bean.FieldDefinition;
+import com.cyser.base.bean.FieldNameIndex;
+import com.cyser.base.bean.FieldSlot;
+import com.cyser.base.bean.TypeDefinition;
+import com.cyser.base.enums.CopyFeature;
+import com.cyser.base.enums.DataTypeEnum;
+import com.cyser.base.enums.SlotTypeEnum;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.utils.ClassUtil;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.ObjectUtils;
+
+import java.util.*;
+
+/**
+ * 拷贝计划缓存
+ * <br/>
+ * 按(源类可序列化字段Map,目标类可序列化字段Map,拷贝特色,不需要拷贝的字段)区分，
+ * 字段Map来自{@link CopyableFieldsCache}，同一类型始终是同一个实例，所以这里按引用比较
+ * <br/>
+ * 计划保存在源类或者目标类的{@link ClassMetadata}上，查找时遍历该类的计划，不需要构造key。
+ * 计划同时引用源类和目标类，所以保存在类加载器能看到另一个类的那一方(子加载器一方)：
+ * 共用的源类在父加载器、目标类在热部署的子加载器时保存在目标类上，父加载器中的类不会引用住子加载器，子加载器丢弃后计划随之回收
+ * <br/>
+ * 两个类加载器互不可见时保存在目标类上，目标类卸载前源类的类加载器不会被回收
+ */
+public class CopyPlanCache {
+
+    /**
+     * 获取拷贝计划，不存在时生成
+     *
+     * @param target_clazz       目标类
+     * @param src_clazz          源类
+     * @param serial_dest_fd_map 目标类可序列化字段
+     * @param serial_src_fd_map  源类可序列化字段
+     * @param cp                 拷贝参数
+     * @return
+     */
+    public static CopyPlan getCopyPlan(Class target_clazz, Class src_clazz,
+                                       Map<String, FieldDefinition> serial_dest_fd_map,
+                                       Map<String, FieldDefinition> serial_src_fd_map,
+                                       CopyParam cp) {
+        int features = features(cp);
+        ClassMetadata metadata = ClassMetadataCache.get(owner(src_clazz, target_clazz));
+        CopyPlan plan = findCopyPlan(metadata.copy_plans, serial_dest_fd_map, serial_src_fd_map, features, cp.exclude_fields);
+        if (plan == null) {
+            metadata.lock.lock();
+            try {
+                CopyPlan[] plans = metadata.copy_plans;
+                plan = findCopyPlan(plans, serial_dest_fd_map, serial_src_fd_map, features, cp.exclude_fields);
+                if (plan == null) {
+                    Set<String> exclude_fields = ObjectUtils.isEmpty(cp.exclude_fields) ? Collections.emptySet() : new HashSet<>(cp.exclude_fields);
+                    plan = createCopyPlan(target_clazz, src_clazz, serial_dest_fd_map, serial_src_fd_map, features, exclude_fields);
+                    CopyPlan[] new_plans = Arrays.copyOf(plans, plans.length + 1);
+                    new_plans[plans.length] = plan;
+                    metadata.copy_plans = new_plans;
+                }
+            } finally {
+                metadata.lock.unlock();
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * 查找按Class登记的计划，{@link com.cyser.base.utils.BeanUtil#copy(Object, Object, CopyParam)}命中时不再解析类型、查找字段Map
+     *
+     * @param src_clazz    源类
+     * @param target_clazz 目标类
+     * @param cp           拷贝参数
+     * @return 没有登记时返回null
+     */
+    public static CopyPlan getClassPlan(Class src_clazz, Class target_clazz, CopyParam cp) {
+        Class owner = owner(src_clazz, target_clazz);
+        CopyPlan[] plans = ClassMetadataCache.get(owner).class_plans.get(owner == src_clazz ? target_clazz : src_clazz);
+        if (plans != null) {
+            int features = features(cp);
+            for (CopyPlan plan : plans) {
+                if (plan.src_clazz == src_clazz && plan.features == features && sameFields(plan.exclude_fields, cp.exclude_fields)) {
+                    return plan;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 登记按Class(不带范型)解析出的计划，之后可以通过{@link #getClassPlan(Class, Class, CopyParam)}直接找到
+     *
+     * @param plan 拷贝计划，字段Map必须来自源类、目标类本身的类型定义
+     */
+    public static void putClassPlan(CopyPlan plan) {
+        Class owner = owner(plan.src_clazz, plan.target_clazz);
+        ClassMetadataCache.get(owner).class_plans.merge(owner == plan.src_clazz ? plan.target_clazz : plan.src_clazz,
+                new CopyPlan[]{plan}, (plans, added) -> {
+                    for (CopyPlan existing : plans) {
+                        if (existing == plan) {
+                            return plans;
+                        }
+                    }
+                    CopyPlan[] new_plans = Arrays.copyOf(plans, plans.length + 1);
+                    new_plans[plans.length] = plan;
+                    return new_plans;
+                });
+    }
+
+    /**
+     * 区分拷贝计划的特色掩码，并行只影响集合的复制方式，不区分拷贝计划
+     */
+    private static int features(CopyParam cp) {
+        return cp.copyFeature.getCopyFeatures() & ~CopyFeature.PARALLEL.getMask();
+    }
+
+    /**
+     * 保存计划的类：目标类的类加载器是源类的类加载器或者其祖先时为源类，否则为目标类
+     */
+    static Class owner(Class src_clazz, Class target_clazz) {
+        ClassLoader target_loader = target_clazz.getClassLoader();
+        if (target_loader == null) {
+            return src_clazz;
+        }
+        for (ClassLoader loader = src_clazz.getClassLoader(); loader != null; loader = loader.getParent()) {
+            if (loader == target_loader) {
+                return src_clazz;
+            }
+        }
+        return target_clazz;
+    }
+
+    /**
+     * 在已有的计划中查找，查找过程不分配对象
+     */
+    private static CopyPlan findCopyPlan(CopyPlan[] plans,
+                                         Map<String, FieldDefinition> serial_dest_fd_map,
+                                         Map<String, FieldDefinition> serial_src_fd_map,
+                                         int features, Collection<String> exclude_fields) {
+        for (CopyPlan plan : plans) {
+            if (plan.serial_src_fd_map == serial_src_fd_map
+                    && plan.serial_dest_fd_map == serial_dest_fd_map
+                    && plan.features == features
+                    && sameFields(plan.exclude_fields, exclude_fields)) {
+                return plan;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 两组字段名去重后是否相同
+     */
+    private static boolean sameFields(Set<String> plan_fields, Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return plan_fields.isEmpty();
+        }
+        for (String field : fields) {
+            if (!plan_fields.contains(field)) {
+                return false;
+            }
+        }
+        for (String field : plan_fields) {
+            if (!fields.contains(field)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static CopyPlan createCopyPlan(Class target_clazz, Class src_clazz,
+                                           Map<String, FieldDefinition> serial_dest_fd_map,
+                                           Map<String, FieldDefinition> serial_src_fd_map,
+                                           int features, Set<String> exclude_fields) {
+        // 字段名称不区分大小写或者忽略下划线时使用目标类的字段名称索引，名称完全相同的字段优先
+        FieldNameIndex dest_index = FieldNameIndexCache.getIndex(serial_dest_fd_map, features);
+        List<FieldSlot> slots = new ArrayList<>();
+        for (FieldDefinition src_fd : serial_src_fd_map.values()) {
+            String name = src_fd.field.getName();
+            if (exclude_fields.contains(name)) {
+                continue;
+            }
+            FieldDefinition dest_fd = serial_dest_fd_map.get(name);
+            if (dest_fd == null && dest_index != null) {
+                dest_fd = dest_index.get(name);
+            }
+            if (dest_fd != null) {
+                slots.add(createSlot(src_fd, dest_fd));
+            }
+        }
+        return new CopyPlan(src_clazz, target_clazz, features, slots.toArray(new FieldSlot[0]), serial_src_fd_map, serial_dest_fd_map, exclude_fields);
+    }
+
+    /**
+     * 确定一对字段的复制方式
+     *
+     * @param src_fd  源对象字段
+     * @param dest_fd 目标对象字段
+     * @return
+     */
+    public static FieldSlot createSlot(FieldDefinition src_fd, FieldDefinition dest_fd) {
+        FieldSlot slot = new FieldSlot(src_fd, dest_fd);
+        // 两个字段都是基本类型，并且可以直接赋值或者拓宽
+        Class<?> src_type = src_fd.field.getType();
+        Class<?> dest_type = dest_fd.field.getType();
+        if (src_type.isPrimitive() && dest_type.isPrimitive()) {
+            if (ClassUtils.isAssignable(src_type, dest_type, false)) {
+                slot.slot_type = SlotTypeEnum.PRIMITIVE;
+                return slot;
+            }
+        }
+        // 基本类型与封装类型之间拓宽
+        if (ClassUtils.isPrimitiveOrWrapper(src_type) && ClassUtils.isPrimitiveOrWrapper(dest_type)) {
+            Class<?> src_primitive = ClassUtils.wrapperToPrimitive(src_type) == null ? src_type : ClassUtils.wrapperToPrimitive(src_type);
+            Class<?> dest_primitive = ClassUtils.wrapperToPrimitive(dest_type) == null ? dest_type : ClassUtils.wrapperToPrimitive(dest_type);
+            if (src_primitive != dest_primitive && ClassUtils.isAssignable(src_primitive, dest_primitive, false)) {
+                slot.slot_type = SlotTypeEnum.WIDEN;
+                return slot;
+            }
+        }
+        // 如果两者类型相同，直接赋值
+        if (ClassUtils.isAssignable(src_fd.runtime_class, dest_fd.runtime_class, true)) {
+            if ((src_fd.data_type == DataTypeEnum.Collection || src_fd.data_type == DataTypeEnum.Map)
+                    && src_fd.parameter_Type_classes != dest_fd.parameter_Type_classes) {//如果字段类型是集合或者Map，并且参数类型不同
+                slot.method = BeanConvertCache.bean_method_table.get(src_fd.data_type, dest_fd.data_type);
+                slot.slot_type = slot.method == null ? SlotTypeEnum.NONE : SlotTypeEnum.CONVERT;
+            } else if (src_fd.data_type == DataTypeEnum.Array && dest_fd.data_type == DataTypeEnum.Array) {//数组复制一份，不与源对象共用
+                slot.method = BeanConvertCache.bean_method_table.get(DataTypeEnum.Array, DataTypeEnum.Array);
+                slot.slot_type = SlotTypeEnum.CONVERT;
+            } else {
+                slot.slot_type = SlotTypeEnum.ASSIGN;
+            }
+            return slot;
+        }
+        Class<?> _src_clazz = src_fd.runtime_class;
+        Class<?> _dest_clazz = dest_fd.runtime_class;
+        // 两个字段是否有一个是时间类型
+        if (src_fd.isTime || dest_fd.isTime) {
+            Class<?> _src_wrapper = src_fd.isPrimitive ? ClassUtils.primitiveToWrapper(_src_clazz) : _src_clazz;
+            Class<?> _dest_wrapper = dest_fd.isPrimitive ? ClassUtils.primitiveToWrapper(_dest_clazz) : _dest_clazz;
+            slot.time_method = TimeConvertCache.time_method_table.get(_dest_wrapper, _src_wrapper);
+            if (slot.time_method == null) {
+                return error(slot);
+            }
+            slot.slot_type = SlotTypeEnum.TIME;
+            return slot;
+        }
+        // 源字段是字符串，并且目标字段是基本或者封装类型，并且目标字段不是空类型或者布尔类型
+        if (String.class.isAssignableFrom(_src_clazz)
+                && ClassUtils.isPrimitiveOrWrapper(_dest_clazz)
+                && (!(Void.TYPE.equals(_dest_clazz) || Boolean.TYPE.equals(_dest_clazz)))) {
+            slot.slot_type = SlotTypeEnum.PARSE;
+            return slot;
+        }
+        // 目标字段是字符串，并且源字段是基本或者封装类型，并且源字段不是空类型或者布尔类型
+        if (_dest_clazz.isAssignableFrom(String.class)
+                && ClassUtils.isPrimitiveOrWrapper(_src_clazz)
+                && (!(Void.TYPE.equals(_src_clazz) || Boolean.TYPE.equals(_src_clazz)))) {
+            slot.slot_type = SlotTypeEnum.TO_STRING;
+            return slot;
+        }
+        // 如果有枚举
+        if (src_fd.isEnum(dest_fd.field.getDeclaringClass())
+                || dest_fd.isEnum(src_fd.field.getDeclaringClass())) {
+            slot.method = BeanConvertCache.bean_method_table.get(src_fd.getData_type(dest_fd.field.getDeclaringClass()), dest_fd.getData_type(src_fd.field.getDeclaringClass()));
+            if (slot.method == null) {
+                return error(slot);
+            }
+            slot.slot_type = SlotTypeEnum.CONVERT;
+            return slot;
+        }
+        try {
+            TypeDefinition runtime_dest_def = ClassUtil.getRuntimeTypeDefinition(dest_fd);
+            TypeDefinition runtime_src_def = ClassUtil.getRuntimeTypeDefinition(src_fd);
+            slot.method = BeanConvertCache.bean_method_table.get(runtime_src_def.getData_type(), runtime_dest_def.getData_type());
+            slot.runtime_dest_def = runtime_dest_def;
+            slot.runtime_src_def = runtime_src_def;
+        } catch (ClassNotFoundException | RuntimeException e) {
+            slot.slot_type = SlotTypeEnum.ERROR;
+            slot.error = e.getMessage();
+            return slot;
+        }
+        if (slot.method == null) {
+            return error(slot);
+        }
+        slot.slot_type = SlotTypeEnum.RUNTIME_CONVERT;
+        return slot;
+    }
+
+    private static FieldSlot error(FieldSlot slot) {
+        slot.slot_type = SlotTypeEnum.ERROR;
+        slot.error = "字段" + slot.src_fd.field.getName() + "类型不匹配，无法赋值!";
+        return slot;
+    }
+}
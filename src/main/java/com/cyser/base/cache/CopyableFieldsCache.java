@@ -1,12 +1,11 @@
 package com.cyser.base.cache;
 
+import com.cyser.base.bean.ClassMetadata;
 import com.cyser.base.bean.FieldDefinition;
 import com.cyser.base.bean.TypeDefinition;
 import com.cyser.base.enums.ClassTypeEnum;
 import com.cyser.base.utils.ClassUtil;
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Table;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
 
@@ -20,62 +19,81 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CopyableFieldsCache {
 
-    public static Table<Integer,String, Map<String, FieldDefinition>> FIELDS_CACHE = HashBasedTable.create();
-
     /**
      * 返回封装Class中可序列化的字段Map，
      * <br/>
      * 支持"T t","Cat&lt;T&gt;"这样的字段
+     * <br/>
+     * 结果保存在类的{@link ClassMetadata}上，读缓存不加锁，只在未命中时解析
      * @return Map<String, FieldDefinition>
      * @throws ClassNotFoundException
      */
-    public static synchronized Map<String, FieldDefinition> getSerialFieldDefinitions(ClassLoader classLoader,TypeDefinition type_def)
+    public static Map<String, FieldDefinition> getSerialFieldDefinitions(ClassLoader classLoader,TypeDefinition type_def)
             throws ClassNotFoundException {
-        Integer hashCode=ClassUtil.DEFAULT_HASHCODE;
-        if(classLoader!=null){
-            hashCode=classLoader.hashCode();
+        Class clazz=ClassUtil.loadClass(classLoader,type_def.runtime_class);
+        ClassMetadata metadata = ClassMetadataCache.get(clazz);
+        // 类型定义由ClassUtil.parseType保证唯一，先按引用查找
+        Map<String, FieldDefinition> serial_fd_map = metadata.serial_fd_def_cache.get(type_def);
+        if (serial_fd_map == null) {
+            serial_fd_map = getSerialFieldDefinitions(classLoader, clazz, type_def, metadata);
+            Map<String, FieldDefinition> exist = metadata.serial_fd_def_cache.putIfAbsent(type_def, serial_fd_map);
+            if (exist != null) {
+                serial_fd_map = exist;
+            }
         }
-        Class clazz=type_def.runtime_class;
-        String cache_key=clazz.getName();//缓存Key
+        return serial_fd_map;
+    }
+
+    /**
+     * 按范型实际类型查找，保证结构相同的类型定义得到同一个字段Map
+     */
+    private static Map<String, FieldDefinition> getSerialFieldDefinitions(ClassLoader classLoader, Class clazz, TypeDefinition type_def, ClassMetadata metadata)
+            throws ClassNotFoundException {
+        String cache_key="";//缓存Key
         Map<String,Class> parameter_type_corresponds=type_def.parameter_type_corresponds;
         if((type_def.class_type==ClassTypeEnum.Class&&type_def.isGeneric)||(type_def.class_type==ClassTypeEnum.ParameterizedType)){
-            cache_key=clazz.getName();
+            StringBuilder sb = new StringBuilder();
             for(Map.Entry<String,Class> entry:parameter_type_corresponds.entrySet()){
-                cache_key+="#"+entry.getValue().getName();
+                sb.append('#').append(entry.getValue().getName());
             }
+            cache_key=sb.toString();
         }
-        Map<String, FieldDefinition> serial_fd_map = FIELDS_CACHE.get(hashCode,cache_key); // 返回结果Map
-        if (ObjectUtils.anyNull(serial_fd_map)) {
-            synchronized (CopyableFieldsCache.class) {
-                serial_fd_map = FIELDS_CACHE.get(hashCode,cache_key);
-                if (ObjectUtils.anyNull(serial_fd_map)) {
-                    Collection<Field> all_dest_fields_list =
-                            ClassUtil.getAllFieldsCollection(classLoader,clazz); // 目标类所有字段
-                    if (ObjectUtils.isEmpty(all_dest_fields_list)) {
-                        log.warn("当前类[" + clazz.getName() + "]未包含任何字段.");
-                    }
-                    else {
-                        Collection<FieldDefinition> serial_fd_list; // 目标类可序列化字段
-                        List<FieldDefinition> all_fd_list = new ArrayList<>(); // 目标类所有字段
-                        for (Field field : all_dest_fields_list) {
-                            all_fd_list.add(ClassUtil.parseField(field,parameter_type_corresponds));
-                        }
-                        serial_fd_list =
-                                all_fd_list.stream().filter(o -> o.isSerializable).collect(Collectors.toList());
-                        if (ObjectUtils.isEmpty(serial_fd_list)) {
-                            log.warn("当前类[" + clazz.getName() + "]未包含任何可序列化字段.");
-                        }
-                        else {
-                            serial_fd_map = Maps.uniqueIndex(serial_fd_list, o -> o.field.getName());
-                        }
-                    }
-                    if (ObjectUtils.isEmpty(serial_fd_map)) {
-                        serial_fd_map = new HashMap<>();
-                    }
+        Map<String, FieldDefinition> serial_fd_map = metadata.serial_fd_name_cache.get(cache_key); // 返回结果Map
+        if (serial_fd_map == null) {
+            serial_fd_map = createSerialFieldDefinitions(classLoader, clazz, parameter_type_corresponds);
+            Map<String, FieldDefinition> exist = metadata.serial_fd_name_cache.putIfAbsent(cache_key, serial_fd_map);
+            if (exist != null) {
+                serial_fd_map = exist;
+            }
+        }
+        return serial_fd_map;
+    }
 
-                    FIELDS_CACHE.put(hashCode,cache_key, serial_fd_map);
-                }
+    private static Map<String, FieldDefinition> createSerialFieldDefinitions(ClassLoader classLoader, Class clazz, Map<String,Class> parameter_type_corresponds)
+            throws ClassNotFoundException {
+        Map<String, FieldDefinition> serial_fd_map = null;
+        Collection<Field> all_dest_fields_list =
+                ClassUtil.getAllFieldsCollection(classLoader,clazz); // 目标类所有字段
+        if (ObjectUtils.isEmpty(all_dest_fields_list)) {
+            log.warn("当前类[" + clazz.getName() + "]未包含任何字段.");
+        }
+        else {
+            Collection<FieldDefinition> serial_fd_list; // 目标类可序列化字段
+            List<FieldDefinition> all_fd_list = new ArrayList<>(); // 目标类所有字段
+            for (Field field : all_dest_fields_list) {
+                all_fd_list.add(ClassUtil.parseField(field,parameter_type_corresponds));
+            }
+            serial_fd_list =
+                    all_fd_list.stream().filter(o -> o.isSerializable).collect(Collectors.toList());
+            if (ObjectUtils.isEmpty(serial_fd_list)) {
+                log.warn("当前类[" + clazz.getName() + "]未包含任何可序列化字段.");
             }
+            else {
+                serial_fd_map = Maps.uniqueIndex(serial_fd_list, o -> o.field.getName());
+            }
+        }
+        if (ObjectUtils.isEmpty(serial_fd_map)) {
+            serial_fd_map = new HashMap<>();
         }
         return serial_fd_map;
     }
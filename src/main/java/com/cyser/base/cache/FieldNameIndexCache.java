@@ -0,0 +1,69 @@
+package com.cyser.base.cache;
+
+import com.cyser.base.bean.FieldDefinition;
+import com.cyser.base.bean.FieldNameIndex;
+import com.cyser.base.enums.CopyFeature;
+import com.google.common.collect.MapMaker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 字段名称索引缓存
+ * <br/>
+ * 按可序列化字段Map缓存，字段Map来自{@link CopyableFieldsCache}，同一类型始终是同一个实例，所以按引用作为弱引用key，
+ * 随字段Map(也就是随类)一起回收
+ */
+public class FieldNameIndexCache {
+
+    private FieldNameIndexCache() {
+    }
+
+    /**
+     * 字段Map -> [不区分大小写的索引, 同时忽略下划线的索引]
+     */
+    private static final ConcurrentMap<Map<String, FieldDefinition>, FieldNameIndex[]> INDEXES = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * 按拷贝特色获取字段名称索引
+     *
+     * @param serial_fd_map 可序列化字段
+     * @param features      拷贝特色掩码
+     * @return 区分大小写并且不忽略下划线时返回null，直接按名称查找字段Map即可
+     */
+    public static FieldNameIndex getIndex(Map<String, FieldDefinition> serial_fd_map, int features) {
+        if (CopyFeature.IGNORE_UNDERSCORE.enabledIn(features)) {
+            return getIndex(serial_fd_map, true);
+        }
+        if (!CopyFeature.CASE_SENSITIVE.enabledIn(features)) {
+            return getIndex(serial_fd_map, false);
+        }
+        return null;
+    }
+
+    /**
+     * 获取字段名称索引，不区分大小写
+     *
+     * @param serial_fd_map    可序列化字段
+     * @param ignore_separator 是否同时忽略下划线和中划线
+     * @return
+     */
+    public static FieldNameIndex getIndex(Map<String, FieldDefinition> serial_fd_map, boolean ignore_separator) {
+        FieldNameIndex[] indexes = INDEXES.get(serial_fd_map);
+        if (indexes == null) {
+            indexes = new FieldNameIndex[2];
+            FieldNameIndex[] exist = INDEXES.putIfAbsent(serial_fd_map, indexes);
+            if (exist != null) {
+                indexes = exist;
+            }
+        }
+        int i = ignore_separator ? 1 : 0;
+        FieldNameIndex index = indexes[i];
+        if (index == null) {
+            // 并发时可能重复创建，结果相同，后写入的覆盖先写入的即可
+            index = FieldNameIndex.of(serial_fd_map, ignore_separator);
+            indexes[i] = index;
+        }
+        return index;
+    }
+}
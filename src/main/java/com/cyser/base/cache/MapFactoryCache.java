@@ -0,0 +1,192 @@
+package com.cyser.base.cache;
+
+import com.cyser.base.function.MapFactory;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Map工厂缓存
+ * <br/>
+ * 与{@link CollectionFactoryCache}相同：按声明的Map类型查找Map工厂，HashMap按负载因子预分配容量，放入全部键值对不需要扩容；
+ * 不可变Map通过Builder生成
+ */
+public class MapFactoryCache {
+
+    private MapFactoryCache() {
+    }
+
+    /**
+     * 注册的Map工厂，声明类型 -> Map工厂
+     */
+    private static final Map<Class<?>, MapFactory<?>> REGISTERED_FACTORIES = new ConcurrentHashMap<>();
+
+    /**
+     * 解析过的Map工厂，包括没有注册、使用默认构造方法的类
+     * <br/>
+     * 保存在类上，不会阻止类加载器卸载
+     */
+    private static final ClassValue<Resolved> RESOLVED_FACTORIES = new ClassValue<Resolved>() {
+        @Override
+        protected Resolved computeValue(Class<?> clazz) {
+            int generation = GENERATION.get();
+            return new Resolved(generation, resolve(clazz));
+        }
+    };
+
+    /**
+     * 注册的版本，每次注册加一，解析结果的版本不一致时重新解析
+     */
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    /**
+     * 实例是否可以放入键值对
+     */
+    private static final ClassValue<Boolean> MODIFIABLE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> clazz) {
+            if (ImmutableMap.class.isAssignableFrom(clazz)) {
+                return false;
+            }
+            String name = clazz.getName();
+            return !(name.startsWith("java.util.ImmutableCollections$")
+                    || name.startsWith("java.util.Collections$Unmodifiable")
+                    || name.startsWith("java.util.Collections$Empty")
+                    || name.startsWith("java.util.Collections$Singleton"));
+        }
+    };
+
+    static {
+        MapFactory<Map<Object, Object>> hash_map = (size, key_clazz) -> Maps.newHashMapWithExpectedSize(size);
+        register(Map.class, hash_map);
+        register(AbstractMap.class, hash_map);
+        register(HashMap.class, hash_map);
+        register(LinkedHashMap.class, (size, key_clazz) -> Maps.newLinkedHashMapWithExpectedSize(size));
+        MapFactory<TreeMap<Object, Object>> tree_map = (size, key_clazz) -> new TreeMap<>();
+        register(SortedMap.class, tree_map);
+        register(NavigableMap.class, tree_map);
+        register(TreeMap.class, tree_map);
+        register(EnumMap.class, (size, key_clazz) -> {
+            if (key_clazz == null || !key_clazz.isEnum()) {
+                throw new IllegalArgumentException("EnumMap的键类型必须是枚举！");
+            }
+            return new EnumMap(key_clazz);
+        });
+        // ConcurrentHashMap的初始容量按预计数量计算，不需要再除以负载因子
+        MapFactory<ConcurrentHashMap<Object, Object>> concurrent_map = (size, key_clazz) -> new ConcurrentHashMap<>(size);
+        register(ConcurrentMap.class, concurrent_map);
+        register(ConcurrentHashMap.class, concurrent_map);
+        MapFactory<ConcurrentSkipListMap<Object, Object>> skip_list_map = (size, key_clazz) -> new ConcurrentSkipListMap<>();
+        register(ConcurrentNavigableMap.class, skip_list_map);
+        register(ConcurrentSkipListMap.class, skip_list_map);
+        register(ImmutableMap.class, MapFactory.<ImmutableMap.Builder<Object, Object>>ofBuilder(
+                (size, key_clazz) -> ImmutableMap.builderWithExpectedSize(size), MapFactoryCache::putNonNull, ImmutableMap.Builder::build));
+        register(ImmutableSortedMap.class, MapFactory.<ImmutableSortedMap.Builder<Comparable, Object>>ofBuilder(
+                (size, key_clazz) -> ImmutableSortedMap.naturalOrder(), MapFactoryCache::putNonNull, ImmutableSortedMap.Builder::build));
+    }
+
+    private static <B extends ImmutableMap.Builder> void putNonNull(B builder, Object key, Object value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("不可变Map不能包含null键或者null值！");
+        }
+        builder.put(key, value);
+    }
+
+    /**
+     * 注册Map工厂，覆盖已有的注册
+     *
+     * @param clazz   声明的Map类型
+     * @param factory Map工厂
+     */
+    public static void register(Class<?> clazz, MapFactory<?> factory) {
+        if (!Map.class.isAssignableFrom(clazz)) {
+            throw new IllegalArgumentException("类型[" + clazz.getName() + "]不是Map！");
+        }
+        REGISTERED_FACTORIES.put(clazz, factory);
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * 获取声明类型的Map工厂
+     *
+     * @param clazz 声明的Map类型
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <B> MapFactory<B> getFactory(Class<?> clazz) {
+        Resolved resolved = RESOLVED_FACTORIES.get(clazz);
+        if (resolved.generation != GENERATION.get()) {
+            RESOLVED_FACTORIES.remove(clazz);
+            resolved = RESOLVED_FACTORIES.get(clazz);
+        }
+        return (MapFactory<B>) resolved.factory;
+    }
+
+    /**
+     * 解析结果及解析时注册的版本
+     */
+    private static final class Resolved {
+
+        final int generation;
+
+        final MapFactory<?> factory;
+
+        Resolved(int generation, MapFactory<?> factory) {
+            this.generation = generation;
+            this.factory = factory;
+        }
+    }
+
+    private static MapFactory<?> resolve(Class<?> clazz) {
+        MapFactory<?> factory = REGISTERED_FACTORIES.get(clazz);
+        if (factory != null) {
+            return factory;
+        }
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+            throw new IllegalArgumentException("Map类型[" + clazz.getName() + "]是接口或抽象类，没有注册Map工厂，不支持生成实例！");
+        }
+        Constructor<?> constructor;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Map类型[" + clazz.getName() + "]没有默认构造方法，不支持生成实例！");
+        }
+        return (size, key_clazz) -> {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * 创建声明类型的Map
+     *
+     * @param clazz     声明的Map类型
+     * @param size      预计的键值对数量
+     * @param key_clazz 键类型
+     * @return 空Map
+     */
+    public static Map newMap(Class<?> clazz, int size, Class<?> key_clazz) {
+        MapFactory<Object> factory = getFactory(clazz);
+        return factory.build(factory.newContainer(size, key_clazz));
+    }
+
+    /**
+     * Map实例是否可以直接放入键值对：Guava不可变Map、Collections.unmodifiableMap、Map.of等返回false
+     */
+    public static boolean isModifiable(Map map) {
+        return MODIFIABLE.get(map.getClass());
+    }
+}
@@ -46,6 +46,17 @@ public class ByteBuddyClassLoader extends ClassLoader {
         }
     }
 
+    /**
+     * 直接用字节码定义一个类
+     *
+     * @param name       类全名
+     * @param classBytes 类字节码
+     * @return
+     */
+    public Class<?> defineClass(String name, byte[] classBytes) {
+        return defineClass(name, classBytes, 0, classBytes.length);
+    }
+
     private boolean isInBasePackage(String className) {
         String packagePath = className.replace('.', File.separatorChar) + ".class";
         String basePackagePath = basePackage.replace('.', File.separatorChar);
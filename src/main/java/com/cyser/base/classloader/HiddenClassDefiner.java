@@ -0,0 +1,88 @@
+package com.cyser.base.classloader;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * 定义隐藏类(Java 15+ Lookup.defineHiddenClass)
+ * <br/>
+ * 隐藏类不被类加载器引用，没有引用后可以单独卸载，不需要为每个生成的类创建一个类加载器。
+ * 项目按Java 8编译，这里通过反射调用，低版本JVM上{@link #isSupported()}返回false
+ */
+@Slf4j
+public class HiddenClassDefiner {
+
+    private HiddenClassDefiner() {
+    }
+
+    /**
+     * MethodHandles.privateLookupIn(Class, Lookup)，Java 9+
+     */
+    private static final Method PRIVATE_LOOKUP_IN;
+
+    /**
+     * Lookup.defineHiddenClass(byte[], boolean, ClassOption...)，Java 15+
+     */
+    private static final Method DEFINE_HIDDEN_CLASS;
+
+    /**
+     * 空的ClassOption数组：不使用NESTMATE和STRONG，隐藏类可以独立于宿主类的类加载器卸载
+     */
+    private static final Object NO_OPTIONS;
+
+    static {
+        Method private_lookup_in = null;
+        Method define_hidden_class = null;
+        Object no_options = null;
+        try {
+            Class<?> class_option = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            no_options = Array.newInstance(class_option, 0);
+            define_hidden_class = MethodHandles.Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class, no_options.getClass());
+            private_lookup_in = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            log.debug("当前JVM不支持隐藏类，生成的类使用独立的类加载器。");
+        }
+        PRIVATE_LOOKUP_IN = private_lookup_in;
+        DEFINE_HIDDEN_CLASS = define_hidden_class;
+        NO_OPTIONS = no_options;
+    }
+
+    /**
+     * 当前JVM是否支持隐藏类
+     */
+    public static boolean isSupported() {
+        return DEFINE_HIDDEN_CLASS != null;
+    }
+
+    /**
+     * 在宿主类所在的包和类加载器中定义一个隐藏类
+     *
+     * @param host  宿主类，隐藏类与它同包，并使用它的类加载器解析引用的类
+     * @param bytes 字节码，类名必须在宿主类所在的包中
+     * @return 隐藏类，类名为字节码中的类名加上JVM分配的后缀
+     * @throws ReflectiveOperationException 无法访问宿主类所在的包
+     */
+    public static Class<?> define(Class<?> host, byte[] bytes) throws ReflectiveOperationException {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("当前JVM不支持隐藏类");
+        }
+        try {
+            MethodHandles.Lookup lookup = (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, host, MethodHandles.lookup());
+            MethodHandles.Lookup hidden = (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS.invoke(lookup, bytes, false, NO_OPTIONS);
+            return hidden.lookupClass();
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.cyser.base.copier;
+
+import com.cyser.base.bean.CopyPlan;
+import com.cyser.base.bean.FieldSlot;
+import com.cyser.base.bean.TypeDefinition;
+import com.cyser.base.cache.BeanConvertCache;
+import com.cyser.base.cache.CopyPlanCache;
+import com.cyser.base.cache.CopyableFieldsCache;
+import com.cyser.base.enums.CopyFeature;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.utils.ClassUtil;
+
+import java.util.Collection;
+
+/**
+ * 编译期生成的拷贝器的父类
+ * <br/>
+ * 由easy-copy-processor根据{@link com.cyser.base.annotations.CopyMapping}生成，与目标类在同一个包中，类名为 源类$$目标类$$CompiledCopier，
+ * 由{@link com.cyser.base.cache.CompiledCopierCache}按这个类名在目标类和源类的类加载器中查找。
+ * 生成的子类对可以直接读写、类型简单的字段直接赋值，时间、枚举、集合等需要转换的字段交给{@link #copySlot(Object, Object, FieldSlot, CopyParam)}按运行时方式复制，
+ * 字段对由{@link #slots(CopyPlan, String[])}按生成时的下标解析，每个计划只解析一次
+ */
+public abstract class CompiledCopier implements Copier {
+
+    /**
+     * 生成的拷贝器没有编译的拷贝特色：生成时只按名称以及不区分大小写匹配字段
+     */
+    private static final int UNSUPPORTED_FEATURES = CopyFeature.IGNORE_UNDERSCORE.getMask();
+
+    /**
+     * 生成的拷贝器是否支持拷贝参数，不支持时改用运行时拷贝，保证结果与运行时一致
+     *
+     * @param cp 拷贝参数
+     */
+    public static boolean supports(CopyParam cp) {
+        return (cp.copyFeature.getCopyFeatures() & UNSUPPORTED_FEATURES) == 0;
+    }
+
+    /**
+     * 源类
+     */
+    public abstract Class<?> getSrcClass();
+
+    /**
+     * 目标类
+     */
+    public abstract Class<?> getTargetClass();
+
+    /**
+     * 字段是否不需要拷贝
+     *
+     * @param exclude_fields 不需要拷贝的字段
+     * @param name           源对象字段名
+     */
+    protected static boolean excluded(Collection<String> exclude_fields, String name) {
+        return exclude_fields != null && !exclude_fields.isEmpty() && exclude_fields.contains(name);
+    }
+
+    /**
+     * 获取运行时的拷贝计划，供需要转换的字段使用
+     * <br/>
+     * 计划按源类、目标类、拷贝特色、不需要拷贝的字段登记，只有第一次需要解析类型
+     */
+    protected final CopyPlan plan(Object target, Object src, CopyParam cp) {
+        CopyPlan plan = CopyPlanCache.getClassPlan(src.getClass(), target.getClass(), cp);
+        if (plan != null) {
+            return plan;
+        }
+        try {
+            TypeDefinition target_def = ClassUtil.parseType(target.getClass());
+            TypeDefinition src_def = ClassUtil.parseType(src.getClass());
+            plan = CopyPlanCache.getCopyPlan(target.getClass(), src.getClass(),
+                    CopyableFieldsCache.getSerialFieldDefinitions(target.getClass().getClassLoader(), target_def),
+                    CopyableFieldsCache.getSerialFieldDefinitions(src.getClass().getClassLoader(), src_def), cp);
+            CopyPlanCache.putClassPlan(plan);
+            return plan;
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 按字段名称找出计划中的字段对，结果保存在计划上，之后直接按下标取
+     *
+     * @param plan  拷贝计划
+     * @param names 生成的拷贝器中交给运行时复制的源字段名
+     * @return 与names下标一致的字段对，计划中没有的字段(例如不需要拷贝的字段)为null
+     */
+    protected final FieldSlot[] slots(CopyPlan plan, String[] names) {
+        FieldSlot[] slots = plan.compiled_slots;
+        if (slots == null) {
+            slots = new FieldSlot[names.length];
+            for (FieldSlot slot : plan.slots) {
+                String name = slot.src_fd.field.getName();
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i].equals(name)) {
+                        slots[i] = slot;
+                        break;
+                    }
+                }
+            }
+            plan.compiled_slots = slots;
+        }
+        return slots;
+    }
+
+    /**
+     * 按运行时的拷贝计划复制一个字段对
+     *
+     * @param target 目标对象
+     * @param src    源对象
+     * @param slot   字段对，为null时不复制
+     * @param cp     拷贝参数
+     */
+    protected final void copySlot(Object target, Object src, FieldSlot slot, CopyParam cp) {
+        if (slot != null) {
+            BeanConvertCache.copySlot(target, src, slot, cp);
+        }
+    }
+}
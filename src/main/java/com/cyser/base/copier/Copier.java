@@ -0,0 +1,22 @@
+package com.cyser.base.copier;
+
+import com.cyser.base.param.CopyParam;
+
+/**
+ * 拷贝器，负责把一个源对象的字段值复制到目标对象
+ * <br/>
+ * 每个拷贝器只服务于一对(源类,目标类)以及生成时的拷贝特色
+ */
+@FunctionalInterface
+public interface Copier {
+
+    /**
+     * 复制
+     *
+     * @param target 目标对象，不能为空
+     * @param src    源对象，不能为空
+     * @param cp     拷贝参数
+     * @return 目标对象
+     */
+    Object copy(Object target, Object src, CopyParam cp);
+}
@@ -0,0 +1,381 @@
+package com.cyser.base.copier;
+
+import com.cyser.base.bean.CopyPlan;
+import com.cyser.base.bean.FieldDefinition;
+import com.cyser.base.bean.FieldSlot;
+import com.cyser.base.cache.CopierDiskCache;
+import com.cyser.base.classloader.ByteBuddyClassLoader;
+import com.cyser.base.classloader.HiddenClassDefiner;
+import com.cyser.base.enums.CopyFeature;
+import com.cyser.base.enums.SlotTypeEnum;
+import com.cyser.base.param.CopyParam;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 拷贝器字节码生成器
+ * <br/>
+ * 为一个拷贝计划生成一个{@link GeneratedCopier}子类：
+ * <ul>
+ *     <li>两个字段类型可以直接赋值，并且字段是public的或者有public的getter/setter时，生成直接读写字段的字节码</li>
+ *     <li>其余字段(枚举、时间、字符串与基本类型互转、带范型的集合等)调用{@link GeneratedCopier#copySlot(int, Object, Object, CopyParam)}</li>
+ * </ul>
+ * 拷贝特色COPY_NULL_VALUE和FORCE_OVERWRITE在生成时就已经确定，所以拷贝器要按拷贝特色分别缓存
+ * <br/>
+ * Java 15+定义为隐藏类，否则每个拷贝类使用一个独立的类加载器，两种方式下拷贝器没有引用后类都可以卸载
+ */
+@Slf4j
+public class CopierGenerator {
+
+    private CopierGenerator() {
+    }
+
+    private static final String BASE_PACKAGE = "com.cyser.base.bytebuddy.copier";
+
+    private static final String SUPER_NAME = Type.getInternalName(GeneratedCopier.class);
+
+    private static final String SLOT_ARRAY_DESC = Type.getDescriptor(FieldSlot[].class);
+
+    private static final String COPY_DESC = Type.getMethodDescriptor(
+            Type.getType(Object.class), Type.getType(Object.class), Type.getType(Object.class), Type.getType(CopyParam.class));
+
+    private static final String COPY_SLOT_DESC = Type.getMethodDescriptor(
+            Type.VOID_TYPE, Type.INT_TYPE, Type.getType(Object.class), Type.getType(Object.class), Type.getType(CopyParam.class));
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    // copy方法的局部变量下标
+    private static final int VAR_TARGET = 1;
+    private static final int VAR_SRC = 2;
+    private static final int VAR_CP = 3;
+    private static final int VAR_TYPED_TARGET = 4;
+    private static final int VAR_TYPED_SRC = 5;
+    private static final int VAR_VALUE = 6;
+
+    /**
+     * 生成拷贝器
+     *
+     * @param plan 拷贝计划
+     * @return 拷贝器，如果当前类加载器环境下无法生成则返回null
+     */
+    public static Copier generate(CopyPlan plan) {
+        Class<?> src_clazz = plan.src_clazz;
+        Class<?> target_clazz = plan.target_clazz;
+        if (!isPublicClass(src_clazz) || !isPublicClass(target_clazz)) {
+            return null;
+        }
+        ClassLoader parent = findClassLoader(src_clazz, target_clazz);
+        if (parent == null) {
+            log.debug("类[" + src_clazz.getName() + "]与类[" + target_clazz.getName() + "]不在同一个类加载器可见范围内，不生成拷贝器。");
+            return null;
+        }
+        File cache_dir = CopierDiskCache.getDirectory();
+        // 使用磁盘缓存时类名必须由类结构决定，重启后才能找到同一个文件
+        String simple_name = src_clazz.getSimpleName() + "$$" + target_clazz.getSimpleName() + "$$Copier$"
+                + (cache_dir == null ? String.valueOf(COUNTER.incrementAndGet()) : CopierDiskCache.structureHash(plan));
+        // 优先定义为隐藏类，宿主类是能同时看到源类和目标类的那一个
+        Class<?> host = parent == target_clazz.getClassLoader() ? target_clazz
+                : parent == src_clazz.getClassLoader() ? src_clazz : null;
+        if (host != null && HiddenClassDefiner.isSupported()) {
+            String package_name = host.getPackage() == null ? "" : host.getPackage().getName();
+            String class_name = package_name.isEmpty() ? simple_name : package_name + "." + simple_name;
+            try {
+                return newCopier(defineHidden(host, class_name, plan, cache_dir != null), plan);
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                log.debug("无法定义隐藏类[" + class_name + "]，改用独立的类加载器: " + e.getMessage());
+            }
+        }
+        String class_name = BASE_PACKAGE + "." + simple_name;
+        ByteBuddyClassLoader classLoader = new ByteBuddyClassLoader(BASE_PACKAGE, cache_dir == null ? null : cache_dir.getPath(), parent);
+        try {
+            Class<?> loaded = cache_dir == null ? null : CopierDiskCache.load(classLoader, class_name);
+            if (loaded == null) {
+                byte[] bytes = generateBytes(class_name, plan);
+                loaded = classLoader.defineClass(class_name, bytes);
+                CopierDiskCache.save(class_name, bytes);
+            }
+            return newCopier(loaded, plan);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("生成拷贝器[" + class_name + "]失败，使用反射复制。", e);
+            return null;
+        }
+    }
+
+    /**
+     * 定义隐藏类，启用磁盘缓存时先读取缓存的字节码
+     */
+    private static Class<?> defineHidden(Class<?> host, String class_name, CopyPlan plan, boolean use_disk_cache) throws ReflectiveOperationException {
+        byte[] bytes = use_disk_cache ? CopierDiskCache.read(class_name) : null;
+        if (bytes != null) {
+            try {
+                return HiddenClassDefiner.define(host, bytes);
+            } catch (LinkageError e) {
+                log.warn("加载缓存的拷贝类[" + class_name + "]失败，重新生成: " + e.getMessage());
+                CopierDiskCache.delete(class_name);
+            }
+        }
+        bytes = generateBytes(class_name, plan);
+        Class<?> hidden = HiddenClassDefiner.define(host, bytes);
+        if (use_disk_cache) {
+            CopierDiskCache.save(class_name, bytes);
+        }
+        return hidden;
+    }
+
+    private static Copier newCopier(Class<?> clazz, CopyPlan plan) throws ReflectiveOperationException {
+        return (Copier) clazz.getConstructor(FieldSlot[].class).newInstance((Object) plan.slots);
+    }
+
+    private static byte[] generateBytes(String class_name, CopyPlan plan) {
+        String internal_name = class_name.replace('.', '/');
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // 局部变量在跳转汇合处不会再按具体类型使用
+                return "java/lang/Object";
+            }
+        };
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, internal_name, null, SUPER_NAME, null);
+
+        MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(" + SLOT_ARRAY_DESC + ")V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitVarInsn(Opcodes.ALOAD, 1);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, SUPER_NAME, "<init>", "(" + SLOT_ARRAY_DESC + ")V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        Class<?> src_clazz = plan.src_clazz;
+        Class<?> target_clazz = plan.target_clazz;
+        boolean copy_null = CopyFeature.COPY_NULL_VALUE.enabledIn(plan.features);
+        boolean force_overwrite = CopyFeature.FORCE_OVERWRITE.enabledIn(plan.features);
+        String src_name = Type.getInternalName(src_clazz);
+        String target_name = Type.getInternalName(target_clazz);
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "copy", COPY_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, VAR_TARGET);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, target_name);
+        mv.visitVarInsn(Opcodes.ASTORE, VAR_TYPED_TARGET);
+        mv.visitVarInsn(Opcodes.ALOAD, VAR_SRC);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, src_name);
+        mv.visitVarInsn(Opcodes.ASTORE, VAR_TYPED_SRC);
+        for (int i = 0; i < plan.slots.length; i++) {
+            FieldSlot slot = plan.slots[i];
+            FieldDefinition src_fd = slot.src_fd;
+            FieldDefinition dest_fd = slot.dest_fd;
+            Class<?> value_clazz = src_fd.field.getType();
+            Method getter = null, dest_getter = null, setter = null;
+            boolean direct = isDirectlyAssignable(slot);
+            if (direct) {
+                // 优先直接读写public字段，其次使用public的getter/setter
+                boolean src_accessible = isFieldAccessible(src_fd.field);
+                boolean dest_accessible = isFieldAccessible(dest_fd.field);
+                getter = src_accessible ? null : findReader(src_fd.field, src_clazz);
+                setter = dest_accessible ? null : findWriter(dest_fd.field, target_clazz);
+                dest_getter = dest_accessible || force_overwrite ? null : findReader(dest_fd.field, target_clazz);
+                direct = (src_accessible || getter != null)
+                        && (dest_accessible || setter != null)
+                        && (dest_accessible || force_overwrite || dest_getter != null);
+            }
+            if (!direct) {
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                pushInt(mv, i);
+                mv.visitVarInsn(Opcodes.ALOAD, VAR_TARGET);
+                mv.visitVarInsn(Opcodes.ALOAD, VAR_SRC);
+                mv.visitVarInsn(Opcodes.ALOAD, VAR_CP);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, SUPER_NAME, "copySlot", COPY_SLOT_DESC, false);
+                continue;
+            }
+            boolean dest_primitive = dest_fd.field.getType().isPrimitive();
+            if (dest_primitive && !force_overwrite) {
+                // 基本类型的目标字段永远有值，不强制覆盖时不需要复制
+                continue;
+            }
+            Type value_type = Type.getType(value_clazz);
+            Label skip = new Label();
+            mv.visitVarInsn(Opcodes.ALOAD, VAR_TYPED_SRC);
+            visitRead(mv, src_fd.field, getter);
+            mv.visitVarInsn(value_type.getOpcode(Opcodes.ISTORE), VAR_VALUE);
+            if (!copy_null && !value_clazz.isPrimitive()) {
+                mv.visitVarInsn(Opcodes.ALOAD, VAR_VALUE);
+                mv.visitJumpInsn(Opcodes.IFNULL, skip);
+            }
+            if (!force_overwrite) {
+                mv.visitVarInsn(Opcodes.ALOAD, VAR_TYPED_TARGET);
+                visitRead(mv, dest_fd.field, dest_getter);
+                mv.visitJumpInsn(Opcodes.IFNONNULL, skip);
+            }
+            mv.visitVarInsn(Opcodes.ALOAD, VAR_TYPED_TARGET);
+            mv.visitVarInsn(value_type.getOpcode(Opcodes.ILOAD), VAR_VALUE);
+            visitWiden(mv, value_clazz, dest_fd.field.getType());
+            visitWrite(mv, dest_fd.field, setter);
+            mv.visitLabel(skip);
+        }
+        mv.visitVarInsn(Opcodes.ALOAD, VAR_TARGET);
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * 判断字段对是否可以生成直接赋值的字节码
+     */
+    private static boolean isDirectlyAssignable(FieldSlot slot) {
+        if (slot.slot_type == SlotTypeEnum.PRIMITIVE) {
+            return true;
+        }
+        if (slot.slot_type != SlotTypeEnum.ASSIGN) {
+            return false;
+        }
+        Class<?> src_type = slot.src_fd.field.getType();
+        Class<?> dest_type = slot.dest_fd.field.getType();
+        if (src_type.isPrimitive() || dest_type.isPrimitive()) {
+            return src_type == dest_type;
+        }
+        return dest_type.isAssignableFrom(src_type);
+    }
+
+    /**
+     * 基本类型拓宽转换，例如int转long
+     */
+    private static void visitWiden(MethodVisitor mv, Class<?> src_type, Class<?> dest_type) {
+        if (src_type == dest_type || !src_type.isPrimitive()) {
+            return;
+        }
+        Type from = Type.getType(src_type);
+        Type to = Type.getType(dest_type);
+        if (from.getSort() == Type.LONG) {
+            mv.visitInsn(to.getSort() == Type.FLOAT ? Opcodes.L2F : Opcodes.L2D);
+        } else if (from.getSort() == Type.FLOAT) {
+            mv.visitInsn(Opcodes.F2D);
+        } else if (to.getSort() == Type.LONG) {
+            mv.visitInsn(Opcodes.I2L);
+        } else if (to.getSort() == Type.FLOAT) {
+            mv.visitInsn(Opcodes.I2F);
+        } else if (to.getSort() == Type.DOUBLE) {
+            mv.visitInsn(Opcodes.I2D);
+        }
+    }
+
+    private static void visitRead(MethodVisitor mv, Field field, Method getter) {
+        if (getter != null) {
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(getter.getDeclaringClass()), getter.getName(), Type.getMethodDescriptor(getter), false);
+        } else {
+            mv.visitFieldInsn(Opcodes.GETFIELD, Type.getInternalName(field.getDeclaringClass()), field.getName(), Type.getDescriptor(field.getType()));
+        }
+    }
+
+    private static void visitWrite(MethodVisitor mv, Field field, Method setter) {
+        if (setter != null) {
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(setter.getDeclaringClass()), setter.getName(), Type.getMethodDescriptor(setter), false);
+            Class<?> return_type = setter.getReturnType();
+            if (return_type != void.class) {
+                mv.visitInsn(return_type == long.class || return_type == double.class ? Opcodes.POP2 : Opcodes.POP);
+            }
+        } else {
+            mv.visitFieldInsn(Opcodes.PUTFIELD, Type.getInternalName(field.getDeclaringClass()), field.getName(), Type.getDescriptor(field.getType()));
+        }
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    /**
+     * 字段本身是否可以被生成的类直接读写
+     */
+    private static boolean isFieldAccessible(Field field) {
+        return Modifier.isPublic(field.getModifiers()) && isPublicClass(field.getDeclaringClass());
+    }
+
+    /**
+     * 查找字段对应的public getter，返回类型必须与字段类型一致
+     */
+    private static Method findReader(Field field, Class<?> owner) {
+        String name = StringUtils.capitalize(field.getName());
+        Method method = findMethod(owner, "get" + name);
+        if (method == null && field.getType() == boolean.class) {
+            method = findMethod(owner, "is" + name);
+        }
+        if (method == null || method.getReturnType() != field.getType()) {
+            return null;
+        }
+        return method;
+    }
+
+    /**
+     * 查找字段对应的public setter，参数类型必须与字段类型一致
+     */
+    private static Method findWriter(Field field, Class<?> owner) {
+        return findMethod(owner, "set" + StringUtils.capitalize(field.getName()), field.getType());
+    }
+
+    private static Method findMethod(Class<?> owner, String name, Class<?>... parameter_types) {
+        try {
+            Method method = owner.getMethod(name, parameter_types);
+            if (Modifier.isStatic(method.getModifiers()) || !isPublicClass(method.getDeclaringClass())) {
+                return null;
+            }
+            return method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static boolean isPublicClass(Class<?> clazz) {
+        while (clazz != null) {
+            if (!Modifier.isPublic(clazz.getModifiers())) {
+                return false;
+            }
+            clazz = clazz.getEnclosingClass();
+        }
+        return true;
+    }
+
+    /**
+     * 找到一个可以同时看到源类、目标类和{@link GeneratedCopier}的类加载器，作为生成类的父加载器
+     */
+    private static ClassLoader findClassLoader(Class<?> src_clazz, Class<?> target_clazz) {
+        ClassLoader[] candidates = {target_clazz.getClassLoader(), src_clazz.getClassLoader(), GeneratedCopier.class.getClassLoader()};
+        for (ClassLoader candidate : candidates) {
+            if (candidate != null
+                    && isVisible(candidate, src_clazz)
+                    && isVisible(candidate, target_clazz)
+                    && isVisible(candidate, GeneratedCopier.class)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isVisible(ClassLoader classLoader, Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, classLoader) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
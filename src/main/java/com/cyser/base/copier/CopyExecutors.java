@@ -0,0 +1,85 @@
+package com.cyser.base.copier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步复制使用的线程池
+ * <br/>
+ * Java 21+使用虚拟线程，每个任务一个线程；否则使用有界的平台线程池，队列满时由提交任务的线程自己执行，不会无限堆积。
+ * 项目按Java 8编译，虚拟线程通过反射创建
+ */
+@Slf4j
+public class CopyExecutors {
+
+    private CopyExecutors() {
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor()，Java 21+
+     */
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+    /**
+     * 平台线程池的队列容量
+     */
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    static {
+        Method method = null;
+        try {
+            method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            log.debug("当前JVM不支持虚拟线程，异步复制使用平台线程池。");
+        }
+        NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = method;
+    }
+
+    /**
+     * 当前JVM是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * 创建默认的异步复制线程池：支持时使用虚拟线程，否则使用平台线程池
+     */
+    public static ExecutorService newDefaultExecutor() {
+        if (isVirtualThreadSupported()) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.warn("创建虚拟线程池失败，异步复制使用平台线程池: " + e.getMessage());
+            }
+        }
+        return newPlatformExecutor(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 创建有界的平台线程池，线程为守护线程，空闲时退出
+     *
+     * @param threads 线程数
+     */
+    public static ExecutorService newPlatformExecutor(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("线程数必须大于0！");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+            Thread thread = new Thread(r, "easy-copy-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
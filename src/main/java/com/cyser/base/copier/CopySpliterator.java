@@ -0,0 +1,62 @@
+package com.cyser.base.copier;
+
+import com.cyser.base.param.CopyParam;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 逐个复制源Spliterator元素的Spliterator
+ * <br/>
+ * 只有消费到某个元素时才复制，内存占用与元素数量无关。特征值沿用源Spliterator(去掉SORTED、DISTINCT)，
+ * 下游toArray、parallel仍然可以按SIZED、SUBSIZED预分配和拆分；拆分出的每一段使用各自的{@link ElementCopier}
+ */
+public class CopySpliterator<D> implements Spliterator<D> {
+
+    private final Spliterator<?> source;
+
+    private final Class<D> dest_clazz;
+
+    private final CopyParam cp;
+
+    private final ElementCopier<D> copier;
+
+    /**
+     * @param source     源Spliterator
+     * @param dest_clazz 目标类
+     * @param cp         拷贝参数，为null时使用默认参数
+     */
+    public CopySpliterator(Spliterator<?> source, Class<D> dest_clazz, CopyParam cp) {
+        this.source = source;
+        this.dest_clazz = dest_clazz;
+        this.cp = cp;
+        this.copier = new ElementCopier<>(dest_clazz, cp);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super D> action) {
+        return source.tryAdvance((Consumer<Object>) element -> action.accept(copier.copy(element)));
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super D> action) {
+        source.forEachRemaining((Consumer<Object>) element -> action.accept(copier.copy(element)));
+    }
+
+    @Override
+    public Spliterator<D> trySplit() {
+        Spliterator<?> prefix = source.trySplit();
+        return prefix == null ? null : new CopySpliterator<>(prefix, dest_clazz, cp);
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        // 复制后的元素不再有序、去重的保证
+        return source.characteristics() & ~(SORTED | DISTINCT);
+    }
+}
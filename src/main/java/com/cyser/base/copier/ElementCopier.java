@@ -0,0 +1,121 @@
+package com.cyser.base.copier;
+
+import com.cyser.base.bean.CopyPlan;
+import com.cyser.base.bean.FieldDefinition;
+import com.cyser.base.bean.TypeDefinition;
+import com.cyser.base.cache.BeanConvertCache;
+import com.cyser.base.cache.CompiledCopierCache;
+import com.cyser.base.cache.CopyPlanCache;
+import com.cyser.base.cache.CopyableFieldsCache;
+import com.cyser.base.enums.DataTypeEnum;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.utils.ClassUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 批量复制时的元素拷贝器
+ * <br/>
+ * 目标类和拷贝参数固定，创建时解析一次目标类；源类与上一个元素相同时直接复用拷贝计划，
+ * 不再逐个元素解析类型、查找可序列化字段和拷贝计划
+ * <br/>
+ * 非线程安全，每个线程使用各自的实例
+ */
+@Slf4j
+public class ElementCopier<D> {
+
+    private final Class<D> dest_clazz;
+
+    private final CopyParam cp;
+
+    private final TypeDefinition dest_def;
+
+    private final Supplier<Object> instantiator;
+
+    /**
+     * 上一个元素的源类及其解析结果
+     */
+    private Class<?> src_clazz;
+
+    private CopyPlan plan;
+
+    private CompiledCopier compiled_copier;
+
+    /**
+     * @param dest_clazz 目标类
+     * @param cp         拷贝参数，为null时使用默认参数
+     */
+    public ElementCopier(Class<D> dest_clazz, CopyParam cp) {
+        this.dest_clazz = dest_clazz;
+        this.cp = cp != null ? cp : new CopyParam();
+        try {
+            this.dest_def = ClassUtil.parseType(dest_clazz);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        if (dest_def.getData_type() != DataTypeEnum.Entity_Class) {
+            throw new IllegalArgumentException("批量复制只支持实体类（不包括带范型的实体类），目标类[" + dest_clazz.getName() + "]不支持！");
+        }
+        if (!dest_def.isSerializable) {
+            throw new IllegalArgumentException("检查类[" + dest_clazz.getName() + "]是否是final、static、abstract,停止复制值！");
+        }
+        this.instantiator = ClassUtil.getInstantiator(dest_clazz);
+    }
+
+    /**
+     * 创建目标对象并复制
+     *
+     * @param src 源对象
+     * @return 目标对象，源对象为null时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public D copy(Object src) {
+        if (src == null) {
+            return null;
+        }
+        Class<?> clazz = src.getClass();
+        if (clazz != src_clazz) {
+            resolve(clazz);
+        }
+        Object target = instantiator.get();
+        if (compiled_copier != null) {
+            return (D) compiled_copier.copy(target, src, cp);
+        }
+        if (plan == null) {
+            return (D) target;
+        }
+        return (D) BeanConvertCache.copyByPlan(target, src, plan, cp);
+    }
+
+    private void resolve(Class<?> clazz) {
+        compiled_copier = CopyConfig.isCompiledCopierEnabled() && CompiledCopier.supports(cp) ? CompiledCopierCache.getCopier(clazz, dest_clazz) : null;
+        plan = null;
+        if (compiled_copier == null) {
+            try {
+                TypeDefinition src_def = ClassUtil.parseType(clazz);
+                if (src_def.getData_type() != DataTypeEnum.Entity_Class) {
+                    throw new IllegalArgumentException("批量复制只支持实体类（不包括带范型的实体类），源类[" + clazz.getName() + "]不支持！");
+                }
+                if (!src_def.isSerializable) {
+                    throw new IllegalArgumentException("检查类[" + clazz.getName() + "]是否是final、static、abstract,停止复制值！");
+                }
+                Map<String, FieldDefinition> serial_dest_fd_map = CopyableFieldsCache.getSerialFieldDefinitions(dest_clazz.getClassLoader(), dest_def);
+                if (serial_dest_fd_map.size() == 0) {
+                    throw new IllegalArgumentException("目标类[" + dest_clazz.getName() + "]未包含任何可序列化字段.");
+                }
+                Map<String, FieldDefinition> serial_src_fd_map = CopyableFieldsCache.getSerialFieldDefinitions(clazz.getClassLoader(), src_def);
+                if (serial_src_fd_map.size() == 0) {
+                    log.warn("源类[" + clazz.getName() + "]的可序列化字段为空，只创建目标对象！");
+                } else {
+                    plan = CopyPlanCache.getCopyPlan(dest_clazz, clazz, serial_dest_fd_map, serial_src_fd_map, cp);
+                }
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        src_clazz = clazz;
+    }
+}
@@ -0,0 +1,34 @@
+package com.cyser.base.copier;
+
+import com.cyser.base.bean.FieldSlot;
+import com.cyser.base.cache.BeanConvertCache;
+import com.cyser.base.param.CopyParam;
+
+/**
+ * 运行时生成的拷贝器的父类
+ * <br/>
+ * 生成的子类对可以直接读写的字段直接赋值，其余需要转换的字段交给{@link #copySlot(int, Object, Object, CopyParam)}按反射方式复制
+ */
+public abstract class GeneratedCopier implements Copier {
+
+    /**
+     * 拷贝计划中的字段对
+     */
+    protected final FieldSlot[] slots;
+
+    protected GeneratedCopier(FieldSlot[] slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * 按反射方式复制第index对字段
+     *
+     * @param index  字段对下标
+     * @param target 目标对象
+     * @param src    源对象
+     * @param cp     拷贝参数
+     */
+    protected final void copySlot(int index, Object target, Object src, CopyParam cp) {
+        BeanConvertCache.copySlot(target, src, slots[index], cp);
+    }
+}
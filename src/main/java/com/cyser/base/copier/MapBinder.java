@@ -0,0 +1,401 @@
+package com.cyser.base.copier;
+
+import com.cyser.base.bean.ClassMetadata;
+import com.cyser.base.bean.FieldDefinition;
+import com.cyser.base.bean.FieldNameIndex;
+import com.cyser.base.bean.PropertyBinding;
+import com.cyser.base.bean.TypeDefinition;
+import com.cyser.base.cache.ClassMetadataCache;
+import com.cyser.base.cache.CollectionFactoryCache;
+import com.cyser.base.cache.CopyableFieldsCache;
+import com.cyser.base.cache.FieldNameIndexCache;
+import com.cyser.base.cache.TimeConvertCache;
+import com.cyser.base.enums.CopyFeature;
+import com.cyser.base.enums.DataTypeEnum;
+import com.cyser.base.function.CollectionFactory;
+import com.cyser.base.function.TernaryFunction;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.base.utils.ClassUtil;
+import com.google.common.collect.Maps;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.EnumUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 实体类与Map&lt;String,Object&gt;互转
+ * <br/>
+ * 直接读写缓存的字段定义，不经过JSON序列化。值的转换沿用复制时的规则：基本类型、封装类型与字符串互转，
+ * 时间类型见{@link TimeConvertCache}，枚举按名称转换；Map中的Map转为嵌套的实体类，集合中的Map转为集合元素类型的实体类
+ * <br/>
+ * 嵌套的实体类可以展开为点分隔的键，例如address.city
+ * <br/>
+ * 拷贝参数关闭{@link CopyFeature#CASE_SENSITIVE}或者启用{@link CopyFeature#IGNORE_UNDERSCORE}时，Map的键按{@link FieldNameIndex}匹配字段，
+ * 例如USER_NAME、user-name都可以绑定到userName
+ */
+public class MapBinder {
+
+    private MapBinder() {
+    }
+
+    /**
+     * 实体类转Map
+     *
+     * @param bean    实体类对象
+     * @param flatten 为true时嵌套的实体类展开为点分隔的键，否则转为嵌套的Map
+     * @param cp      拷贝参数，为null时使用默认参数；不复制空值时不放入值为null的键
+     * @return 按字段顺序排列的Map
+     */
+    public static Map<String, Object> toMap(Object bean, boolean flatten, CopyParam cp) {
+        CopyParam _cp = cp != null ? cp : new CopyParam();
+        PropertyBinding[] bindings = getBindings(bean.getClass());
+        Map<String, Object> map = Maps.newLinkedHashMapWithExpectedSize(bindings.length);
+        write(map, bean, bindings, flatten, _cp);
+        return map;
+    }
+
+    private static void write(Map<String, Object> map, Object bean, PropertyBinding[] bindings, boolean flatten, CopyParam cp) {
+        boolean copy_null = cp.copyFeature.isEnabled(CopyFeature.COPY_NULL_VALUE);
+        for (PropertyBinding binding : bindings) {
+            FieldDefinition fd = binding.fd;
+            String name = fd.field.getName();
+            if (cp.exclude_fields != null && cp.exclude_fields.contains(name)) {
+                continue;
+            }
+            Object value = fd.accessor.get(bean);
+            String key = flatten ? binding.path : name;
+            if (value == null) {
+                if (copy_null) {
+                    map.put(key, null);
+                }
+            } else if (!isNested(fd)) {
+                map.put(key, value);
+            } else if (!flatten) {
+                map.put(key, toMap(value, false, cp));
+            } else if (value.getClass() == fd.runtime_class) {
+                write(map, value, getNestedBindings(binding), true, cp);
+            } else {
+                // 字段值是声明类型的子类，按实际类型展开
+                write(map, value, createBindings(value.getClass(), binding.path), true, cp);
+            }
+        }
+    }
+
+    /**
+     * Map转实体类
+     *
+     * @param map   键为字段名称，嵌套的实体类可以是嵌套的Map，也可以是点分隔的键
+     * @param clazz 实体类
+     * @param cp    拷贝参数，为null时使用默认参数
+     * @return 实体类对象
+     */
+    @SuppressWarnings("unchecked")
+    public static <D> D fromMap(Map<String, ?> map, Class<D> clazz, CopyParam cp) {
+        CopyParam _cp = cp != null ? cp : new CopyParam();
+        D bean = (D) ClassUtil.getInstantiator(clazz).get();
+        if (_cp.copyFeature.isEnabled(CopyFeature.CASE_SENSITIVE) && !_cp.copyFeature.isEnabled(CopyFeature.IGNORE_UNDERSCORE)) {
+            read(bean, map, getBindings(clazz), nestedPrefixes(map), _cp);
+        } else {
+            readByIndex(bean, map, getBindings(clazz), _cp.copyFeature.getCopyFeatures(), _cp);
+        }
+        return bean;
+    }
+
+    /**
+     * 点分隔的键的所有前缀，例如a.b.c对应a、a.b；没有点分隔的键时返回null
+     */
+    private static Set<String> nestedPrefixes(Map<String, ?> map) {
+        Set<String> prefixes = null;
+        for (String key : map.keySet()) {
+            int index = key == null ? -1 : key.indexOf('.');
+            while (index > 0) {
+                if (prefixes == null) {
+                    prefixes = new HashSet<>();
+                }
+                prefixes.add(key.substring(0, index));
+                index = key.indexOf('.', index + 1);
+            }
+        }
+        return prefixes;
+    }
+
+    private static void read(Object bean, Map<String, ?> map, PropertyBinding[] bindings, Set<String> prefixes, CopyParam cp) {
+        boolean copy_null = cp.copyFeature.isEnabled(CopyFeature.COPY_NULL_VALUE);
+        for (PropertyBinding binding : bindings) {
+            FieldDefinition fd = binding.fd;
+            if (cp.exclude_fields != null && cp.exclude_fields.contains(fd.field.getName())) {
+                continue;
+            }
+            Object value = map.get(binding.path);
+            if (value != null) {
+                fd.accessor.set(bean, convert(value, fd, cp));
+            } else if (prefixes != null && prefixes.contains(binding.path) && isNested(fd)) {
+                // 点分隔的键，展开到嵌套的实体类
+                Object nested = fd.accessor.get(bean);
+                if (nested == null) {
+                    nested = ClassUtil.getInstantiator(fd.runtime_class).get();
+                }
+                read(nested, map, getNestedBindings(binding), prefixes, cp);
+                fd.accessor.set(bean, nested);
+            } else if (copy_null && !fd.isPrimitive && map.containsKey(binding.path)) {
+                fd.accessor.set(bean, null);
+            }
+        }
+    }
+
+    /**
+     * 字段名称不区分大小写或者忽略下划线时，遍历Map的键，按字段名称索引逐段查找点分隔的路径
+     */
+    private static void readByIndex(Object bean, Map<String, ?> map, PropertyBinding[] bindings, int features, CopyParam cp) {
+        boolean copy_null = cp.copyFeature.isEnabled(CopyFeature.COPY_NULL_VALUE);
+        FieldNameIndex root_index = FieldNameIndexCache.getIndex(serialFieldDefinitions(bean.getClass()), features);
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            String key = entry.getKey();
+            if (key == null) {
+                continue;
+            }
+            Object owner = bean;
+            PropertyBinding[] owner_bindings = bindings;
+            FieldNameIndex index = root_index;
+            int start = 0;
+            while (true) {
+                int dot = key.indexOf('.', start);
+                int position = index.indexOf(key, start, dot < 0 ? key.length() : dot);
+                if (position < 0) {
+                    break;
+                }
+                PropertyBinding binding = owner_bindings[position];
+                FieldDefinition fd = binding.fd;
+                if (cp.exclude_fields != null && cp.exclude_fields.contains(fd.field.getName())) {
+                    break;
+                }
+                if (dot < 0) {
+                    Object value = entry.getValue();
+                    if (value != null) {
+                        fd.accessor.set(owner, convert(value, fd, cp));
+                    } else if (copy_null && !fd.isPrimitive) {
+                        fd.accessor.set(owner, null);
+                    }
+                    break;
+                }
+                if (!isNested(fd)) {
+                    break;
+                }
+                Object nested = fd.accessor.get(owner);
+                if (nested == null) {
+                    nested = ClassUtil.getInstantiator(fd.runtime_class).get();
+                    fd.accessor.set(owner, nested);
+                }
+                owner = nested;
+                owner_bindings = getNestedBindings(binding);
+                index = FieldNameIndexCache.getIndex(serialFieldDefinitions(fd.runtime_class), features);
+                start = dot + 1;
+            }
+        }
+    }
+
+    /**
+     * 把Map中的值转为字段类型
+     */
+    @SuppressWarnings("unchecked")
+    private static Object convert(Object value, FieldDefinition fd, CopyParam cp) {
+        Class type = fd.runtime_class;
+        if (fd.isTime) {
+            return convertTime(value, fd);
+        }
+        if (fd.getData_type() == DataTypeEnum.Collection && value instanceof Collection) {
+            return convertCollection((Collection) value, fd, cp);
+        }
+        if (type.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Map && isNested(fd)) {
+            return fromMap((Map<String, ?>) value, type, cp);
+        }
+        if (type == String.class || ClassUtils.isPrimitiveOrWrapper(type)) {
+            Object result = convertScalar(value, type);
+            if (result != null) {
+                return result;
+            }
+        } else if (type.isEnum() && value instanceof String) {
+            Object result = EnumUtils.getEnum(type, (String) value);
+            if (result != null) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("字段[" + fd.field.getName() + "]的类型为[" + type.getName() + "]，无法赋值为[" + value.getClass().getName() + "]！");
+    }
+
+    /**
+     * 基本类型、封装类型与字符串互转，不支持时返回null
+     */
+    private static Object convertScalar(Object value, Class type) {
+        if (type == String.class) {
+            return String.valueOf(value);
+        }
+        if (value instanceof String) {
+            String str = (String) value;
+            if (type == Character.class) {
+                if (str.length() != 1) {
+                    throw new IllegalArgumentException("值" + str + "数据长度不是一，无法给char或者Character类型赋值!");
+                }
+                return str.charAt(0);
+            }
+            return BeanUtil.parsePrimitiveOrWrapperOrStringType(str.trim(), type);
+        }
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            if (type == Long.class) {
+                return number.longValue();
+            } else if (type == Integer.class) {
+                return number.intValue();
+            } else if (type == Double.class) {
+                return number.doubleValue();
+            } else if (type == Float.class) {
+                return number.floatValue();
+            } else if (type == Short.class) {
+                return number.shortValue();
+            } else if (type == Byte.class) {
+                return number.byteValue();
+            } else if (type == Boolean.class) {
+                // 数据库中常用0、1表示布尔值
+                return number.intValue() != 0;
+            }
+        }
+        return null;
+    }
+
+    private static Object convertTime(Object value, FieldDefinition fd) {
+        Class type = fd.runtime_class;
+        if (type.isInstance(value) && !(value instanceof String)) {
+            return value;
+        }
+        Class src_clazz;
+        if (value instanceof Date) {
+            src_clazz = Date.class;
+        } else if (value instanceof Number) {
+            src_clazz = Long.class;
+            value = ((Number) value).longValue();
+        } else if (value instanceof String || value instanceof LocalDate || value instanceof LocalDateTime) {
+            src_clazz = value.getClass();
+        } else {
+            throw new IllegalArgumentException("字段[" + fd.field.getName() + "]是时间类型，无法赋值为[" + value.getClass().getName() + "]！");
+        }
+        if (src_clazz == String.class) {
+            if (type == String.class) {
+                return value;
+            }
+            if (fd.timeFormat == null) {
+                throw new IllegalArgumentException("字段[" + fd.field.getName() + "]未指定@TimeFormat，无法解析日期字符串[" + value + "]！");
+            }
+        }
+        TernaryFunction<FieldDefinition, FieldDefinition, Object, Object> method = TimeConvertCache.time_method_table.get(type, src_clazz);
+        if (method == null) {
+            throw new IllegalArgumentException("字段[" + fd.field.getName() + "]的类型为[" + type.getName() + "]，无法赋值为[" + src_clazz.getName() + "]！");
+        }
+        // 没有源字段，时间格式都取自目标字段
+        return method.apply(fd, fd, value);
+    }
+
+    /**
+     * 集合元素是Map而字段元素类型是实体类时转为实体类，元素类型与集合类型都符合时直接使用原集合
+     */
+    @SuppressWarnings("unchecked")
+    private static Object convertCollection(Collection value, FieldDefinition fd, CopyParam cp) {
+        TypeDefinition def;
+        try {
+            def = ClassUtil.getRuntimeTypeDefinition(fd);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        Class element_clazz = def.isGeneric && def.parameter_type_Defines != null ? def.parameter_type_Defines[0].runtime_class : Object.class;
+        boolean assignable = fd.runtime_class.isInstance(value);
+        if (assignable) {
+            for (Object element : value) {
+                if (element != null && !element_clazz.isInstance(element)) {
+                    assignable = false;
+                    break;
+                }
+            }
+            if (assignable) {
+                return value;
+            }
+        }
+        boolean nested = element_clazz.getClassLoader() != null && DataTypeEnum.valueOf(element_clazz) == DataTypeEnum.Entity_Class;
+        CollectionFactory<Object> factory = CollectionFactoryCache.getFactory(fd.runtime_class);
+        Object container = factory.newContainer(value.size(), element_clazz);
+        for (Object element : value) {
+            if (element == null || element_clazz.isInstance(element)) {
+                factory.add(container, element);
+            } else if (nested && element instanceof Map) {
+                factory.add(container, fromMap((Map<String, ?>) element, element_clazz, cp));
+            } else {
+                Object result = element_clazz == String.class || ClassUtils.isPrimitiveOrWrapper(element_clazz) ? convertScalar(element, element_clazz) : null;
+                if (result == null) {
+                    throw new IllegalArgumentException("字段[" + fd.field.getName() + "]的元素类型为[" + element_clazz.getName() + "]，无法赋值为[" + element.getClass().getName() + "]！");
+                }
+                factory.add(container, result);
+            }
+        }
+        return factory.build(container);
+    }
+
+    /**
+     * 字段是否是可以展开的实体类：不包括时间类型和JDK中的类(例如BigDecimal)
+     */
+    private static boolean isNested(FieldDefinition fd) {
+        return fd.getData_type() == DataTypeEnum.Entity_Class && !fd.isTime && fd.runtime_class.getClassLoader() != null;
+    }
+
+    private static PropertyBinding[] getBindings(Class clazz) {
+        ClassMetadata metadata = ClassMetadataCache.get(clazz);
+        PropertyBinding[] bindings = metadata.property_bindings;
+        if (bindings == null) {
+            bindings = createBindings(clazz, null);
+            metadata.property_bindings = bindings;
+        }
+        return bindings;
+    }
+
+    private static PropertyBinding[] getNestedBindings(PropertyBinding binding) {
+        PropertyBinding[] nested = binding.nested;
+        if (nested == null) {
+            nested = createBindings(binding.fd.runtime_class, binding.path);
+            binding.nested = nested;
+        }
+        return nested;
+    }
+
+    private static Map<String, FieldDefinition> serialFieldDefinitions(Class clazz) {
+        try {
+            TypeDefinition type_def = ClassUtil.parseType(clazz);
+            if (type_def.getData_type() != DataTypeEnum.Entity_Class) {
+                throw new IllegalArgumentException("只支持实体类（不包括带范型的实体类）与Map互转，类[" + clazz.getName() + "]不支持！");
+            }
+            return CopyableFieldsCache.getSerialFieldDefinitions(clazz.getClassLoader(), type_def);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 绑定的顺序与字段Map的迭代顺序一致，{@link FieldNameIndex}返回的位置就是绑定的下标
+     */
+    private static PropertyBinding[] createBindings(Class clazz, String prefix) {
+        Map<String, FieldDefinition> serial_fd_map = serialFieldDefinitions(clazz);
+        PropertyBinding[] bindings = new PropertyBinding[serial_fd_map.size()];
+        int i = 0;
+        for (FieldDefinition fd : serial_fd_map.values()) {
+            String name = fd.field.getName();
+            bindings[i++] = new PropertyBinding(fd, prefix == null ? name : prefix + "." + name);
+        }
+        return bindings;
+    }
+}
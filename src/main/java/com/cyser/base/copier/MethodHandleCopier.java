@@ -0,0 +1,187 @@
+package com.cyser.base.copier;
+
+import com.cyser.base.bean.CopyPlan;
+import com.cyser.base.bean.FieldDefinition;
+import com.cyser.base.bean.FieldSlot;
+import com.cyser.base.cache.BeanConvertCache;
+import com.cyser.base.enums.CopyFeature;
+import com.cyser.base.enums.SlotTypeEnum;
+import com.cyser.base.param.CopyParam;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Objects;
+
+/**
+ * 由MethodHandle组合而成的拷贝器
+ * <br/>
+ * 每个字段对组合成一个(target,src,cp)的MethodHandle：可以直接赋值的字段为 读取源字段 -> 写入目标字段，
+ * 不复制空值、不强制覆盖时先对读出的值和目标字段套guardWithTest，再用源字段的读取过滤src参数，源字段只读取一次；其余字段绑定到{@link BeanConvertCache#copySlot}。
+ * 所有字段对用foldArguments依次串起来，整个拷贝计划只调用一次invokeExact
+ * <br/>
+ * 与{@link CopierGenerator}相比不需要定义新类，适合禁止运行时定义类的环境。
+ * 和字节码拷贝器一样，拷贝特色COPY_NULL_VALUE和FORCE_OVERWRITE在组合时就已经确定
+ */
+@Slf4j
+public class MethodHandleCopier implements Copier {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * (target,src,cp)void
+     */
+    private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class, CopyParam.class);
+
+    private static final MethodHandle COPY_SLOT;
+
+    private static final MethodHandle NOP;
+
+    private static final MethodHandle IS_NULL;
+
+    private static final MethodHandle NON_NULL;
+
+    static {
+        try {
+            COPY_SLOT = LOOKUP.findStatic(BeanConvertCache.class, "copySlot",
+                    MethodType.methodType(void.class, Object.class, Object.class, FieldSlot.class, CopyParam.class));
+            NOP = LOOKUP.findStatic(MethodHandleCopier.class, "nop", MethodType.methodType(void.class));
+            IS_NULL = LOOKUP.findStatic(Objects.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+            NON_NULL = LOOKUP.findStatic(Objects.class, "nonNull", MethodType.methodType(boolean.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static void nop() {
+    }
+
+    /**
+     * 整个拷贝计划组合成的MethodHandle，类型为(Object,Object,CopyParam)void
+     */
+    private final MethodHandle handle;
+
+    private MethodHandleCopier(MethodHandle handle) {
+        this.handle = handle;
+    }
+
+    @Override
+    public Object copy(Object target, Object src, CopyParam cp) {
+        try {
+            handle.invokeExact(target, src, cp);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+        return target;
+    }
+
+    /**
+     * 为拷贝计划组合拷贝器
+     *
+     * @param plan 拷贝计划
+     * @return 拷贝器，无法组合时返回null
+     */
+    public static Copier create(CopyPlan plan) {
+        boolean copy_null = CopyFeature.COPY_NULL_VALUE.enabledIn(plan.features);
+        boolean force_overwrite = CopyFeature.FORCE_OVERWRITE.enabledIn(plan.features);
+        try {
+            MethodHandle chain = MethodHandles.dropArguments(NOP, 0, COPY_TYPE.parameterList());
+            // 从后往前折叠，执行时按字段顺序复制
+            for (int i = plan.slots.length - 1; i >= 0; i--) {
+                MethodHandle slot_handle = slotHandle(plan.slots[i], copy_null, force_overwrite);
+                if (slot_handle != null) {
+                    chain = MethodHandles.foldArguments(chain, slot_handle);
+                }
+            }
+            return new MethodHandleCopier(chain);
+        } catch (RuntimeException e) {
+            log.warn("组合拷贝器[" + plan.src_clazz.getName() + " -> " + plan.target_clazz.getName() + "]失败，使用反射复制。", e);
+            return null;
+        }
+    }
+
+    /**
+     * 一个字段对的MethodHandle，类型为(Object,Object,CopyParam)void；不需要复制时返回null
+     */
+    private static MethodHandle slotHandle(FieldSlot slot, boolean copy_null, boolean force_overwrite) {
+        Class<?> dest_type = slot.dest_fd.field.getType();
+        if (dest_type.isPrimitive() && !force_overwrite && isDirectlyAssignable(slot)) {
+            // 基本类型的目标字段永远有值，不强制覆盖时不需要复制
+            return null;
+        }
+        MethodHandle getter = isDirectlyAssignable(slot) ? getter(slot.src_fd) : null;
+        MethodHandle setter = getter == null ? null : setter(slot.dest_fd);
+        MethodHandle dest_getter = setter == null || force_overwrite || dest_type.isPrimitive() ? null : getter(slot.dest_fd);
+        if (setter == null || (!force_overwrite && !dest_type.isPrimitive() && dest_getter == null)) {
+            return MethodHandles.insertArguments(COPY_SLOT, 2, slot);
+        }
+        // (Object target, dest_type value)void: setter(target, value)，判断都针对已经读出的值
+        MethodHandle write = setter.asType(MethodType.methodType(void.class, Object.class, dest_type));
+        MethodHandle skip = MethodHandles.dropArguments(NOP, 0, Object.class, dest_type);
+        if (!force_overwrite) {
+            // 目标字段为null时才复制
+            MethodHandle test = MethodHandles.filterReturnValue(dest_getter.asType(MethodType.methodType(Object.class, Object.class)), IS_NULL);
+            write = MethodHandles.guardWithTest(MethodHandles.dropArguments(test, 1, dest_type), write, skip);
+        }
+        if (!copy_null && !slot.src_fd.field.getType().isPrimitive()) {
+            // 源字段不为null时才复制
+            MethodHandle test = NON_NULL.asType(MethodType.methodType(boolean.class, dest_type));
+            write = MethodHandles.guardWithTest(MethodHandles.dropArguments(test, 0, Object.class), write, skip);
+        }
+        // (Object target, Object src)void: 源字段只读取一次，基本类型在asType时拓宽
+        write = MethodHandles.filterArguments(write, 1, getter.asType(MethodType.methodType(dest_type, Object.class)));
+        return MethodHandles.dropArguments(write, 2, CopyParam.class);
+    }
+
+    /**
+     * 与{@link CopierGenerator}一致，只有基本类型之间以及引用类型之间可以直接赋值的字段对直接读写
+     */
+    private static boolean isDirectlyAssignable(FieldSlot slot) {
+        if (slot.slot_type == SlotTypeEnum.PRIMITIVE) {
+            return true;
+        }
+        if (slot.slot_type != SlotTypeEnum.ASSIGN) {
+            return false;
+        }
+        Class<?> src_type = slot.src_fd.field.getType();
+        Class<?> dest_type = slot.dest_fd.field.getType();
+        if (src_type.isPrimitive() || dest_type.isPrimitive()) {
+            return src_type == dest_type;
+        }
+        return dest_type.isAssignableFrom(src_type);
+    }
+
+    private static MethodHandle getter(FieldDefinition fd) {
+        try {
+            Field field = accessible(fd.field);
+            return field == null ? null : LOOKUP.unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle setter(FieldDefinition fd) {
+        try {
+            Field field = accessible(fd.field);
+            return field == null ? null : LOOKUP.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 模块不开放时setAccessible会抛出InaccessibleObjectException(Java 9+)，这时交给copySlot
+     */
+    private static Field accessible(Field field) {
+        try {
+            field.setAccessible(true);
+            return field;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
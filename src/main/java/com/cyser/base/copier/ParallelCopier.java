@@ -0,0 +1,101 @@
+package com.cyser.base.copier;
+
+import com.cyser.base.param.CopyConfig;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 在ForkJoinPool上按顺序转换数组元素
+ * <br/>
+ * 先在调用线程上顺序转换第一个分片并计时，根据单个元素的耗时确定分片大小：元素越便宜分片越大，
+ * 剩余元素不足一个分片时不再并行。结果按下标写回，顺序与源数组一致
+ */
+public class ParallelCopier {
+
+    private ParallelCopier() {
+    }
+
+    /**
+     * 每个分片期望的耗时，远大于fork/join本身的开销
+     */
+    private static final long TARGET_CHUNK_NANOS = 200_000;
+
+    /**
+     * 元素数量是否值得尝试并行：至少两个分片，并且ForkJoinPool有多个线程
+     *
+     * @param size 元素数量
+     */
+    public static boolean isParallelizable(int size) {
+        return size >= CopyConfig.getParallelMinChunkSize() * 2 && ForkJoinPool.commonPool().getParallelism() > 1;
+    }
+
+    /**
+     * 转换数组元素
+     *
+     * @param src        源数组
+     * @param converters 转换函数的工厂，每个分片各自创建一个，转换函数不需要线程安全
+     * @return 转换结果，与源数组一一对应
+     */
+    public static Object[] convert(Object[] src, Supplier<? extends Function<Object, ?>> converters) {
+        Object[] result = new Object[src.length];
+        int min_chunk = CopyConfig.getParallelMinChunkSize();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        Function<Object, ?> converter = converters.get();
+        if (!isParallelizable(src.length)) {
+            convert(src, result, 0, src.length, converter);
+            return result;
+        }
+        long start = System.nanoTime();
+        convert(src, result, 0, min_chunk, converter);
+        long cost = Math.max(1, (System.nanoTime() - start) / min_chunk);
+        int chunk = (int) Math.max(min_chunk, Math.min(Integer.MAX_VALUE, TARGET_CHUNK_NANOS / cost));
+        if (src.length - min_chunk <= chunk) {
+            // 单个元素太便宜，剩余部分不值得并行
+            convert(src, result, min_chunk, src.length, converter);
+            return result;
+        }
+        pool.invoke(new ConvertTask(src, result, min_chunk, src.length, chunk, converters));
+        return result;
+    }
+
+    private static void convert(Object[] src, Object[] result, int from, int to, Function<Object, ?> converter) {
+        for (int i = from; i < to; i++) {
+            result[i] = converter.apply(src[i]);
+        }
+    }
+
+    private static class ConvertTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] src;
+        private final Object[] result;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final Supplier<? extends Function<Object, ?>> converters;
+
+        ConvertTask(Object[] src, Object[] result, int from, int to, int chunk, Supplier<? extends Function<Object, ?>> converters) {
+            this.src = src;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.converters = converters;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                convert(src, result, from, to, converters.get());
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ConvertTask(src, result, from, middle, chunk, converters),
+                    new ConvertTask(src, result, middle, to, chunk, converters));
+        }
+    }
+}
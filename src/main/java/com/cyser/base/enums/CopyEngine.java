@@ -0,0 +1,20 @@
+package com.cyser.base.enums;
+
+/**
+ * 拷贝引擎
+ * <br/>
+ * REFLECT-每次拷贝都通过反射逐个字段赋值
+ * <br/>
+ * BYTECODE-为每一对(源类,目标类,拷贝特色)生成专用的拷贝类，生成后缓存复用
+ * <br/>
+ * TIERED-先按反射复制，同一拷贝计划的调用次数达到{@link com.cyser.base.param.CopyConfig#getTieredThreshold()}后，
+ * 在后台线程生成拷贝类，生成完成后切换使用，很少使用的类不需要付出生成的代价
+ * <br/>
+ * METHOD_HANDLE-为每个拷贝计划组合一个MethodHandle，不定义新类，适合禁止运行时定义类的环境
+ */
+public enum CopyEngine {
+    REFLECT,
+    BYTECODE,
+    TIERED,
+    METHOD_HANDLE;
+}
@@ -3,7 +3,9 @@ package com.cyser.base.enums;
 public enum CopyFeature {
     COPY_NULL_VALUE(true), // 当为true时，源对象字段为null时拷贝空值null
     FORCE_OVERWRITE(true), // 当为true时，目标对象字段有值时强制覆盖
-    CASE_SENSITIVE(true); // 当为true时，字段名称区分大小写
+    CASE_SENSITIVE(true), // 当为true时，字段名称区分大小写
+    PARALLEL(false), // 当为true时，集合元素较多时并行复制，不影响拷贝计划
+    IGNORE_UNDERSCORE(false); // 当为true时，字段名称忽略下划线、中划线和大小写，user_name与userName匹配
 
     private final boolean _defaultState;//默认状态（是否启用：true，启用；false：不启用）
     private final int _mask;//掩码
@@ -72,5 +74,14 @@ public enum CopyFeature {
             return (_copyFeatures & feature._mask) != 0;
         }
 
+        /**
+         * 当前启用的全部拷贝特色的掩码
+         *
+         * @return
+         */
+        public int getCopyFeatures() {
+            return _copyFeatures;
+        }
+
     }
 }
@@ -0,0 +1,22 @@
+package com.cyser.base.enums;
+
+/**
+ * 字段读写方式
+ * <br/>
+ * REFLECT-java.lang.reflect.Field
+ * <br/>
+ * METHOD_HANDLE-由Field转换的MethodHandle
+ * <br/>
+ * VAR_HANDLE-VarHandle(需要Java 9+)，不需要setAccessible
+ * <br/>
+ * LAMBDA-通过LambdaMetafactory为getter/setter生成的函数，没有getter/setter的字段以及基本类型字段使用METHOD_HANDLE
+ * <br/>
+ * UNSAFE-sun.misc.Unsafe按字段偏移量读写
+ */
+public enum FieldAccessorType {
+    REFLECT,
+    METHOD_HANDLE,
+    VAR_HANDLE,
+    LAMBDA,
+    UNSAFE;
+}
@@ -0,0 +1,17 @@
+package com.cyser.base.enums;
+
+/**
+ * 字段对的复制方式，在生成拷贝计划时确定
+ */
+public enum SlotTypeEnum {
+    ASSIGN,//类型可以直接赋值
+    PRIMITIVE,//基本类型之间直接赋值或者拓宽(例如int转long)，按基本类型读写不装箱
+    WIDEN,//基本类型与封装类型之间拓宽(例如Integer转long)
+    CONVERT,//按字段定义调用bean_method_table中的转换方法，例如范型参数不同的集合、枚举
+    RUNTIME_CONVERT,//按字段运行时类型定义调用bean_method_table中的转换方法
+    TIME,//时间类型互转
+    PARSE,//字符串转基本类型或者封装类型
+    TO_STRING,//基本类型或者封装类型转字符串
+    NONE,//没有对应的转换方法，不复制
+    ERROR;//类型不匹配，复制时抛出异常
+}
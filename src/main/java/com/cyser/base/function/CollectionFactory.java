@@ -0,0 +1,67 @@
+package com.cyser.base.function;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 集合工厂：按元素数量创建预分配容量的容器，加入元素后生成目标集合
+ * <br/>
+ * 可修改的集合直接作为容器；不可修改的集合(如Guava的不可变集合)以Builder作为容器，最后生成一次
+ * @param <B> 容器类型
+ */
+@FunctionalInterface
+public interface CollectionFactory<B> {
+
+    /**
+     * 创建容器
+     * @param size          预计的元素数量
+     * @param element_clazz 元素类型，EnumSet等需要
+     * @return
+     */
+    B newContainer(int size, Class<?> element_clazz);
+
+    default void add(B container, Object element) {
+        ((Collection) container).add(element);
+    }
+
+    default Collection build(B container) {
+        return (Collection) container;
+    }
+
+    /**
+     * 以Builder作为容器的集合工厂
+     * @param new_builder 创建Builder
+     * @param add         加入元素
+     * @param build       生成集合
+     * @param <B>
+     * @return
+     */
+    static <B> CollectionFactory<B> ofBuilder(ContainerSupplier<B> new_builder, BiConsumer<B, Object> add, Function<B, ? extends Collection> build) {
+        return new CollectionFactory<B>() {
+            @Override
+            public B newContainer(int size, Class<?> element_clazz) {
+                return new_builder.apply(size, element_clazz);
+            }
+
+            @Override
+            public void add(B container, Object element) {
+                add.accept(container, element);
+            }
+
+            @Override
+            public Collection build(B container) {
+                return build.apply(container);
+            }
+        };
+    }
+
+    /**
+     * 按元素数量和元素类型创建容器
+     * @param <B>
+     */
+    @FunctionalInterface
+    interface ContainerSupplier<B> {
+        B apply(int size, Class<?> element_clazz);
+    }
+}
@@ -0,0 +1,66 @@
+package com.cyser.base.function;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Map工厂：按元素数量创建预分配容量的容器，放入键值对后生成目标Map
+ * <br/>
+ * 与{@link CollectionFactory}相同，可修改的Map直接作为容器，不可修改的Map以Builder作为容器
+ * @param <B> 容器类型
+ */
+@FunctionalInterface
+public interface MapFactory<B> {
+
+    /**
+     * 创建容器
+     * @param size      预计的键值对数量
+     * @param key_clazz 键类型，EnumMap等需要
+     * @return
+     */
+    B newContainer(int size, Class<?> key_clazz);
+
+    default void put(B container, Object key, Object value) {
+        ((Map) container).put(key, value);
+    }
+
+    default Map build(B container) {
+        return (Map) container;
+    }
+
+    /**
+     * 以Builder作为容器的Map工厂
+     * @param new_builder 创建Builder
+     * @param put         放入键值对
+     * @param build       生成Map
+     * @param <B>
+     * @return
+     */
+    static <B> MapFactory<B> ofBuilder(CollectionFactory.ContainerSupplier<B> new_builder, EntryConsumer<B> put, Function<B, ? extends Map> build) {
+        return new MapFactory<B>() {
+            @Override
+            public B newContainer(int size, Class<?> key_clazz) {
+                return new_builder.apply(size, key_clazz);
+            }
+
+            @Override
+            public void put(B container, Object key, Object value) {
+                put.accept(container, key, value);
+            }
+
+            @Override
+            public Map build(B container) {
+                return build.apply(container);
+            }
+        };
+    }
+
+    /**
+     * 向容器放入键值对
+     * @param <B>
+     */
+    @FunctionalInterface
+    interface EntryConsumer<B> {
+        void accept(B container, Object key, Object value);
+    }
+}
@@ -0,0 +1,160 @@
+package com.cyser.base.param;
+
+import com.cyser.base.accessor.FieldAccessorFactory;
+import com.cyser.base.copier.CopyExecutors;
+import com.cyser.base.enums.CopyEngine;
+import com.cyser.base.enums.FieldAccessorType;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 全局拷贝配置
+ * <br/>
+ * 与每次拷贝时传入的{@link CopyParam}不同，这里的配置对所有拷贝生效
+ */
+public class CopyConfig {
+
+    private CopyConfig() {
+    }
+
+    /**
+     * 拷贝引擎，详见{@link CopyEngine}，默认为反射
+     */
+    private static volatile CopyEngine copyEngine = CopyEngine.REFLECT;
+
+    public static CopyEngine getCopyEngine() {
+        return copyEngine;
+    }
+
+    public static void setCopyEngine(CopyEngine copyEngine) {
+        if (copyEngine == null) {
+            throw new IllegalArgumentException("拷贝引擎不能为空！");
+        }
+        CopyConfig.copyEngine = copyEngine;
+    }
+
+    /**
+     * 字段读写方式，详见{@link FieldAccessorType}，默认为当前JVM支持的最快方式
+     * <br/>
+     * 字段读写器在解析类时创建，修改后只对之后解析的类生效
+     */
+    private static volatile FieldAccessorType fieldAccessorType = FieldAccessorFactory.getDefaultType();
+
+    public static FieldAccessorType getFieldAccessorType() {
+        return fieldAccessorType;
+    }
+
+    public static void setFieldAccessorType(FieldAccessorType fieldAccessorType) {
+        if (fieldAccessorType == null) {
+            throw new IllegalArgumentException("字段读写方式不能为空！");
+        }
+        if (!FieldAccessorFactory.isSupported(fieldAccessorType)) {
+            throw new IllegalArgumentException("当前JVM不支持字段读写方式" + fieldAccessorType + "！");
+        }
+        CopyConfig.fieldAccessorType = fieldAccessorType;
+    }
+
+    /**
+     * 是否使用编译期生成的拷贝器(见{@link com.cyser.base.annotations.CopyMapping})，默认使用
+     */
+    private static volatile boolean compiledCopierEnabled = true;
+
+    public static boolean isCompiledCopierEnabled() {
+        return compiledCopierEnabled;
+    }
+
+    public static void setCompiledCopierEnabled(boolean compiledCopierEnabled) {
+        CopyConfig.compiledCopierEnabled = compiledCopierEnabled;
+    }
+
+    /**
+     * 分层拷贝引擎({@link CopyEngine#TIERED})中，拷贝计划调用多少次后在后台生成拷贝类，默认1000次
+     */
+    private static volatile int tieredThreshold = 1000;
+
+    public static int getTieredThreshold() {
+        return tieredThreshold;
+    }
+
+    public static void setTieredThreshold(int tieredThreshold) {
+        if (tieredThreshold < 1) {
+            throw new IllegalArgumentException("分层编译阈值必须大于0！");
+        }
+        CopyConfig.tieredThreshold = tieredThreshold;
+    }
+
+    /**
+     * 并行复制集合时每个分片的最少元素数量，默认1024
+     * <br/>
+     * 元素数量不到两个分片时不并行；实际分片大小还会根据测得的单个元素耗时调大
+     */
+    private static volatile int parallelMinChunkSize = 1024;
+
+    public static int getParallelMinChunkSize() {
+        return parallelMinChunkSize;
+    }
+
+    public static void setParallelMinChunkSize(int parallelMinChunkSize) {
+        if (parallelMinChunkSize < 1) {
+            throw new IllegalArgumentException("并行复制分片大小必须大于0！");
+        }
+        CopyConfig.parallelMinChunkSize = parallelMinChunkSize;
+    }
+
+    /**
+     * 异步复制(BeanUtil.copyAsync、copyAllAsync)使用的线程池，默认为{@link CopyExecutors#newDefaultExecutor()}，第一次使用时创建
+     */
+    private static volatile Executor asyncExecutor;
+
+    public static Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (CopyConfig.class) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    executor = CopyExecutors.newDefaultExecutor();
+                    asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    public static void setAsyncExecutor(Executor asyncExecutor) {
+        if (asyncExecutor == null) {
+            throw new IllegalArgumentException("异步复制线程池不能为空！");
+        }
+        CopyConfig.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * 同时存活的生成拷贝类数量上限，超过后淘汰最近没有使用的拷贝器，被淘汰的计划再次使用时重新生成
+     */
+    private static volatile int maxGeneratedCopiers = 4096;
+
+    public static int getMaxGeneratedCopiers() {
+        return maxGeneratedCopiers;
+    }
+
+    public static void setMaxGeneratedCopiers(int maxGeneratedCopiers) {
+        if (maxGeneratedCopiers < 1) {
+            throw new IllegalArgumentException("生成拷贝类数量上限必须大于0！");
+        }
+        CopyConfig.maxGeneratedCopiers = maxGeneratedCopiers;
+    }
+
+    /**
+     * 生成的拷贝类的磁盘缓存目录，详见{@link com.cyser.base.cache.CopierDiskCache}，默认为空，不缓存到磁盘
+     * <br/>
+     * 也可以通过系统属性easy-copy.copier-cache-dir设置
+     */
+    private static volatile String copierCacheDir = System.getProperty("easy-copy.copier-cache-dir");
+
+    public static String getCopierCacheDir() {
+        return copierCacheDir;
+    }
+
+    public static void setCopierCacheDir(String copierCacheDir) {
+        CopyConfig.copierCacheDir = copierCacheDir;
+    }
+}
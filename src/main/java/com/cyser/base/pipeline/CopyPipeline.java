@@ -0,0 +1,423 @@
+package com.cyser.base.pipeline;
+
+import com.cyser.base.bean.StageMetrics;
+import com.cyser.base.copier.ElementCopier;
+import com.cyser.base.param.CopyParam;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 多阶段复制流水线
+ * <br/>
+ * 每个阶段有自己的工作线程和有界输入队列，工作线程每次从输入队列取出至多batch_size个元素处理后放入下一阶段的队列。
+ * 下游处理慢时队列被填满，上游阻塞等待，内存占用由队列容量决定；读取、复制、写入可以分别放在不同阶段重叠执行
+ * <br/>
+ * 阶段有多个工作线程时不保证元素顺序；任一阶段抛出异常后整条流水线取消
+ * <pre>
+ * {@code
+ * CopyPipeline<Order> pipeline = CopyPipeline.<Order>builder()
+ *         .copy("copy", 4, OrderDTO.class, cp)
+ *         .sink("write", 1, dao::batchInsert);
+ * for (Order order : reader) {
+ *     pipeline.submit(order);
+ * }
+ * pipeline.complete();
+ * pipeline.await();
+ * }
+ * </pre>
+ */
+@Slf4j
+public class CopyPipeline<I> {
+
+    /**
+     * 输入结束标记，沿着队列逐个阶段传递
+     */
+    private static final Object END = new Object();
+
+    /**
+     * 阻塞等待队列时检查取消状态的间隔
+     */
+    private static final long POLL_MILLIS = 100;
+
+    private final Stage[] stages;
+
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private final long start_nanos = System.nanoTime();
+
+    private volatile boolean input_closed;
+
+    private CopyPipeline(List<Stage> stages) {
+        this.stages = stages.toArray(new Stage[0]);
+        for (int i = 0; i < this.stages.length - 1; i++) {
+            this.stages[i].next = this.stages[i + 1];
+        }
+        for (Stage stage : this.stages) {
+            for (int i = 0; i < stage.threads; i++) {
+                stage.executor.execute(() -> work(stage));
+            }
+        }
+    }
+
+    public static <I> Builder<I, I> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * 提交一个元素，第一个阶段的队列满时阻塞
+     *
+     * @param item 元素，不能为null
+     * @throws InterruptedException  等待时被中断
+     * @throws IllegalStateException 已经结束输入，或者流水线已经失败、取消
+     */
+    public void submit(I item) throws InterruptedException {
+        if (item == null) {
+            throw new IllegalArgumentException("提交的元素不能为空！");
+        }
+        if (input_closed) {
+            throw new IllegalStateException("流水线已经结束输入！");
+        }
+        if (completion.isDone()) {
+            throw new IllegalStateException("流水线已经结束！");
+        }
+        put(stages[0].queue, item);
+    }
+
+    /**
+     * 结束输入，已经提交的元素处理完后流水线结束
+     * <br/>
+     * 必须在所有submit返回之后调用
+     */
+    public void complete() throws InterruptedException {
+        if (!input_closed) {
+            input_closed = true;
+            put(stages[0].queue, END);
+        }
+    }
+
+    /**
+     * 取消流水线，丢弃队列中尚未处理的元素
+     */
+    public void cancel() {
+        fail(new CancellationException("流水线已取消"));
+    }
+
+    /**
+     * 等待流水线结束
+     *
+     * @throws ExecutionException 某个阶段抛出异常，或者流水线被取消
+     */
+    public void await() throws InterruptedException, ExecutionException {
+        try {
+            completion.get();
+        } catch (CancellationException e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    /**
+     * 等待流水线结束
+     *
+     * @return 超时返回false
+     * @throws ExecutionException 某个阶段抛出异常，或者流水线被取消
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException {
+        try {
+            completion.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (CancellationException e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    /**
+     * 流水线结束时完成，失败或取消时异常完成
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * 各阶段的统计
+     */
+    public List<StageMetrics> getMetrics() {
+        long elapsed_nanos = System.nanoTime() - start_nanos;
+        List<StageMetrics> metrics = new ArrayList<>(stages.length);
+        for (Stage stage : stages) {
+            metrics.add(new StageMetrics(stage.name, stage.threads, stage.processed.sum(), stage.batches.sum(),
+                    stage.busy_nanos.sum(), stage.queue.size(), stage.queue_capacity, elapsed_nanos));
+        }
+        return metrics;
+    }
+
+    private void work(Stage stage) {
+        Function<List<Object>, List<Object>> processor = stage.processors.get();
+        List<Object> batch = new ArrayList<>(stage.batch_size);
+        try {
+            boolean end = false;
+            while (!end && !completion.isDone()) {
+                batch.add(stage.queue.take());
+                stage.queue.drainTo(batch, stage.batch_size - 1);
+                if (batch.get(batch.size() - 1) == END) {
+                    batch.remove(batch.size() - 1);
+                    end = true;
+                }
+                if (!batch.isEmpty()) {
+                    long start = System.nanoTime();
+                    List<Object> output = processor.apply(batch);
+                    stage.busy_nanos.add(System.nanoTime() - start);
+                    stage.processed.add(batch.size());
+                    stage.batches.increment();
+                    if (stage.next != null) {
+                        for (Object item : output) {
+                            if (item != null) {
+                                put(stage.next.queue, item);
+                            }
+                        }
+                    }
+                    batch.clear();
+                }
+            }
+            if (end) {
+                finish(stage);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * 一个工作线程读到结束标记：不是最后一个时把标记放回队列交给同阶段的其它线程，最后一个把标记传给下一阶段
+     */
+    private void finish(Stage stage) throws InterruptedException {
+        if (stage.live.decrementAndGet() > 0) {
+            put(stage.queue, END);
+            return;
+        }
+        stage.executor.shutdown();
+        if (stage.next != null) {
+            put(stage.next.queue, END);
+        } else {
+            completion.complete(null);
+        }
+    }
+
+    /**
+     * 以异常结束流水线，取消全部阶段
+     */
+    void fail(Throwable e) {
+        if (completion.completeExceptionally(e)) {
+            if (!(e instanceof CancellationException)) {
+                log.warn("复制流水线失败，取消全部阶段。", e);
+            }
+            for (Stage stage : stages) {
+                stage.executor.shutdownNow();
+                stage.queue.clear();
+            }
+        }
+    }
+
+    /**
+     * 放入队列，队列满时阻塞；流水线结束后不再等待
+     */
+    private void put(BlockingQueue<Object> queue, Object item) throws InterruptedException {
+        while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (completion.isDone()) {
+                throw new IllegalStateException("流水线已经结束！");
+            }
+        }
+    }
+
+    private static class Stage {
+
+        final String name;
+
+        final int threads;
+
+        final int batch_size;
+
+        final int queue_capacity;
+
+        final BlockingQueue<Object> queue;
+
+        /**
+         * 每个工作线程创建一个批次处理函数，返回的List是传给下一阶段的元素
+         */
+        final Supplier<Function<List<Object>, List<Object>>> processors;
+
+        final ExecutorService executor;
+
+        final AtomicInteger live;
+
+        final LongAdder processed = new LongAdder();
+
+        final LongAdder batches = new LongAdder();
+
+        final LongAdder busy_nanos = new LongAdder();
+
+        Stage next;
+
+        Stage(String name, int threads, int batch_size, int queue_capacity,
+              Supplier<Function<List<Object>, List<Object>>> processors) {
+            this.name = name;
+            this.threads = threads;
+            this.batch_size = batch_size;
+            this.queue_capacity = queue_capacity;
+            this.queue = new ArrayBlockingQueue<>(queue_capacity);
+            this.processors = processors;
+            this.live = new AtomicInteger(threads);
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "easy-copy-pipeline-" + name + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private static class StageDefinition {
+
+        final String name;
+
+        final int threads;
+
+        final Supplier<Function<List<Object>, List<Object>>> processors;
+
+        StageDefinition(String name, int threads, Supplier<Function<List<Object>, List<Object>>> processors) {
+            this.name = name;
+            this.threads = threads;
+            this.processors = processors;
+        }
+    }
+
+    /**
+     * 流水线构造器，T为当前最后一个阶段输出的元素类型
+     */
+    public static class Builder<I, T> {
+
+        private final List<StageDefinition> definitions = new ArrayList<>();
+
+        private int queue_capacity = 1024;
+
+        private int batch_size = 64;
+
+        private Builder() {
+        }
+
+        /**
+         * 每个阶段输入队列的容量，默认1024
+         */
+        public Builder<I, T> queueCapacity(int queue_capacity) {
+            if (queue_capacity < 1) {
+                throw new IllegalArgumentException("队列容量必须大于0！");
+            }
+            this.queue_capacity = queue_capacity;
+            return this;
+        }
+
+        /**
+         * 工作线程每次最多处理的元素数量，默认64
+         */
+        public Builder<I, T> batchSize(int batch_size) {
+            if (batch_size < 1) {
+                throw new IllegalArgumentException("批次大小必须大于0！");
+            }
+            this.batch_size = batch_size;
+            return this;
+        }
+
+        /**
+         * 逐个转换元素，返回null的元素被丢弃
+         *
+         * @param name     阶段名称
+         * @param threads  工作线程数
+         * @param function 转换函数，需要线程安全
+         */
+        @SuppressWarnings("unchecked")
+        public <R> Builder<I, R> map(String name, int threads, Function<? super T, ? extends R> function) {
+            return stage(name, threads, () -> batch -> {
+                List<Object> output = new ArrayList<>(batch.size());
+                for (Object item : batch) {
+                    output.add(function.apply((T) item));
+                }
+                return output;
+            });
+        }
+
+        /**
+         * 复制为目标类对象，每个工作线程使用各自的{@link ElementCopier}
+         *
+         * @param name       阶段名称
+         * @param threads    工作线程数
+         * @param dest_clazz 目标类
+         * @param cp         拷贝参数，为null时使用默认参数
+         */
+        public <R> Builder<I, R> copy(String name, int threads, Class<R> dest_clazz, CopyParam cp) {
+            CopyParam _cp = cp != null ? cp : new CopyParam();
+            return stage(name, threads, () -> {
+                ElementCopier<R> copier = new ElementCopier<>(dest_clazz, _cp);
+                return batch -> {
+                    List<Object> output = new ArrayList<>(batch.size());
+                    for (Object item : batch) {
+                        output.add(copier.copy(item));
+                    }
+                    return output;
+                };
+            });
+        }
+
+        /**
+         * 最后一个阶段，按批次消费元素，并启动流水线
+         *
+         * @param name     阶段名称
+         * @param threads  工作线程数
+         * @param consumer 批次消费函数，需要线程安全；传入的List在返回后会被复用
+         * @return 已启动的流水线
+         */
+        @SuppressWarnings("unchecked")
+        public CopyPipeline<I> sink(String name, int threads, Consumer<? super List<T>> consumer) {
+            stage(name, threads, () -> batch -> {
+                consumer.accept((List<T>) batch);
+                return null;
+            });
+            List<Stage> stages = new ArrayList<>(definitions.size());
+            for (StageDefinition definition : definitions) {
+                stages.add(new Stage(definition.name, definition.threads, batch_size, queue_capacity, definition.processors));
+            }
+            return new CopyPipeline<>(stages);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <R> Builder<I, R> stage(String name, int threads, Supplier<Function<List<Object>, List<Object>>> processors) {
+            if (StringUtils.isEmpty(name)) {
+                throw new IllegalArgumentException("阶段名称不能为空！");
+            }
+            if (threads < 1) {
+                throw new IllegalArgumentException("阶段[" + name + "]的工作线程数必须大于0！");
+            }
+            definitions.add(new StageDefinition(name, threads, processors));
+            return (Builder<I, R>) this;
+        }
+    }
+}
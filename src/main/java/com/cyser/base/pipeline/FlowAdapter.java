@@ -0,0 +1,301 @@
+package com.cyser.base.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 把复制流水线包装为java.util.concurrent.Flow.Processor(Java 9+)
+ * <br/>
+ * 上游onNext的元素提交到流水线，最后一个阶段的输出按下游request的数量发布；流水线队列满时上游onNext阻塞，
+ * 下游没有需求时发布阶段阻塞，背压沿队列传回上游
+ * <br/>
+ * 项目按Java 8编译，Flow接口通过动态代理实现，低版本JVM上{@link #isSupported()}返回false
+ */
+@Slf4j
+public class FlowAdapter {
+
+    private FlowAdapter() {
+    }
+
+    /**
+     * 订阅上游时先请求的元素数量，之后每提交一个再请求一个
+     */
+    private static final long INITIAL_REQUEST = 64;
+
+    private static final Class<?> PROCESSOR;
+    private static final Class<?> SUBSCRIPTION;
+    private static final Method ON_SUBSCRIBE;
+    private static final Method ON_NEXT;
+    private static final Method ON_ERROR;
+    private static final Method ON_COMPLETE;
+    private static final Method REQUEST;
+    private static final Method CANCEL;
+
+    static {
+        Class<?> processor = null, subscription = null;
+        Method on_subscribe = null, on_next = null, on_error = null, on_complete = null, request = null, cancel = null;
+        try {
+            processor = Class.forName("java.util.concurrent.Flow$Processor");
+            subscription = Class.forName("java.util.concurrent.Flow$Subscription");
+            Class<?> subscriber = Class.forName("java.util.concurrent.Flow$Subscriber");
+            on_subscribe = subscriber.getMethod("onSubscribe", subscription);
+            on_next = subscriber.getMethod("onNext", Object.class);
+            on_error = subscriber.getMethod("onError", Throwable.class);
+            on_complete = subscriber.getMethod("onComplete");
+            request = subscription.getMethod("request", long.class);
+            cancel = subscription.getMethod("cancel");
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            log.debug("当前JVM不支持java.util.concurrent.Flow。");
+        }
+        PROCESSOR = processor;
+        SUBSCRIPTION = subscription;
+        ON_SUBSCRIBE = on_subscribe;
+        ON_NEXT = on_next;
+        ON_ERROR = on_error;
+        ON_COMPLETE = on_complete;
+        REQUEST = request;
+        CANCEL = cancel;
+    }
+
+    /**
+     * 当前JVM是否支持Flow
+     */
+    public static boolean isSupported() {
+        return PROCESSOR != null;
+    }
+
+    /**
+     * 用流水线构造器创建Flow.Processor，构造器最后一个阶段的输出发布给下游，只支持一个下游订阅者
+     *
+     * @param builder 流水线构造器，不要再调用它的sink
+     * @param <P>     Flow.Processor&lt;I, T&gt;
+     * @return Flow.Processor
+     */
+    @SuppressWarnings("unchecked")
+    public static <I, T, P> P toProcessor(CopyPipeline.Builder<I, T> builder) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("当前JVM不支持java.util.concurrent.Flow，需要Java 9+");
+        }
+        FlowProcessor<I, T> handler = new FlowProcessor<>(builder);
+        return (P) Proxy.newProxyInstance(FlowAdapter.class.getClassLoader(), new Class<?>[]{PROCESSOR}, handler);
+    }
+
+    private static void call(Method method, Object target, Object... args) {
+        try {
+            method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Flow.Processor的实现：Subscriber的方法提交到流水线，Publisher的方法连接下游
+     */
+    private static class FlowProcessor<I, T> implements InvocationHandler {
+
+        private final CopyPipeline<I> pipeline;
+
+        private volatile Object upstream;
+
+        private Object downstream;
+
+        /**
+         * 下游尚未满足的需求，由this保护
+         */
+        private long demand;
+
+        /**
+         * 下游的onSubscribe已经返回，之后才发出onNext、onComplete、onError
+         */
+        private boolean subscribed;
+
+        /**
+         * 流水线已经结束，下游订阅完成前暂存结束信号
+         */
+        private boolean terminated;
+
+        private Throwable terminal_error;
+
+        /**
+         * 结束信号已经发出，保证只发出一次
+         */
+        private boolean terminal_signaled;
+
+        FlowProcessor(CopyPipeline.Builder<I, T> builder) {
+            this.pipeline = builder.sink("publish", 1, this::publish);
+            pipeline.getCompletion().whenComplete((v, e) -> terminate(e));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "subscribe":
+                    subscribe(args[0]);
+                    return null;
+                case "onSubscribe":
+                    onSubscribe(args[0]);
+                    return null;
+                case "onNext":
+                    onNext((I) args[0]);
+                    return null;
+                case "onError":
+                    pipeline.fail((Throwable) args[0]);
+                    return null;
+                case "onComplete":
+                    pipeline.complete();
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "FlowProcessor" + pipeline.getMetrics();
+                default:
+                    throw new UnsupportedOperationException(method.toString());
+            }
+        }
+
+        private void onSubscribe(Object subscription) {
+            if (upstream != null) {
+                call(CANCEL, subscription);
+                return;
+            }
+            upstream = subscription;
+            call(REQUEST, subscription, INITIAL_REQUEST);
+        }
+
+        private void onNext(I item) throws InterruptedException {
+            try {
+                pipeline.submit(item);
+            } catch (IllegalStateException e) {
+                // 流水线已经结束，不再接收上游元素
+                call(CANCEL, upstream);
+                return;
+            }
+            call(REQUEST, upstream, 1L);
+        }
+
+        private void subscribe(Object subscriber) {
+            Object subscription = Proxy.newProxyInstance(FlowAdapter.class.getClassLoader(), new Class<?>[]{SUBSCRIPTION},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "request":
+                                request((Long) args[0]);
+                                return null;
+                            case "cancel":
+                                cancel();
+                                return null;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return "FlowSubscription";
+                        }
+                    });
+            synchronized (this) {
+                if (downstream != null) {
+                    call(ON_SUBSCRIBE, subscriber, subscription);
+                    call(ON_ERROR, subscriber, new IllegalStateException("只支持一个订阅者！"));
+                    return;
+                }
+                downstream = subscriber;
+            }
+            call(ON_SUBSCRIBE, subscriber, subscription);
+            synchronized (this) {
+                subscribed = true;
+                notifyAll();
+            }
+            // onSubscribe执行期间流水线已经结束时，在这里发出结束信号
+            signalTerminal();
+        }
+
+        private synchronized void request(long n) {
+            if (n <= 0) {
+                pipeline.fail(new IllegalArgumentException("request的数量必须大于0！"));
+                return;
+            }
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            notifyAll();
+        }
+
+        private void cancel() {
+            pipeline.cancel();
+            Object subscription = upstream;
+            if (subscription != null) {
+                call(CANCEL, subscription);
+            }
+        }
+
+        /**
+         * 发布阶段：按下游需求逐个发布，没有需求时等待
+         */
+        private void publish(List<T> batch) {
+            for (T item : batch) {
+                Object subscriber;
+                synchronized (this) {
+                    while (demand == 0 || !subscribed) {
+                        if (pipeline.getCompletion().isDone()) {
+                            return;
+                        }
+                        try {
+                            wait(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                    demand--;
+                    subscriber = downstream;
+                }
+                call(ON_NEXT, subscriber, item);
+            }
+        }
+
+        private void terminate(Throwable e) {
+            synchronized (this) {
+                terminated = true;
+                terminal_error = e;
+                notifyAll();
+            }
+            signalTerminal();
+        }
+
+        /**
+         * 流水线已经结束并且下游的onSubscribe已经返回时发出结束信号，由subscribe和terminate中后执行的一方发出
+         */
+        private void signalTerminal() {
+            Object subscriber;
+            Throwable e;
+            synchronized (this) {
+                if (!terminated || !subscribed || terminal_signaled) {
+                    return;
+                }
+                terminal_signaled = true;
+                subscriber = downstream;
+                e = terminal_error;
+            }
+            if (e == null) {
+                call(ON_COMPLETE, subscriber);
+            } else if (!(e instanceof CancellationException)) {
+                call(ON_ERROR, subscriber, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.cyser.base.type;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 在内存中构造的{@link ParameterizedType}，例如由List.class和String.class构造出List&lt;String&gt;
+ * <br/>
+ * equals和hashCode与JDK自带的实现一致，可以和反射得到的ParameterizedType互相比较
+ */
+public class ParameterizedTypeImpl implements ParameterizedType {
+
+    private final Class<?> rawType;
+
+    private final Type[] actualTypeArguments;
+
+    private final Type ownerType;
+
+    public ParameterizedTypeImpl(Class<?> rawType, Type[] actualTypeArguments) {
+        this(rawType, actualTypeArguments, rawType.getDeclaringClass());
+    }
+
+    public ParameterizedTypeImpl(Class<?> rawType, Type[] actualTypeArguments, Type ownerType) {
+        if (rawType.getTypeParameters().length != actualTypeArguments.length) {
+            throw new IllegalArgumentException("类[" + rawType.getName() + "]的范型参数个数与实际参数个数不一致！");
+        }
+        this.rawType = rawType;
+        this.actualTypeArguments = actualTypeArguments.clone();
+        this.ownerType = ownerType;
+    }
+
+    @Override
+    public Type[] getActualTypeArguments() {
+        return actualTypeArguments.clone();
+    }
+
+    @Override
+    public Type getRawType() {
+        return rawType;
+    }
+
+    @Override
+    public Type getOwnerType() {
+        return ownerType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ParameterizedType)) {
+            return false;
+        }
+        ParameterizedType other = (ParameterizedType) o;
+        return Objects.equals(rawType, other.getRawType())
+                && Objects.equals(ownerType, other.getOwnerType())
+                && Arrays.equals(actualTypeArguments, other.getActualTypeArguments());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ Objects.hashCode(rawType);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (ownerType != null) {
+            sb.append(ownerType.getTypeName()).append("$").append(rawType.getSimpleName());
+        } else {
+            sb.append(rawType.getName());
+        }
+        sb.append('<');
+        for (int i = 0; i < actualTypeArguments.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(actualTypeArguments[i].getTypeName());
+        }
+        return sb.append('>').toString();
+    }
+}
@@ -0,0 +1,123 @@
+package com.cyser.base.utils;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 数组工具
+ * <br/>
+ * 基本类型数组之间的复制：类型相同时使用System.arraycopy，常用的拓宽(例如int[]转long[])使用简单的计数循环，JIT可以向量化
+ */
+public class ArrayUtil {
+
+    private ArrayUtil() {
+    }
+
+    /**
+     * 复制基本类型数组，必要时拓宽元素类型
+     *
+     * @param src            源数组，元素为基本类型
+     * @param dest_component 目标数组的元素类型，基本类型
+     * @return 新数组；元素类型不能拓宽(例如long转int)时返回null
+     */
+    public static Object copyPrimitiveArray(Object src, Class<?> dest_component) {
+        Class<?> src_component = src.getClass().getComponentType();
+        int length = Array.getLength(src);
+        if (src_component == dest_component) {
+            Object dest = Array.newInstance(dest_component, length);
+            System.arraycopy(src, 0, dest, 0, length);
+            return dest;
+        }
+        if (src instanceof int[]) {
+            int[] _src = (int[]) src;
+            if (dest_component == long.class) {
+                long[] dest = new long[length];
+                for (int i = 0; i < length; i++) {
+                    dest[i] = _src[i];
+                }
+                return dest;
+            }
+            if (dest_component == double.class) {
+                double[] dest = new double[length];
+                for (int i = 0; i < length; i++) {
+                    dest[i] = _src[i];
+                }
+                return dest;
+            }
+            if (dest_component == float.class) {
+                float[] dest = new float[length];
+                for (int i = 0; i < length; i++) {
+                    dest[i] = _src[i];
+                }
+                return dest;
+            }
+        } else if (src instanceof long[]) {
+            long[] _src = (long[]) src;
+            if (dest_component == double.class) {
+                double[] dest = new double[length];
+                for (int i = 0; i < length; i++) {
+                    dest[i] = _src[i];
+                }
+                return dest;
+            }
+        } else if (src instanceof float[]) {
+            float[] _src = (float[]) src;
+            if (dest_component == double.class) {
+                double[] dest = new double[length];
+                for (int i = 0; i < length; i++) {
+                    dest[i] = _src[i];
+                }
+                return dest;
+            }
+        }
+        if (!ClassUtils.isAssignable(src_component, dest_component, false)) {
+            return null;
+        }
+        // 其它拓宽，例如short[]转int[]、char[]转int[]，Array.set会自动拓宽
+        Object dest = Array.newInstance(dest_component, length);
+        for (int i = 0; i < length; i++) {
+            Array.set(dest, i, Array.get(src, i));
+        }
+        return dest;
+    }
+
+    /**
+     * 数组的List视图，基本类型数组按下标读取时装箱
+     *
+     * @param array 数组
+     * @return 只读的List
+     */
+    public static List<Object> asList(Object array) {
+        if (array instanceof Object[]) {
+            return Arrays.asList((Object[]) array);
+        }
+        return new PrimitiveArrayList(array);
+    }
+
+    private static class PrimitiveArrayList extends AbstractList<Object> implements RandomAccess {
+
+        private final Object array;
+
+        private final int size;
+
+        PrimitiveArrayList(Object array) {
+            this.array = array;
+            this.size = Array.getLength(array);
+        }
+
+        @Override
+        public Object get(int index) {
+            return Array.get(array, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -1,26 +1,53 @@
 package com.cyser.base.utils;
 
+import com.cyser.base.annotations.EnumFormat;
+import com.cyser.base.annotations.TimeFormat;
 import com.cyser.base.bean.CopyDefinition;
+import com.cyser.base.bean.CopyPlan;
 import com.cyser.base.bean.FieldDefinition;
 import com.cyser.base.bean.TypeDefinition;
 import com.cyser.base.cache.BeanConvertCache;
+import com.cyser.base.cache.CompiledCopierCache;
+import com.cyser.base.cache.CopierCache;
+import com.cyser.base.cache.CopyPlanCache;
+import com.cyser.base.cache.CopyableFieldsCache;
 import com.cyser.base.cache.TimeConvertCache;
+import com.cyser.base.copier.CompiledCopier;
+import com.cyser.base.copier.CopySpliterator;
+import com.cyser.base.copier.ElementCopier;
+import com.cyser.base.copier.MapBinder;
+import com.cyser.base.copier.ParallelCopier;
 import com.cyser.base.enums.ClassTypeEnum;
+import com.cyser.base.enums.CopyEngine;
 import com.cyser.base.enums.CopyFeature;
 import com.cyser.base.enums.DataTypeEnum;
 import com.cyser.base.function.PentaFunction;
 import com.cyser.base.function.TernaryFunction;
+import com.cyser.base.param.CopyConfig;
 import com.cyser.base.param.CopyParam;
 import com.cyser.base.type.TypeReference;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.ObjectUtils;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Slf4j
 public class BeanUtil {
@@ -29,6 +56,35 @@ public class BeanUtil {
     }
 
     public static Object copy(Object target, Object source, CopyParam... cp) {
+        return copy(target, source, cp != null && cp.length > 0 ? cp[0] : null);
+    }
+
+    /**
+     * 同{@link #copy(Object, Object, CopyParam...)}，只有一个拷贝参数时不需要创建可变参数数组
+     *
+     * @param target 目标对象
+     * @param source 源对象
+     * @param cp     拷贝参数，为null时使用默认参数
+     * @return
+     */
+    public static Object copy(Object target, Object source, CopyParam cp) {
+        if (target != null && source != null) {
+            CopyParam _cp = cp != null ? cp : new CopyParam();
+            // 编译期生成的拷贝器和登记过的计划都只对应实体类，命中时不需要再做下面的参数检查和类型解析
+            // 优先使用编译期生成的拷贝器，拷贝参数启用了生成时没有编译的特色时除外
+            if (CopyConfig.isCompiledCopierEnabled() && CompiledCopier.supports(_cp)) {
+                CompiledCopier compiled_copier = CompiledCopierCache.getCopier(source.getClass(), target.getClass());
+                if (compiled_copier != null) {
+                    return compiled_copier.copy(target, source, _cp);
+                }
+            }
+            // 同一对类、同样的拷贝参数再次复制时直接执行登记的计划
+            CopyPlan class_plan = CopyPlanCache.getClassPlan(source.getClass(), target.getClass(), _cp);
+            if (class_plan != null) {
+                return BeanConvertCache.copyByPlan(target, source, class_plan, _cp);
+            }
+            cp = _cp;
+        }
         if(ObjectUtils.isNotEmpty(target)&&ObjectUtils.isNotEmpty(source)){
             return copy(target, source, target.getClass(), source.getClass(), cp);
         }else{
@@ -37,7 +93,7 @@ public class BeanUtil {
         }
     }
 
-    private static Object copy(Object target, Object source, Class dest_clazz, Class src_clazz, CopyParam... cp) {
+    private static Object copy(Object target, Object source, Class dest_clazz, Class src_clazz, CopyParam cp) {
         if (ObjectUtils.isEmpty(source)) {
             log.warn("被复制对象为空，停止复制。");
             return target;
@@ -47,12 +103,7 @@ public class BeanUtil {
             throw new RuntimeException("参数target和dest_clazz不能同时为空，停止复制！");
         }
 
-        CopyParam _cp;
-        if (ObjectUtils.isNotEmpty(cp)) {
-            _cp = cp[0];
-        } else {
-            _cp = new CopyParam();
-        }
+        CopyParam _cp = cp != null ? cp : new CopyParam();
 
         try {
             TypeDefinition target_def=ClassUtil.parseType(target.getClass());
@@ -69,7 +120,13 @@ public class BeanUtil {
             if (!src_def.isSerializable) {
                 throw new RuntimeException("检查类[" + src_clazz.getName() + "]是否是final、static、abstract,停止复制值！");
             }
-            return BeanConvertCache.copyEntity2Entity(target,source,target_def,src_def,_cp);
+            CopyPlan plan = BeanConvertCache.getEntityPlan(target, source, target_def, src_def, _cp);
+            if (plan == null) {
+                return target;
+            }
+            // 登记后由copy(Object, Object, CopyParam)直接找到
+            CopyPlanCache.putClassPlan(plan);
+            return BeanConvertCache.copyByPlan(target, source, plan, _cp);
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
         }
@@ -111,6 +168,277 @@ public class BeanUtil {
         return target;
     }
 
+    /**
+     * 批量复制实体类集合
+     * <br/>
+     * 目标类、拷贝计划只解析一次，源类相同的元素复用同一个拷贝计划，目标List按源集合大小预分配
+     * <br/>
+     * 拷贝参数启用{@link CopyFeature#PARALLEL}时在ForkJoinPool上并行复制，详见{@link ParallelCopier}
+     *
+     * @param src        源对象集合，元素为null时目标List对应位置也为null
+     * @param dest_clazz 目标类
+     * @param cp         拷贝参数，为null时使用默认参数
+     * @return 与源集合迭代顺序一致的目标对象List
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, D> List<D> copyAll(Collection<? extends S> src, Class<D> dest_clazz, CopyParam cp) {
+        if (dest_clazz == null) {
+            throw new IllegalArgumentException("参数dest_clazz不能为空！");
+        }
+        if (src == null) {
+            log.warn("被复制集合为空，停止复制。");
+            return new ArrayList<>(0);
+        }
+        CopyParam _cp = cp != null ? cp : new CopyParam();
+        if (_cp.copyFeature.isEnabled(CopyFeature.PARALLEL) && ParallelCopier.isParallelizable(src.size())) {
+            List<D> result = new ArrayList<>(src.size());
+            for (Object element : ParallelCopier.convert(src.toArray(), () -> new ElementCopier<>(dest_clazz, _cp)::copy)) {
+                result.add((D) element);
+            }
+            return result;
+        }
+        ElementCopier<D> copier = new ElementCopier<>(dest_clazz, _cp);
+        List<D> result = new ArrayList<>(src.size());
+        for (S element : src) {
+            result.add(copier.copy(element));
+        }
+        return result;
+    }
+
+    /**
+     * 批量复制实体类数组，同{@link #copyAll(Collection, Class, CopyParam)}
+     *
+     * @param src        源对象数组
+     * @param dest_clazz 目标类
+     * @param cp         拷贝参数，为null时使用默认参数
+     * @return 目标对象数组
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, D> D[] copyAll(S[] src, Class<D> dest_clazz, CopyParam cp) {
+        if (dest_clazz == null) {
+            throw new IllegalArgumentException("参数dest_clazz不能为空！");
+        }
+        if (src == null) {
+            log.warn("被复制数组为空，停止复制。");
+            return (D[]) Array.newInstance(dest_clazz, 0);
+        }
+        CopyParam _cp = cp != null ? cp : new CopyParam();
+        D[] result = (D[]) Array.newInstance(dest_clazz, src.length);
+        if (_cp.copyFeature.isEnabled(CopyFeature.PARALLEL) && ParallelCopier.isParallelizable(src.length)) {
+            Object[] converted = ParallelCopier.convert(src, () -> new ElementCopier<>(dest_clazz, _cp)::copy);
+            System.arraycopy(converted, 0, result, 0, converted.length);
+            return result;
+        }
+        ElementCopier<D> copier = new ElementCopier<>(dest_clazz, _cp);
+        for (int i = 0; i < src.length; i++) {
+            result[i] = copier.copy(src[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 在{@link CopyConfig#getAsyncExecutor()}上异步复制
+     *
+     * @param target 目标对象
+     * @param source 源对象
+     * @param cp     拷贝参数，为null时使用默认参数
+     * @return 复制完成后得到目标对象
+     */
+    @SuppressWarnings("unchecked")
+    public static <D> CompletableFuture<D> copyAsync(D target, Object source, CopyParam cp) {
+        return CompletableFuture.supplyAsync(() -> (D) copy(target, source, cp), CopyConfig.getAsyncExecutor());
+    }
+
+    /**
+     * 在{@link CopyConfig#getAsyncExecutor()}上异步批量复制，同{@link #copyAll(Collection, Class, CopyParam)}
+     *
+     * @param src        源对象集合，复制完成前不能修改
+     * @param dest_clazz 目标类
+     * @param cp         拷贝参数，为null时使用默认参数
+     * @return 复制完成后得到目标对象List
+     */
+    public static <S, D> CompletableFuture<List<D>> copyAllAsync(Collection<? extends S> src, Class<D> dest_clazz, CopyParam cp) {
+        return CompletableFuture.supplyAsync(() -> copyAll(src, dest_clazz, cp), CopyConfig.getAsyncExecutor());
+    }
+
+    /**
+     * 惰性复制Stream，只有下游消费到某个元素时才复制该元素
+     * <br/>
+     * 保留源Stream的SIZED、ORDERED等特征和并行状态，关闭返回的Stream时关闭源Stream
+     *
+     * @param src        源对象Stream
+     * @param dest_clazz 目标类
+     * @param cp         拷贝参数，为null时使用默认参数
+     * @return 目标对象Stream，源元素为null时对应元素也为null
+     */
+    public static <S, D> Stream<D> copyStream(Stream<? extends S> src, Class<D> dest_clazz, CopyParam cp) {
+        if (!ObjectUtils.allNotNull(src, dest_clazz)) {
+            throw new IllegalArgumentException("参数src和dest_clazz不能为空！");
+        }
+        CopySpliterator<D> spliterator = new CopySpliterator<>(src.spliterator(), dest_clazz, cp != null ? cp : new CopyParam());
+        return StreamSupport.stream(spliterator, src.isParallel()).onClose(src::close);
+    }
+
+    /**
+     * 惰性复制Iterator，每次next时复制一个元素，同{@link #copyStream(Stream, Class, CopyParam)}
+     *
+     * @param src        源对象Iterator
+     * @param dest_clazz 目标类
+     * @param cp         拷贝参数，为null时使用默认参数
+     * @return 目标对象Iterator，不支持remove
+     */
+    public static <S, D> Iterator<D> copyIterator(Iterator<? extends S> src, Class<D> dest_clazz, CopyParam cp) {
+        if (!ObjectUtils.allNotNull(src, dest_clazz)) {
+            throw new IllegalArgumentException("参数src和dest_clazz不能为空！");
+        }
+        return Spliterators.iterator(new CopySpliterator<>(Spliterators.spliteratorUnknownSize(src, Spliterator.ORDERED),
+                dest_clazz, cp != null ? cp : new CopyParam()));
+    }
+
+    /**
+     * 实体类转Map，嵌套的实体类转为嵌套的Map，详见{@link MapBinder}
+     *
+     * @param bean 实体类对象
+     * @return 按字段顺序排列的Map
+     */
+    public static Map<String, Object> toMap(Object bean) {
+        return toMap(bean, false, null);
+    }
+
+    /**
+     * 实体类转Map，不经过JSON序列化
+     *
+     * @param bean    实体类对象
+     * @param flatten 为true时嵌套的实体类展开为点分隔的键，例如address.city
+     * @param cp      拷贝参数，为null时使用默认参数
+     * @return 按字段顺序排列的Map
+     */
+    public static Map<String, Object> toMap(Object bean, boolean flatten, CopyParam cp) {
+        if (bean == null) {
+            throw new IllegalArgumentException("参数bean不能为空！");
+        }
+        return MapBinder.toMap(bean, flatten, cp);
+    }
+
+    /**
+     * Map转实体类，详见{@link MapBinder}
+     *
+     * @param map   键为字段名称
+     * @param clazz 实体类
+     * @return 实体类对象
+     */
+    public static <D> D fromMap(Map<String, ?> map, Class<D> clazz) {
+        return fromMap(map, clazz, null);
+    }
+
+    /**
+     * Map转实体类，不经过JSON序列化；值按复制时的规则转为字段类型，无法转换时抛出IllegalArgumentException
+     *
+     * @param map   键为字段名称，嵌套的实体类可以是嵌套的Map，也可以是点分隔的键
+     * @param clazz 实体类
+     * @param cp    拷贝参数，为null时使用默认参数
+     * @return 实体类对象
+     */
+    public static <D> D fromMap(Map<String, ?> map, Class<D> clazz, CopyParam cp) {
+        if (!ObjectUtils.allNotNull(map, clazz)) {
+            throw new IllegalArgumentException("参数map和clazz不能为空！");
+        }
+        return MapBinder.fromMap(map, clazz, cp);
+    }
+
+    /**
+     * 预热一对类：提前解析两个类的字段、注解，生成拷贝计划，并按当前拷贝引擎生成拷贝器，避免第一次复制时耗时过长
+     * <br/>
+     * 两个类都有无参构造方法时，还会用新建的对象试复制一次
+     *
+     * @param src_clazz  源类
+     * @param dest_clazz 目标类
+     * @param cp         拷贝参数，与实际复制时使用的拷贝参数一致时才能命中同一个拷贝计划
+     * @return 耗时(纳秒)
+     */
+    public static long warmUp(Class<?> src_clazz, Class<?> dest_clazz, CopyParam... cp) {
+        if (!ObjectUtils.allNotNull(src_clazz, dest_clazz)) {
+            throw new IllegalArgumentException("参数src_clazz和dest_clazz不能为空！");
+        }
+        long start = System.nanoTime();
+        CopyParam _cp = ObjectUtils.isNotEmpty(cp) && cp[0] != null ? cp[0] : new CopyParam();
+        if (CopyConfig.isCompiledCopierEnabled()) {
+            CompiledCopierCache.getCopier(src_clazz, dest_clazz);
+        }
+        try {
+            Map<String, FieldDefinition> serial_dest_fd_map = warmUpFields(dest_clazz.getClassLoader(), dest_clazz);
+            Map<String, FieldDefinition> serial_src_fd_map = warmUpFields(src_clazz.getClassLoader(), src_clazz);
+            CopyPlan plan = CopyPlanCache.getCopyPlan(dest_clazz, src_clazz, serial_dest_fd_map, serial_src_fd_map, _cp);
+            CopyEngine engine = CopyConfig.getCopyEngine();
+            if (engine == CopyEngine.BYTECODE) {
+                CopierCache.getCopier(plan);
+            } else if (engine == CopyEngine.METHOD_HANDLE) {
+                CopierCache.getMethodHandleCopier(plan);
+            }
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        // 字段读写器第一次调用时才链接，用新建的对象试复制一次
+        try {
+            copy(ClassUtil.newInstance(dest_clazz), ClassUtil.newInstance(src_clazz), _cp);
+        } catch (Exception e) {
+            log.debug("预热[" + src_clazz.getName() + " -> " + dest_clazz.getName() + "]时试复制失败: " + e.getMessage());
+        }
+        long cost = System.nanoTime() - start;
+        log.info("预热[" + src_clazz.getName() + " -> " + dest_clazz.getName() + "]耗时" + TimeUnit.NANOSECONDS.toMillis(cost) + "ms");
+        return cost;
+    }
+
+    /**
+     * 扫描包中字段上标注了{@link EnumFormat}或者{@link TimeFormat}的类，并行预热这些类的字段、注解以及字段的运行时类型
+     * <br/>
+     * 拷贝计划需要成对的类，请再调用{@link #warmUp(Class, Class, CopyParam...)}
+     *
+     * @param packages 包名
+     * @return 每个类的预热耗时(纳秒)，按类名排序
+     */
+    public static Map<Class<?>, Long> warmUp(String... packages) {
+        Set<Class<?>> classes = ClassScanUtil.findCopyAnnotatedClasses(packages);
+        Map<Class<?>, Long> costs = new ConcurrentHashMap<>();
+        classes.parallelStream().forEach(clazz -> {
+            long start = System.nanoTime();
+            try {
+                warmUpFields(clazz.getClassLoader(), clazz);
+            } catch (ClassNotFoundException | RuntimeException e) {
+                log.warn("预热类[" + clazz.getName() + "]失败: " + e.getMessage());
+            }
+            costs.put(clazz, System.nanoTime() - start);
+        });
+        Map<Class<?>, Long> result = new LinkedHashMap<>();
+        long total = 0;
+        for (Class<?> clazz : classes) {
+            long cost = costs.get(clazz);
+            result.put(clazz, cost);
+            total += cost;
+            log.info("预热类[" + clazz.getName() + "]耗时" + TimeUnit.NANOSECONDS.toMicros(cost) + "us");
+        }
+        log.info("预热" + classes.size() + "个类，累计耗时" + TimeUnit.NANOSECONDS.toMillis(total) + "ms");
+        return result;
+    }
+
+    /**
+     * 解析类的可序列化字段，以及带范型字段的运行时类型
+     */
+    private static Map<String, FieldDefinition> warmUpFields(ClassLoader classLoader, Class<?> clazz) throws ClassNotFoundException {
+        TypeDefinition type_def = ClassUtil.parseType(clazz);
+        Map<String, FieldDefinition> serial_fd_map = CopyableFieldsCache.getSerialFieldDefinitions(classLoader, type_def);
+        for (FieldDefinition fd : serial_fd_map.values()) {
+            if (fd.isGeneric || fd.data_type == DataTypeEnum.Collection || fd.data_type == DataTypeEnum.Map) {
+                try {
+                    ClassUtil.getRuntimeTypeDefinition(fd);
+                } catch (ClassNotFoundException | RuntimeException e) {
+                    // 复制时再按实际情况处理
+                }
+            }
+        }
+        return serial_fd_map;
+    }
+
     public static Object parsePrimitiveOrWrapperOrStringType(Object _f_src_val,Class _dest_clazz){
         if (Character.class.isAssignableFrom(_dest_clazz)) {
             if (String.valueOf(_f_src_val).length() > 1) {
@@ -0,0 +1,47 @@
+package com.cyser.base.utils;
+
+import com.cyser.base.annotations.EnumFormat;
+import com.cyser.base.annotations.TimeFormat;
+import org.apache.commons.lang3.ObjectUtils;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.lang.reflect.Field;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 类扫描工具，基于org.reflections
+ * <br/>
+ * 单独放在一个类中，不使用扫描时不需要加载org.reflections
+ */
+public class ClassScanUtil {
+
+    private ClassScanUtil() {
+    }
+
+    /**
+     * 扫描包中字段上标注了{@link EnumFormat}或者{@link TimeFormat}的类
+     *
+     * @param packages 包名
+     * @return 按类名排序的类
+     */
+    public static Set<Class<?>> findCopyAnnotatedClasses(String... packages) {
+        if (ObjectUtils.isEmpty(packages)) {
+            throw new IllegalArgumentException("扫描的包不能为空！");
+        }
+        Reflections reflections = new Reflections(new ConfigurationBuilder()
+                .forPackages(packages)
+                .setScanners(Scanners.FieldsAnnotated));
+        Set<Class<?>> classes = new TreeSet<>(Comparator.comparing(Class::getName));
+        for (Field field : reflections.getFieldsAnnotatedWith(EnumFormat.class)) {
+            classes.add(field.getDeclaringClass());
+        }
+        for (Field field : reflections.getFieldsAnnotatedWith(TimeFormat.class)) {
+            classes.add(field.getDeclaringClass());
+        }
+        return classes;
+    }
+}
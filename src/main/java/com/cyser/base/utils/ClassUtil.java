@@ -1,22 +1,24 @@
 package com.cyser.base.utils;
 
+import com.cyser.base.accessor.FieldAccessorFactory;
 import com.cyser.base.annotations.EnumFormat;
 import com.cyser.base.annotations.TimeFormat;
 import com.cyser.base.annotations.Timemode;
+import com.cyser.base.bean.ClassMetadata;
 import com.cyser.base.bean.EnumInfo;
 import com.cyser.base.bean.FieldDefinition;
 import com.cyser.base.bean.TypeDefinition;
-import com.cyser.base.classloader.ByteBuddyClassLoader;
+import com.cyser.base.cache.ClassMetadataCache;
+import com.cyser.base.cache.CollectionFactoryCache;
+import com.cyser.base.cache.MapFactoryCache;
 import com.cyser.base.enums.ClassTypeEnum;
 import com.cyser.base.enums.DataTypeEnum;
 import com.cyser.base.enums.TimeMode;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.type.ParameterizedTypeImpl;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.*;
-import net.bytebuddy.ByteBuddy;
-import net.bytebuddy.description.modifier.Visibility;
-import net.bytebuddy.description.type.TypeDescription;
-import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.AnnotationUtils;
 import org.apache.commons.lang3.ClassUtils;
@@ -29,6 +31,9 @@ import java.lang.reflect.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 public class ClassUtil {
 
@@ -37,7 +42,12 @@ public class ClassUtil {
 
     public static final Integer DEFAULT_HASHCODE=-999999999;
 
-    private static Table<Integer,String,Map<String,Field>> FIELD_CACHE = HashBasedTable.create();
+    /**
+     * 非Class类型(ParameterizedType等)的类型定义缓存，按类型结构比较；
+     * <br/>
+     * Class类型的定义存放在{@link ClassMetadata}中。这里只弱引用定义，不再被字段定义引用时自动清除
+     */
+    private static final ConcurrentMap<Type,TypeDefinition> TYPE_DEF_CACHE = new MapMaker().weakValues().makeMap();
 
     /**
      * 判断一个类是否有范型,例如<br/>
@@ -141,34 +151,43 @@ public class ClassUtil {
      * @param clazz
      * @return
      */
-    public static synchronized Map<String, Field> getAllFieldsMap(ClassLoader classLoader,Class clazz) throws ClassNotFoundException {
-        String cache_key=clazz.getName();
-        ClassLoader curr_classLoader=clazz.getClassLoader();
-        if(classLoader!=null&&curr_classLoader!=null&&classLoader!=clazz.getClassLoader()){
-            clazz=classLoader.loadClass(clazz.getName());
-        }
-        Integer hashCode=classLoader==null?DEFAULT_HASHCODE:classLoader.hashCode();
-        Map<String, Field> map = FIELD_CACHE.get(hashCode,cache_key);
+    public static Map<String, Field> getAllFieldsMap(ClassLoader classLoader,Class clazz) throws ClassNotFoundException {
+        clazz=loadClass(classLoader,clazz);
+        AtomicReference<Map<String, Field>> ref = ClassMetadataCache.get(clazz).all_fields_map;
+        Map<String, Field> map = ref.get();
         if (map == null) {
-            synchronized (ClassUtil.class){
-                map = FIELD_CACHE.get(classLoader,cache_key);
-                if(map==null){
-                    map=new HashMap<>();
-                    Class<?> currentClass = clazz;
-                    while (currentClass != null) {
-                        final Field[] declaredFields = currentClass.getDeclaredFields();
-                        for (Field field : declaredFields) {
-                            if (!map.containsKey(field.getName())) map.put(field.getName(), field);
-                        }
-                        currentClass = currentClass.getSuperclass();
-                    }
-                    FIELD_CACHE.put(hashCode,cache_key,map);
+            map=new HashMap<>();
+            Class<?> currentClass = clazz;
+            while (currentClass != null) {
+                final Field[] declaredFields = currentClass.getDeclaredFields();
+                for (Field field : declaredFields) {
+                    if (!map.containsKey(field.getName())) map.put(field.getName(), field);
                 }
+                currentClass = currentClass.getSuperclass();
+            }
+            if (!ref.compareAndSet(null, map)) {
+                map = ref.get();
             }
         }
         return map;
     }
 
+    /**
+     * 如果类不是由指定的类加载器加载的，使用该类加载器重新加载
+     *
+     * @param classLoader 类加载器，为null时不处理
+     * @param clazz
+     * @return
+     * @throws ClassNotFoundException
+     */
+    public static Class loadClass(ClassLoader classLoader,Class clazz) throws ClassNotFoundException {
+        ClassLoader curr_classLoader=clazz.getClassLoader();
+        if(classLoader!=null&&curr_classLoader!=null&&classLoader!=curr_classLoader){
+            clazz=classLoader.loadClass(clazz.getName());
+        }
+        return clazz;
+    }
+
     /**
      * 检查一个Class是否可以分配给另一个Class的变量
      *
@@ -252,7 +271,44 @@ public class ClassUtil {
         return clazz.isArray();
     }
 
+    /**
+     * 解析类型定义，结果按类型缓存
+     * <br/>
+     * 相同结构的类型（ParameterizedType、GenericArrayType、WildcardType按equals比较）在定义仍被使用时返回同一个实例，
+     * 返回的定义是共享的，调用方不要修改
+     *
+     * @param type
+     * @return
+     * @throws ClassNotFoundException
+     */
     public static TypeDefinition parseType(Type type) throws ClassNotFoundException {
+        if (type == null) {
+            throw new RuntimeException("未识别的类型: [null]");
+        }
+        if (type instanceof Class) {
+            AtomicReference<TypeDefinition> ref = ClassMetadataCache.get((Class) type).type_def;
+            TypeDefinition td = ref.get();
+            if (td == null) {
+                td = createTypeDefinition(type);
+                if (!ref.compareAndSet(null, td)) {
+                    td = ref.get();
+                }
+            }
+            return td;
+        }
+        TypeDefinition td = TYPE_DEF_CACHE.get(type);
+        if (td == null) {
+            // 解析过程会递归调用parseType，不能放在computeIfAbsent里
+            td = createTypeDefinition(type);
+            TypeDefinition exist = TYPE_DEF_CACHE.putIfAbsent(type, td);
+            if (exist != null) {
+                td = exist;
+            }
+        }
+        return td;
+    }
+
+    private static TypeDefinition createTypeDefinition(Type type) throws ClassNotFoundException {
         TypeDefinition td = new TypeDefinition();
         td.raw_type = type;
         td.class_type = ClassTypeEnum.valueOf(type);
@@ -264,7 +320,7 @@ public class ClassUtil {
         if (td.class_type == ClassTypeEnum.ParameterizedType) {
             td.isGeneric = true;
             ParameterizedType parameter_type = (ParameterizedType) type;
-            td.runtime_class = Class.forName(parameter_type.getRawType().getTypeName());
+            td.runtime_class = (Class) parameter_type.getRawType();//直接使用原始类型，按名称加载会用错类加载器
             Type[] actualTypeArguments = parameter_type.getActualTypeArguments();
             TypeDefinition[] parameter_type_Defines = new TypeDefinition[actualTypeArguments.length];
             TypeVariable[] typeVariables= td.runtime_class.getTypeParameters();
@@ -273,7 +329,7 @@ public class ClassUtil {
                 parameter_type_Defines[i] = parseType(actualTypeArguments[i]);
                 parameter_type_corresponds.put(typeVariables[i].getName(),parameter_type_Defines[i].runtime_class);
             }
-            td.parameter_type_corresponds=parameter_type_corresponds;
+            td.parameter_type_corresponds=Collections.unmodifiableMap(parameter_type_corresponds);
             td.parameter_type_Defines = parameter_type_Defines;
         } else if (td.class_type == ClassTypeEnum.Class) {
             Class clazz = (Class) type;
@@ -282,10 +338,11 @@ public class ClassUtil {
             //判断是否是数组
             if (clazz.getComponentType() != null) {
                 td.isArray = true;
+                td.runtime_class = clazz;
                 TypeDefinition componetClassDefine = parseType(clazz.getComponentType());
                 td.componetClassDefine = componetClassDefine;
             } else {
-                td.runtime_class = Class.forName(td.raw_type.getTypeName());
+                td.runtime_class = clazz;
                 td.isSerializable = isSerializableClass(td.runtime_class);
                 // 判断是否是基本类型
                 td.isPrimitive = td.runtime_class.isPrimitive();
@@ -300,7 +357,7 @@ public class ClassUtil {
                         parameter_type_corresponds.put(typeVariables[i].getName(),Object.class);
                     }
                 }
-                td.parameter_type_corresponds=parameter_type_corresponds;
+                td.parameter_type_corresponds=Collections.unmodifiableMap(parameter_type_corresponds);
             }
         } else if (td.class_type == ClassTypeEnum.GenericArrayType) {
             td.isGeneric = true;
@@ -308,6 +365,11 @@ public class ClassUtil {
             GenericArrayType genricArrayType = (GenericArrayType) type;
             Type genericComponentType = genricArrayType.getGenericComponentType();
             td.genericComponentType = parseType(genericComponentType);
+            if (td.genericComponentType.class_type == ClassTypeEnum.Class || td.genericComponentType.class_type == ClassTypeEnum.ParameterizedType) {
+                td.runtime_class = Array.newInstance(td.genericComponentType.runtime_class, 0).getClass();
+            } else {
+                td.runtime_class = Object[].class;
+            }
         } else if (td.class_type == ClassTypeEnum.WildcardType) {
             td.isGeneric = true;
             WildcardType wildcardType = (WildcardType) type;
@@ -327,40 +389,32 @@ public class ClassUtil {
     }
 
     /**
-     * 假如一个类中字段定义为List&lt;T&gt; list,T在运行中类型为String.class,我们对该字段生成
+     * 假如一个类中字段定义为List&lt;T&gt; list,T在运行中类型为String.class,我们对该字段构造
      * <br/>
-     * 一个临时的新字段List&lt;String&gt; list
+     * 一个运行时类型List&lt;String&gt;
      * @param field_def
      * @return
      */
     public static Type generateRuntimeField(FieldDefinition field_def) {
-        Field field=field_def.field;
-        Class declaredClazz=field.getDeclaringClass();
         if(field_def.isGeneric){
-            String raw_class_name=declaredClazz.getName();
-            ByteBuddyClassLoader classLoader=new ByteBuddyClassLoader();
-            int index=raw_class_name.lastIndexOf("$");
-            String tmpClassName=raw_class_name+Thread.currentThread().getId();
-            if(index>0){
-                tmpClassName=raw_class_name.substring(+1)+Thread.currentThread().getId();
-            }
-            TypeDescription.Generic generic = TypeDescription.Generic.Builder
-                    .parameterizedType(field_def.runtime_class, field_def.parameter_Type_classes).build();
-            Class loaded = new ByteBuddy().subclass(Object.class).name(classLoader.getBasePackage()+"."+tmpClassName)
-                    .defineField(field.getName(), generic, Visibility.PRIVATE).make()
-                    .load(classLoader, ClassLoadingStrategy.Default.INJECTION).getLoaded();
-            Field temp_field = null;
-            try {
-                temp_field = loaded.getDeclaredField(field.getName());
-            } catch (NoSuchFieldException e) {
-                throw new RuntimeException(e);
-            }
-            Type fieldType = temp_field.getGenericType();
-            loaded=null;
-            return fieldType;
+            return new ParameterizedTypeImpl(field_def.runtime_class, field_def.parameter_Type_classes);
         }
         return field_def.raw_type;
+    }
 
+    /**
+     * 获取字段运行时类型的类型定义，第一次获取时解析，之后直接返回
+     * @param field_def
+     * @return
+     * @throws ClassNotFoundException
+     */
+    public static TypeDefinition getRuntimeTypeDefinition(FieldDefinition field_def) throws ClassNotFoundException {
+        TypeDefinition runtime_type_def=field_def.runtime_type_def;
+        if(runtime_type_def==null){
+            runtime_type_def=parseType(generateRuntimeField(field_def));
+            field_def.runtime_type_def=runtime_type_def;
+        }
+        return runtime_type_def;
     }
 
     /**
@@ -375,6 +429,7 @@ public class ClassUtil {
         FieldDefinition fd = new FieldDefinition();
         if (!field.isAccessible()) field.setAccessible(true);
         fd.field = field;
+        fd.accessor = FieldAccessorFactory.create(field, CopyConfig.getFieldAccessorType());
         fd.raw_type = type;
         fd.genericType = generic_type;
         fd.raw_Type_class = ClassUtils.getClass(type.getTypeName());
@@ -488,6 +543,61 @@ public class ClassUtil {
         return fd;
     }
 
+    /**
+     * 创建集合实例，按元素数量预分配容量
+     * <br>
+     * 集合类型由{@link CollectionFactoryCache}中注册的集合工厂创建，没有注册的具体类使用默认构造方法
+     * @param clazz 集合类
+     * @param size  预计的元素数量
+     * @return
+     */
+    public static Collection newCollection(Class clazz, int size) {
+        return CollectionFactoryCache.newCollection(clazz, size, null);
+    }
+
+    /**
+     * 获取类的实例创建方法，缓存在类元数据上
+     * <br>
+     * 有默认构造方法的类直接调用构造方法，内部类、集合等交给{@link #newInstance(Class)}
+     * @param clazz
+     * @return
+     */
+    public static Supplier<Object> getInstantiator(Class clazz) {
+        ClassMetadata metadata = ClassMetadataCache.get(clazz);
+        Supplier<Object> instantiator = metadata.instantiator;
+        if (instantiator == null) {
+            instantiator = createInstantiator(clazz);
+            metadata.instantiator = instantiator;
+        }
+        return instantiator;
+    }
+
+    private static Supplier<Object> createInstantiator(Class clazz) {
+        boolean isInnerClass = clazz.isMemberClass() && !Modifier.isStatic(clazz.getModifiers());
+        if (!isInnerClass && !isCollection(clazz) && !isMap(clazz)) {
+            try {
+                Constructor<?> constructor = clazz.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return () -> {
+                    try {
+                        return constructor.newInstance();
+                    } catch (ReflectiveOperationException e) {
+                        throw new RuntimeException(e);
+                    }
+                };
+            } catch (NoSuchMethodException | RuntimeException e) {
+                // 没有默认构造方法或者无法访问，交给newInstance处理
+            }
+        }
+        return () -> {
+            try {
+                return newInstance(clazz);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
     /**
      * 根据Class生成对象实例
      * <br>
@@ -508,21 +618,14 @@ public class ClassUtil {
             constructor.setAccessible(true);
             return constructor.newInstance(outObj);
         }else if(isCollection(clazz)){
-            if(List.class.isAssignableFrom(clazz)){
-                return Lists.newArrayList();
-            }
-            if(Set.class.isAssignableFrom(clazz)){
-                return Sets.newHashSet();
-            }
-            if(Queue.class.isAssignableFrom(clazz)){
-                return Queues.newArrayDeque();
-            }
+            return newCollection(clazz, 0);
+        }else if(isMap(clazz)){
+            return MapFactoryCache.newMap(clazz, 0, null);
         }else{
             Constructor<?> constructor = clazz.getDeclaredConstructor();
             constructor.setAccessible(true);
             // 创建对象实例
             return constructor.newInstance();
         }
-        throw new RuntimeException("该类型"+clazz.getName()+"不支持生成实例！");
     }
 }
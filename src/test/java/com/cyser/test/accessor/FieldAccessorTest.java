@@ -0,0 +1,52 @@
+package com.cyser.test.accessor;
+
+import com.cyser.base.accessor.FieldAccessor;
+import com.cyser.base.accessor.FieldAccessorFactory;
+import com.cyser.base.enums.FieldAccessorType;
+import com.cyser.test.copier.Order;
+
+import java.lang.reflect.Field;
+
+/**
+ * 比较各种字段读写方式的耗时
+ */
+public class FieldAccessorTest {
+
+    private static final int WARM_UP = 1_000_000;
+
+    private static final int TIMES = 20_000_000;
+
+    private static long test(FieldAccessorType type) throws NoSuchFieldException {
+        Field code_field = Order.class.getDeclaredField("code");
+        Field amount_field = Order.class.getDeclaredField("amount");
+        FieldAccessor code = FieldAccessorFactory.create(code_field, type);
+        FieldAccessor amount = FieldAccessorFactory.create(amount_field, type);
+        Order src = new Order();
+        src.setCode("NO.20230801");
+        src.setAmount(3);
+        Order target = new Order();
+        for (int i = 0; i < WARM_UP; i++) {
+            code.set(target, code.get(src));
+            amount.set(target, amount.get(src));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMES; i++) {
+            code.set(target, code.get(src));
+            amount.set(target, amount.get(src));
+        }
+        long cost = System.nanoTime() - start;
+        if (!src.getCode().equals(target.getCode()) || src.getAmount() != target.getAmount()) {
+            throw new IllegalStateException(type + "复制结果不正确");
+        }
+        return cost / TIMES;
+    }
+
+    public static void main(String[] args) throws NoSuchFieldException {
+        System.out.println("default:" + FieldAccessorFactory.getDefaultType());
+        for (FieldAccessorType type : FieldAccessorType.values()) {
+            if (FieldAccessorFactory.isSupported(type)) {
+                System.out.println(type + ":" + test(type) + "ns/op");
+            }
+        }
+    }
+}
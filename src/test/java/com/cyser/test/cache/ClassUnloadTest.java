@@ -0,0 +1,112 @@
+package com.cyser.test.cache;
+
+import com.cyser.base.enums.CopyEngine;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.utils.BeanUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 模拟热部署：在独立的类加载器中加载实体类并复制，丢弃类加载器后，缓存不应阻止其被回收
+ * <br/>
+ * 分两种情况：源类和目标类都由独立的类加载器加载；源类由应用类加载器加载(共用的类)，只有目标类由独立的类加载器加载
+ */
+public class ClassUnloadTest {
+
+    private static final String PACKAGE = "com.cyser.test.copier.";
+
+    /**
+     * 每次部署的复制次数，超过分层拷贝引擎的阈值
+     */
+    private static final int TIMES = 20_000;
+
+    /**
+     * 自己加载指定测试实体类的类加载器，其它类交给父加载器
+     */
+    public static class TenantClassLoader extends ClassLoader {
+
+        private final Set<String> names;
+
+        /**
+         * 自己加载Order和OrderDTO
+         */
+        public TenantClassLoader(ClassLoader parent) {
+            this(parent, new HashSet<>(Arrays.asList(PACKAGE + "Order", PACKAGE + "OrderDTO")));
+        }
+
+        public TenantClassLoader(ClassLoader parent, Set<String> names) {
+            super(parent);
+            this.names = names;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!names.contains(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null) {
+                    try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        byte[] buf = new byte[4096];
+                        int n;
+                        while ((n = in.read(buf)) > 0) {
+                            out.write(buf, 0, n);
+                        }
+                        byte[] bytes = out.toByteArray();
+                        c = defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                return c;
+            }
+        }
+    }
+
+    /**
+     * @param shared_source 为true时源类使用应用类加载器中的Order
+     */
+    private static WeakReference<ClassLoader> deploy(boolean shared_source) throws Exception {
+        Set<String> names = new HashSet<>();
+        names.add(PACKAGE + "OrderDTO");
+        if (!shared_source) {
+            names.add(PACKAGE + "Order");
+        }
+        ClassLoader classLoader = new TenantClassLoader(ClassUnloadTest.class.getClassLoader(), names);
+        Object order = classLoader.loadClass(PACKAGE + "Order").getDeclaredConstructor().newInstance();
+        Object dto = classLoader.loadClass(PACKAGE + "OrderDTO").getDeclaredConstructor().newInstance();
+        for (int i = 0; i < TIMES; i++) {
+            BeanUtil.copy(dto, order);
+        }
+        return new WeakReference<>(classLoader);
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean leaked = false;
+        for (boolean shared_source : new boolean[]{false, true}) {
+            for (CopyEngine engine : CopyEngine.values()) {
+                CopyConfig.setCopyEngine(engine);
+                WeakReference<ClassLoader> ref = deploy(shared_source);
+                for (int i = 0; i < 10 && ref.get() != null; i++) {
+                    System.gc();
+                    Thread.sleep(100);
+                }
+                String mode = shared_source ? "共用源类 " : "";
+                System.out.println(mode + engine + (ref.get() == null ? " 类加载器已回收" : " 类加载器未回收，存在泄漏"));
+                leaked |= ref.get() != null;
+            }
+        }
+        CopyConfig.setCopyEngine(CopyEngine.REFLECT);
+        if (leaked) {
+            throw new IllegalStateException("丢弃的类加载器没有被回收");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.cyser.test.cache;
+
+import com.cyser.base.bean.TypeDefinition;
+import com.cyser.base.cache.CollectionFactoryCache;
+import com.cyser.base.type.TypeReference;
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.base.utils.ClassUtil;
+import com.cyser.test.copier.Order;
+import com.cyser.test.copier.OrderDTO;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 按声明的集合类型生成目标集合：保留LinkedHashSet、CopyOnWriteArrayList、Guava不可变集合等类型
+ */
+public class CollectionFactoryTest {
+
+    private static Object copy(Object target, Object src, Type dest_type, Type src_type) throws Exception {
+        TypeDefinition dest_def = ClassUtil.parseType(dest_type);
+        TypeDefinition src_def = ClassUtil.parseType(src_type);
+        return BeanUtil.copy(target, src, dest_def, src_def);
+    }
+
+    private static void print(String name, Object result) {
+        Collection collection = (Collection) result;
+        System.out.println(name + ": " + result.getClass().getName() + " size=" + collection.size());
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Order> orders = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            Order order = new Order();
+            order.setId(i);
+            order.setCode("NO." + i);
+            order.setCreated(new Date());
+            orders.add(order);
+        }
+        Type src_type = new TypeReference<List<Order>>() {}.getType();
+        print("LinkedHashSet", copy(null, orders, new TypeReference<LinkedHashSet<OrderDTO>>() {}.getType(), src_type));
+        print("TreeSet", copy(null, Arrays.asList("3", "1", "2"), new TypeReference<TreeSet<Integer>>() {}.getType(),
+                new TypeReference<List<String>>() {}.getType()));
+        print("CopyOnWriteArrayList", copy(null, orders, new TypeReference<CopyOnWriteArrayList<OrderDTO>>() {}.getType(), src_type));
+        print("ImmutableList", copy(null, orders, new TypeReference<ImmutableList<OrderDTO>>() {}.getType(), src_type));
+        print("ImmutableSet", copy(null, orders, new TypeReference<ImmutableSet<OrderDTO>>() {}.getType(), src_type));
+        // 已有的不可变目标集合，保留原有元素
+        print("ImmutableList+", copy(ImmutableList.of(new OrderDTO()), orders, new TypeReference<ImmutableList<OrderDTO>>() {}.getType(), src_type));
+        print("unmodifiableList+", copy(Collections.unmodifiableList(Collections.singletonList(new OrderDTO())), orders,
+                new TypeReference<List<OrderDTO>>() {}.getType(), src_type));
+        // 已有的可修改目标集合，直接加入
+        List<OrderDTO> existing = new ArrayList<>();
+        existing.add(new OrderDTO());
+        Object result = copy(existing, orders, new TypeReference<List<OrderDTO>>() {}.getType(), src_type);
+        print("ArrayList+ same=" + (result == existing), result);
+        // 已经解析过的类型重新注册后使用新的工厂
+        Type stack_type = new TypeReference<Stack<OrderDTO>>() {}.getType();
+        print("Stack", copy(null, orders, stack_type, src_type));
+        CollectionFactoryCache.register(Stack.class, (size, element_clazz) -> new Stack<OrderDTO>() {
+        });
+        Object stack = copy(null, orders, stack_type, src_type);
+        if (stack.getClass() == Stack.class) {
+            throw new IllegalStateException("重新注册的集合工厂没有生效");
+        }
+        print("Stack registered", stack);
+    }
+}
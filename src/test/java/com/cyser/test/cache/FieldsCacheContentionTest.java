@@ -0,0 +1,62 @@
+package com.cyser.test.cache;
+
+import com.cyser.base.bean.TypeDefinition;
+import com.cyser.base.cache.CopyableFieldsCache;
+import com.cyser.base.utils.ClassUtil;
+import com.cyser.test.copier.Order;
+import com.cyser.test.copier.OrderDTO;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 多线程读取字段缓存的吞吐量，缓存命中时不加锁，吞吐量应随线程数线性增长
+ */
+public class FieldsCacheContentionTest {
+
+    private static final int TIMES = 5_000_000;
+
+    private static long test(int threads) throws InterruptedException {
+        ClassLoader classLoader = FieldsCacheContentionTest.class.getClassLoader();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch end = new CountDownLatch(threads);
+        AtomicLong sink = new AtomicLong();
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    TypeDefinition order_def = ClassUtil.parseType(Order.class);
+                    TypeDefinition dto_def = ClassUtil.parseType(OrderDTO.class);
+                    long size = 0;
+                    start.await();
+                    for (int i = 0; i < TIMES; i++) {
+                        size += CopyableFieldsCache.getSerialFieldDefinitions(classLoader, order_def).size();
+                        size += ClassUtil.getAllFieldsMap(classLoader, OrderDTO.class).size();
+                        size += ClassUtil.parseType(dto_def.runtime_class) == dto_def ? 1 : 0;
+                    }
+                    sink.addAndGet(size);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    end.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        end.await();
+        long cost = System.nanoTime() - begin;
+        if (sink.get() == 0) {
+            throw new IllegalStateException();
+        }
+        // 每秒总读取次数
+        return (long) threads * TIMES * 1_000_000_000L / cost;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        test(2);//预热
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            System.out.println(threads + " threads: " + test(threads) + " ops/s");
+        }
+    }
+}
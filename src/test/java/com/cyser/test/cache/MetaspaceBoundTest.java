@@ -0,0 +1,173 @@
+package com.cyser.test.cache;
+
+import com.cyser.base.bean.TypeDefinition;
+import com.cyser.base.cache.CopierCache;
+import com.cyser.base.enums.CopyEngine;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.type.ParameterizedTypeImpl;
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.base.utils.ClassUtil;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 大量不同的范型类型和类对反复复制，生成的类数量和元空间占用应该保持稳定
+ */
+public class MetaspaceBoundTest {
+
+    private static final int TIMES = 1_000_000;
+
+    public static class Box<T> {
+
+        public T value;
+
+        public String name;
+    }
+
+    private static final Class<?>[] ELEMENTS = {String.class, Integer.class, Long.class, Short.class, Byte.class,
+            Double.class, Float.class, Boolean.class, Character.class, BigDecimal.class, BigInteger.class,
+            Date.class, LocalDate.class, LocalDateTime.class, UUID.class, Object.class, Number.class,
+            CharSequence.class, Thread.class, StringBuilder.class};
+
+    private static final Class<?>[] WRAPPERS = {List.class, Set.class, Box.class};
+
+    /**
+     * Box<X>、Box<List<X>>、Box<Map<X,Y>>、Box<Box<List<X>>>...
+     */
+    private static List<Type> types() {
+        List<Type> element_types = new ArrayList<>();
+        for (Class<?> element : ELEMENTS) {
+            element_types.add(element);
+            for (Class<?> wrapper : WRAPPERS) {
+                element_types.add(new ParameterizedTypeImpl(wrapper, new Type[]{element}));
+            }
+            for (Class<?> value : ELEMENTS) {
+                element_types.add(new ParameterizedTypeImpl(Map.class, new Type[]{element, value}));
+            }
+        }
+        List<Type> types = new ArrayList<>();
+        for (Type element_type : element_types) {
+            Type box = new ParameterizedTypeImpl(Box.class, new Type[]{element_type});
+            types.add(box);
+            types.add(new ParameterizedTypeImpl(Box.class, new Type[]{box}));
+        }
+        return types;
+    }
+
+    private static String metaspace() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                return pool.getUsage().getUsed() / 1024 + "KB";
+            }
+        }
+        return "unknown";
+    }
+
+    private static void print(String stage) {
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        System.out.println(stage + ": metaspace=" + metaspace()
+                + ", loaded=" + classLoading.getLoadedClassCount()
+                + ", unloaded=" + classLoading.getUnloadedClassCount()
+                + ", copiers=" + CopierCache.getGeneratedCopierCount()
+                + ", evicted=" + CopierCache.getEvictedCopierCount());
+    }
+
+    private static void genericTypes() throws Exception {
+        List<Type> types = types();
+        TypeDefinition[] defs = new TypeDefinition[types.size()];
+        for (int i = 0; i < defs.length; i++) {
+            defs[i] = ClassUtil.parseType(types.get(i));
+        }
+        System.out.println("范型类型数量: " + defs.length);
+        Box<Object> source = new Box<>();
+        source.name = "box";
+        for (int i = 0; i < TIMES; i++) {
+            TypeDefinition def = defs[i % defs.length];
+            BeanUtil.copy(new Box<>(), source, def, def);
+            if ((i + 1) % (TIMES / 5) == 0) {
+                print("范型 " + (i + 1));
+            }
+        }
+    }
+
+    /**
+     * 每个类加载器中的Order、OrderDTO都是不同的类，拷贝器数量超过上限后淘汰
+     */
+    private static void classPairs(int pairs, int max) throws Exception {
+        CopyConfig.setMaxGeneratedCopiers(max);
+        Object[][] beans = new Object[pairs][];
+        for (int i = 0; i < pairs; i++) {
+            ClassLoader classLoader = new ClassUnloadTest.TenantClassLoader(MetaspaceBoundTest.class.getClassLoader());
+            beans[i] = new Object[]{classLoader.loadClass("com.cyser.test.copier.Order"),
+                    classLoader.loadClass("com.cyser.test.copier.OrderDTO")};
+        }
+        for (int round = 1; round <= 10; round++) {
+            for (Object[] pair : beans) {
+                Object order = ((Class<?>) pair[0]).getDeclaredConstructor().newInstance();
+                Object dto = ((Class<?>) pair[1]).getDeclaredConstructor().newInstance();
+                BeanUtil.copy(dto, order);
+            }
+            // 热点类对
+            for (int i = 0; i < 1000; i++) {
+                Object[] pair = beans[i % (max / 2)];
+                BeanUtil.copy(((Class<?>) pair[1]).getDeclaredConstructor().newInstance(),
+                        ((Class<?>) pair[0]).getDeclaredConstructor().newInstance());
+            }
+            if (round % 2 == 0) {
+                print("类对 第" + round + "轮");
+            }
+        }
+    }
+
+    /**
+     * 活跃的类对略多于拷贝器上限，轮流复制；被淘汰的计划调用次数达到阈值才重新生成，重新生成的次数应该有上限
+     */
+    private static void thrash(int max) throws Exception {
+        CopyConfig.setMaxGeneratedCopiers(max);
+        int pairs = max + max / 4;
+        Object[][] beans = new Object[pairs][];
+        for (int i = 0; i < pairs; i++) {
+            ClassLoader classLoader = new ClassUnloadTest.TenantClassLoader(MetaspaceBoundTest.class.getClassLoader());
+            Class<?> order_clazz = classLoader.loadClass("com.cyser.test.copier.Order");
+            Class<?> dto_clazz = classLoader.loadClass("com.cyser.test.copier.OrderDTO");
+            beans[i] = new Object[]{order_clazz.getDeclaredConstructor().newInstance(), dto_clazz};
+        }
+        long regenerated = CopierCache.getRegeneratedCopierCount();
+        int calls = pairs * 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            Object[] pair = beans[i % pairs];
+            BeanUtil.copy(((Class<?>) pair[1]).getDeclaredConstructor().newInstance(), pair[0]);
+        }
+        long cost = (System.nanoTime() - start) / calls;
+        regenerated = CopierCache.getRegeneratedCopierCount() - regenerated;
+        print("抖动 " + pairs + "个类对 " + cost + "ns/op 重新生成" + regenerated + "次");
+        if (regenerated > calls / CopyConfig.getTieredThreshold()) {
+            throw new IllegalStateException("被淘汰的拷贝器反复重新生成: " + regenerated + "次");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        CopyConfig.setCopyEngine(CopyEngine.BYTECODE);
+        print("开始");
+        genericTypes();
+        classPairs(256, 64);
+        thrash(64);
+        CopyConfig.setMaxGeneratedCopiers(4096);
+        CopyConfig.setCopyEngine(CopyEngine.REFLECT);
+    }
+}
@@ -4,9 +4,12 @@ import com.cyser.base.type.TypeReference;
 import com.cyser.base.utils.BeanUtil;
 import com.cyser.test.Boy;
 import com.cyser.test.User;
+import com.cyser.test.copier.Order;
+import com.cyser.test.copier.OrderDTO;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
@@ -28,6 +31,19 @@ public class Array2Array {
         try {
             Set<Boy> boys= (Set<Boy>) BeanUtil.copy(null, users, new TypeReference<Set<Boy>>() {},new TypeReference<List<User>>() {});
             System.out.println();
+
+            int[] ints={1,2,3};
+            long[] longs= (long[]) BeanUtil.copy(null, ints, new TypeReference<long[]>() {},new TypeReference<int[]>() {});
+            System.out.println(Arrays.toString(longs));
+            Integer[] boxed= (Integer[]) BeanUtil.copy(null, ints, new TypeReference<Integer[]>() {},new TypeReference<int[]>() {});
+            System.out.println(Arrays.toString(boxed));
+            String[] strings= (String[]) BeanUtil.copy(null, ints, new TypeReference<String[]>() {},new TypeReference<int[]>() {});
+            System.out.println(Arrays.toString(strings));
+            Order order=new Order();
+            order.setId(1L);
+            order.setCode("NO.1");
+            OrderDTO[] dtos= (OrderDTO[]) BeanUtil.copy(null, new Order[]{order}, new TypeReference<OrderDTO[]>() {},new TypeReference<Order[]>() {});
+            System.out.println(Arrays.toString(dtos));
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
         } catch (InvocationTargetException e) {
@@ -1,9 +1,27 @@
 package com.cyser.test.common;
 
+import com.cyser.base.type.TypeReference;
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.test.copier.Order;
+import com.cyser.test.copier.OrderDTO;
+
+import java.util.List;
+import java.util.Set;
+
 public class Array2List {
 
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        double[] values={1.5,2.5,2.5};
+        List<Double> doubles= (List<Double>) BeanUtil.copy(null, values, new TypeReference<List<Double>>() {},new TypeReference<double[]>() {});
+        System.out.println(doubles);
+        Set<String> strings= (Set<String>) BeanUtil.copy(null, values, new TypeReference<Set<String>>() {},new TypeReference<double[]>() {});
+        System.out.println(strings);
 
+        Order order=new Order();
+        order.setId(1L);
+        order.setCode("NO.1");
+        List<OrderDTO> dtos= (List<OrderDTO>) BeanUtil.copy(null, new Order[]{order}, new TypeReference<List<OrderDTO>>() {},new TypeReference<Order[]>() {});
+        System.out.println(dtos);
     }
 }
@@ -1,9 +1,28 @@
 package com.cyser.test.common;
 
+import com.cyser.base.type.TypeReference;
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.test.Boy;
+import com.cyser.test.User;
+
+import java.util.Arrays;
+import java.util.List;
+
 public class List2Array {
 
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        List<Integer> ints=Arrays.asList(1,null,3);
+        long[] longs= (long[]) BeanUtil.copy(null, ints, new TypeReference<long[]>() {},new TypeReference<List<Integer>>() {});
+        System.out.println(Arrays.toString(longs));
+        List<String> strings=Arrays.asList("4","5");
+        int[] parsed= (int[]) BeanUtil.copy(null, strings, new TypeReference<int[]>() {},new TypeReference<List<String>>() {});
+        System.out.println(Arrays.toString(parsed));
 
+        User user=new User();
+        user.name="过山峰";
+        user.age=18;
+        Boy[] boys= (Boy[]) BeanUtil.copy(null, Arrays.asList(user), new TypeReference<Boy[]>() {},new TypeReference<List<User>>() {});
+        System.out.println(Arrays.toString(boys));
     }
 }
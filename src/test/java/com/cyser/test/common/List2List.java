@@ -1,9 +1,52 @@
 package com.cyser.test.common;
 
+import com.cyser.base.bean.TypeDefinition;
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.base.utils.ClassUtil;
+import com.cyser.base.type.TypeReference;
+import com.cyser.test.copier.Order;
+import com.cyser.test.copier.OrderDTO;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * List&lt;Order&gt; -> List&lt;OrderDTO&gt;，分别复制10、1千、10万个元素
+ */
 public class List2List {
 
+    private static final long TOTAL = 2_000_000;
 
-    public static void main(String[] args) {
+    private static List<Order> newOrders(int size) {
+        List<Order> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Order order = new Order();
+            order.setId((long) i);
+            order.setCode("NO." + i);
+            order.setAmount(i % 10);
+            order.setCreated(new Date());
+            orders.add(order);
+        }
+        return orders;
+    }
 
+    public static void main(String[] args) throws Exception {
+        TypeDefinition dest_def = ClassUtil.parseType(new TypeReference<List<OrderDTO>>() {}.getType());
+        TypeDefinition src_def = ClassUtil.parseType(new TypeReference<List<Order>>() {}.getType());
+        for (int size : new int[]{10, 1_000, 100_000}) {
+            List<Order> orders = newOrders(size);
+            long rounds = TOTAL / size;
+            List<OrderDTO> dtos = null;
+            for (long i = 0; i < rounds; i++) {
+                dtos = (List<OrderDTO>) BeanUtil.copy(null, orders, dest_def, src_def);
+            }
+            long start = System.nanoTime();
+            for (long i = 0; i < rounds; i++) {
+                dtos = (List<OrderDTO>) BeanUtil.copy(null, orders, dest_def, src_def);
+            }
+            long cost = (System.nanoTime() - start) / rounds;
+            System.out.println(size + "个元素: " + cost / 1000 + "us/op, " + cost / size + "ns/元素, " + dtos.get(size - 1));
+        }
     }
 }
@@ -1,9 +1,67 @@
 package com.cyser.test.common;
 
+import com.cyser.base.bean.TypeDefinition;
+import com.cyser.base.cache.MapFactoryCache;
+import com.cyser.base.enums.CopyFeature;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.type.TypeReference;
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.base.utils.ClassUtil;
+import com.cyser.test.copier.Order;
+import com.cyser.test.copier.OrderDTO;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Map&lt;K1,V1&gt; -> Map&lt;K2,V2&gt;，最后比较50万个键值对顺序复制与并行复制的耗时
+ */
 public class Map2Map {
 
+    private static final int SIZE = 500_000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Integer> scores = new HashMap<>();
+        scores.put("3", 30);
+        scores.put("1", 10);
+        TreeMap<Integer, Long> sorted = (TreeMap<Integer, Long>) BeanUtil.copy(null, scores,
+                new TypeReference<TreeMap<Integer, Long>>() {}, new TypeReference<Map<String, Integer>>() {});
+        System.out.println(sorted);
 
-    public static void main(String[] args) {
+        // 已经解析过的类型重新注册后使用新的工厂
+        TypeReference<Hashtable<Integer, Long>> table_type = new TypeReference<Hashtable<Integer, Long>>() {};
+        TypeReference<Map<String, Integer>> scores_type = new TypeReference<Map<String, Integer>>() {};
+        System.out.println(BeanUtil.copy(null, scores, table_type, scores_type).getClass().getName());
+        MapFactoryCache.register(Hashtable.class, (size, key_clazz) -> new Hashtable<Integer, Long>() {
+        });
+        Object table = BeanUtil.copy(null, scores, table_type, scores_type);
+        if (table.getClass() == Hashtable.class) {
+            throw new IllegalStateException("重新注册的Map工厂没有生效");
+        }
+        System.out.println(table.getClass().getName() + table);
 
+        Map<String, Order> orders = new HashMap<>();
+        for (long i = 0; i < SIZE; i++) {
+            Order order = new Order();
+            order.setId(i);
+            order.setCode("NO." + i);
+            order.setCreated(new Date());
+            orders.put(order.getCode(), order);
+        }
+        TypeDefinition dest_def = ClassUtil.parseType(new TypeReference<Map<String, OrderDTO>>() {}.getType());
+        TypeDefinition src_def = ClassUtil.parseType(new TypeReference<Map<String, Order>>() {}.getType());
+        CopyParam parallel = new CopyParam(CopyFeature.PARALLEL, true);
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            Map<String, OrderDTO> dtos = (Map<String, OrderDTO>) BeanUtil.copy(null, orders, dest_def, src_def);
+            long sequential = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            Map<String, OrderDTO> parallel_dtos = (Map<String, OrderDTO>) BeanUtil.copy(null, orders, dest_def, src_def, parallel);
+            long parallel_cost = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("顺序:" + sequential + "ms 并行:" + parallel_cost + "ms " + dtos.size() + " " + parallel_dtos.get("NO.9"));
+        }
     }
 }
@@ -0,0 +1,19 @@
+package com.cyser.test.compiled;
+
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+public class CompiledBean {
+    private int count;
+    private Integer total;
+    private int score;
+    private Integer level;
+    private String age;
+    private Date birthday;
+    private List<String> tags;
+    private String Nickname;
+    private boolean active;
+}
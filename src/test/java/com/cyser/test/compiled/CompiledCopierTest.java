@@ -0,0 +1,134 @@
+package com.cyser.test.compiled;
+
+import com.cyser.base.annotations.CopyMapping;
+import com.cyser.base.cache.CompiledCopierCache;
+import com.cyser.base.copier.CompiledCopier;
+import com.cyser.base.enums.CopyFeature;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.test.cache.ClassUnloadTest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+
+/**
+ * 编译期生成的拷贝器与运行时拷贝的结果应该一致，需要在编译测试代码时启用easy-copy-processor
+ * <br/>
+ * 只为本包中的类生成拷贝器，其它测试共用的Order、OrderDTO等类不受影响
+ */
+@CopyMapping(source = Invoice.class, target = InvoiceDTO.class)
+@CopyMapping(source = CompiledBean.class, target = CompiledDTO.class)
+@CopyMapping(source = InvoiceRow.class, target = InvoiceView.class)
+public class CompiledCopierTest {
+
+    private static final int WARM_UP = 200_000;
+
+    private static final int TIMES = 2_000_000;
+
+    private static Invoice newInvoice() {
+        Invoice invoice = new Invoice();
+        invoice.setId(1L);
+        invoice.setCode("NO.20230801");
+        invoice.setAmount(3);
+        invoice.setPrice(9.9);
+        invoice.setCreated(new Date());
+        invoice.remark = "加急";
+        invoice.version = 7;
+        return invoice;
+    }
+
+    private static CompiledBean newBean() {
+        CompiledBean bean = new CompiledBean();
+        bean.setCount(5);
+        bean.setTotal(6);
+        bean.setScore(90);
+        bean.setLevel(null);
+        bean.setAge("18");
+        bean.setBirthday(new Date(0));
+        bean.setTags(Arrays.asList("a", "b"));
+        bean.setNickname("cyser");
+        bean.setActive(true);
+        return bean;
+    }
+
+    private static InvoiceRow newRow() {
+        InvoiceRow row = new InvoiceRow();
+        row.ID = 1L;
+        row.invoice_code = "NO.20230801";
+        row.total_amount = 3;
+        row.created_time = new Date(0);
+        return row;
+    }
+
+    private static long test(Invoice invoice) {
+        for (int i = 0; i < WARM_UP; i++) {
+            BeanUtil.copy(new InvoiceDTO(), invoice);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMES; i++) {
+            BeanUtil.copy(new InvoiceDTO(), invoice);
+        }
+        return (System.nanoTime() - start) / TIMES;
+    }
+
+    /**
+     * 目标类和拷贝器由子类加载器加载、源类来自应用类加载器时，也应该找到子类加载器中的拷贝器
+     */
+    private static void testChildLoader() throws Exception {
+        String dto_name = InvoiceDTO.class.getName();
+        String copier_name = InvoiceDTO.class.getPackage().getName() + ".Invoice$$InvoiceDTO$$CompiledCopier";
+        ClassLoader loader = new ClassUnloadTest.TenantClassLoader(CompiledCopierTest.class.getClassLoader(),
+                new HashSet<>(Arrays.asList(dto_name, copier_name)));
+        Class<?> dto_clazz = loader.loadClass(dto_name);
+        CompiledCopier copier = CompiledCopierCache.getCopier(Invoice.class, dto_clazz);
+        if (copier == null || copier.getClass().getClassLoader() != loader || copier.getTargetClass() != dto_clazz) {
+            throw new IllegalStateException("没有找到子类加载器中的拷贝器: " + copier);
+        }
+        Object dto = BeanUtil.copy(dto_clazz.getDeclaredConstructor().newInstance(), newInvoice());
+        if (!dto.toString().contains("NO.20230801")) {
+            throw new IllegalStateException("子类加载器中的拷贝器复制结果错误: " + dto);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (CompiledCopierCache.getCopier(Invoice.class, InvoiceDTO.class) == null) {
+            throw new IllegalStateException("没有找到编译期生成的拷贝器，请检查annotationProcessor配置");
+        }
+        Invoice invoice = newInvoice();
+        CompiledBean bean = newBean();
+
+        InvoiceRow row = newRow();
+        // 生成的拷贝器不忽略下划线，启用IGNORE_UNDERSCORE时应该改用运行时拷贝
+        CopyParam ignore_underscore = new CopyParam(CopyFeature.IGNORE_UNDERSCORE, true);
+
+        CopyConfig.setCompiledCopierEnabled(false);
+        String runtime_invoice = BeanUtil.copy(new InvoiceDTO(), invoice).toString();
+        String runtime_bean = BeanUtil.copy(new CompiledDTO(), bean).toString();
+        String runtime_row = BeanUtil.copy(new InvoiceView(), row, ignore_underscore).toString();
+        String runtime_rows = BeanUtil.copyAll(Collections.singletonList(row), InvoiceView.class, ignore_underscore).toString();
+        long runtime = test(invoice);
+
+        CopyConfig.setCompiledCopierEnabled(true);
+        String compiled_invoice = BeanUtil.copy(new InvoiceDTO(), invoice).toString();
+        String compiled_bean = BeanUtil.copy(new CompiledDTO(), bean).toString();
+        String compiled_row = BeanUtil.copy(new InvoiceView(), row, ignore_underscore).toString();
+        String compiled_rows = BeanUtil.copyAll(Collections.singletonList(row), InvoiceView.class, ignore_underscore).toString();
+        long compiled = test(invoice);
+
+        System.out.println(compiled_invoice);
+        System.out.println(compiled_bean);
+        System.out.println(compiled_row);
+        if (!runtime_invoice.equals(compiled_invoice) || !runtime_bean.equals(compiled_bean)) {
+            throw new IllegalStateException("编译期拷贝器与运行时拷贝的结果不一致:\n" + runtime_invoice + "\n" + runtime_bean);
+        }
+        if (CompiledCopierCache.getCopier(InvoiceRow.class, InvoiceView.class) == null
+                || !runtime_row.equals(compiled_row) || !runtime_rows.equals(compiled_rows) || !compiled_row.contains("NO.20230801")) {
+            throw new IllegalStateException("启用IGNORE_UNDERSCORE时编译期拷贝器与运行时拷贝的结果不一致:\n" + runtime_row + "\n" + compiled_row);
+        }
+        testChildLoader();
+        System.out.println("RUNTIME:" + runtime + "ns/op, COMPILED:" + compiled + "ns/op");
+    }
+}
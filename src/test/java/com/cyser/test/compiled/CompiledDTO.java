@@ -0,0 +1,21 @@
+package com.cyser.test.compiled;
+
+import com.cyser.base.annotations.TimeFormat;
+import com.cyser.base.enums.FastDateFormatPattern;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CompiledDTO {
+    private long count;
+    private int total;
+    private String score;
+    private String level;
+    private Integer age;
+    @TimeFormat(FastDateFormatPattern.ISO_DATE_FORMAT)
+    private String birthday;
+    private List<String> tags;
+    private String nickname;
+    private boolean active;
+}
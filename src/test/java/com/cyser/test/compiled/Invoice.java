@@ -0,0 +1,23 @@
+package com.cyser.test.compiled;
+
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+public class Invoice {
+
+    private Long id;
+
+    private String code;
+
+    private int amount;
+
+    private double price;
+
+    private Date created;
+
+    public String remark;
+
+    public long version;
+}
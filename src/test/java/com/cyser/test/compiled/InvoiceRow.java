@@ -0,0 +1,17 @@
+package com.cyser.test.compiled;
+
+import java.util.Date;
+
+/**
+ * 数据库风格的字段名称
+ */
+public class InvoiceRow {
+
+    public Long ID;
+
+    public String invoice_code;
+
+    public int total_amount;
+
+    public Date created_time;
+}
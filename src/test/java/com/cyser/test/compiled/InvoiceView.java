@@ -0,0 +1,19 @@
+package com.cyser.test.compiled;
+
+import java.util.Date;
+
+public class InvoiceView {
+
+    public Long id;
+
+    public String invoiceCode;
+
+    public int totalAmount;
+
+    public Date createdTime;
+
+    @Override
+    public String toString() {
+        return "InvoiceView(" + id + "," + invoiceCode + "," + totalAmount + "," + createdTime + ")";
+    }
+}
@@ -0,0 +1,39 @@
+package com.cyser.test.copier;
+
+import com.cyser.base.utils.BeanUtil;
+
+/**
+ * 数组字段的复制：相同类型的数组复制一份(System.arraycopy)，int[]拓宽为long[]
+ */
+public class ArrayFieldTest {
+
+    private static final int SIZE = 100_000;
+
+    private static final int ROUNDS = 2_000;
+
+    public static void main(String[] args) {
+        Telemetry telemetry = new Telemetry();
+        telemetry.setDevice("sensor-1");
+        telemetry.setTimestamps(new long[SIZE]);
+        telemetry.setValues(new double[SIZE]);
+        telemetry.setCounts(new int[SIZE]);
+        for (int i = 0; i < SIZE; i++) {
+            telemetry.getTimestamps()[i] = 1_700_000_000_000L + i;
+            telemetry.getValues()[i] = i * 0.5;
+            telemetry.getCounts()[i] = i;
+        }
+        TelemetryDTO dto = (TelemetryDTO) BeanUtil.copy(new TelemetryDTO(), telemetry);
+        System.out.println("共用数组:" + (dto.getValues() == telemetry.getValues())
+                + " values[9]=" + dto.getValues()[9] + " counts[9]=" + dto.getCounts()[9]
+                + " timestamps[9]=" + dto.getTimestamps()[9]);
+        for (int i = 0; i < ROUNDS; i++) {
+            BeanUtil.copy(new TelemetryDTO(), telemetry);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            dto = (TelemetryDTO) BeanUtil.copy(new TelemetryDTO(), telemetry);
+        }
+        long cost = (System.nanoTime() - start) / ROUNDS;
+        System.out.println("3个" + SIZE + "元素的数组: " + cost / 1000 + "us/op, " + dto.getCounts()[SIZE - 1]);
+    }
+}
@@ -0,0 +1,59 @@
+package com.cyser.test.copier;
+
+import com.cyser.base.copier.CopyExecutors;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.utils.BeanUtil;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 同时提交1万个异步复制任务，比较默认线程池(Java 21+为虚拟线程)与不同大小的平台线程池
+ */
+public class AsyncCopyTest {
+
+    private static final int TASKS = 10_000;
+
+    private static final int ROUNDS = 5;
+
+    private static Order newOrder(long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCode("NO." + id);
+        order.setCreated(new Date());
+        return order;
+    }
+
+    private static long test(Executor executor, List<Order> orders) {
+        CopyConfig.setAsyncExecutor(executor);
+        long start = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            if (round == 1) {
+                start = System.nanoTime();
+            }
+            List<CompletableFuture<OrderDTO>> futures = new ArrayList<>(TASKS);
+            for (Order order : orders) {
+                futures.add(BeanUtil.copyAsync(new OrderDTO(), order, null));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+        return (System.nanoTime() - start) / ROUNDS / 1000;
+    }
+
+    public static void main(String[] args) {
+        List<Order> orders = new ArrayList<>(TASKS);
+        for (long i = 0; i < TASKS; i++) {
+            orders.add(newOrder(i));
+        }
+        System.out.println("虚拟线程:" + CopyExecutors.isVirtualThreadSupported());
+        System.out.println("默认线程池:" + test(CopyExecutors.newDefaultExecutor(), orders) + "us");
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            System.out.println(threads + "个平台线程:" + test(CopyExecutors.newPlatformExecutor(threads), orders) + "us");
+        }
+        List<OrderDTO> dtos = BeanUtil.copyAllAsync(orders, OrderDTO.class, null).join();
+        System.out.println("copyAllAsync:" + dtos.size() + " " + dtos.get(TASKS - 1));
+    }
+}
@@ -0,0 +1,49 @@
+package com.cyser.test.copier;
+
+import com.cyser.base.bean.CopyPlan;
+import com.cyser.base.cache.CopierDiskCache;
+import com.cyser.base.cache.CopyPlanCache;
+import com.cyser.base.cache.CopyableFieldsCache;
+import com.cyser.base.copier.Copier;
+import com.cyser.base.copier.CopierGenerator;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.utils.ClassUtil;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.stream.Stream;
+
+/**
+ * 拷贝类磁盘缓存：第一次生成后写入磁盘，之后(包括重启后)直接从磁盘加载
+ */
+public class CopierDiskCacheTest {
+
+    public static void main(String[] args) throws Exception {
+        File dir = args.length > 0 ? new File(args[0]) : Files.createTempDirectory("easy-copy-copiers").toFile();
+        CopyConfig.setCopierCacheDir(dir.getPath());
+        ClassLoader classLoader = CopierDiskCacheTest.class.getClassLoader();
+        CopyPlan plan = CopyPlanCache.getCopyPlan(OrderDTO.class, Order.class,
+                CopyableFieldsCache.getSerialFieldDefinitions(classLoader, ClassUtil.parseType(OrderDTO.class)),
+                CopyableFieldsCache.getSerialFieldDefinitions(classLoader, ClassUtil.parseType(Order.class)),
+                new CopyParam());
+
+        long start = System.nanoTime();
+        Copier first = CopierGenerator.generate(plan);
+        long first_cost = System.nanoTime() - start;
+        start = System.nanoTime();
+        Copier second = CopierGenerator.generate(plan);
+        long second_cost = System.nanoTime() - start;
+
+        System.out.println("cache dir: " + CopierDiskCache.getDirectory());
+        try (Stream<java.nio.file.Path> files = Files.walk(dir.toPath())) {
+            files.filter(Files::isRegularFile).forEach(f -> System.out.println("  " + dir.toPath().relativize(f)));
+        }
+        System.out.println("first: " + first_cost / 1000 + "us " + first.getClass().getName());
+        System.out.println("second: " + second_cost / 1000 + "us " + second.getClass().getName());
+        Order order = new Order();
+        order.setCode("NO.20230801");
+        System.out.println(second.copy(new OrderDTO(), order, new CopyParam()));
+        CopyConfig.setCopierCacheDir(null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.cyser.test.copier;
+
+import com.cyser.base.enums.CopyEngine;
+import com.cyser.base.enums.CopyFeature;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.utils.BeanUtil;
+
+import java.util.Date;
+
+public class CopierTest {
+
+    private static final int WARM_UP = 200_000;
+
+    private static final int TIMES = 2_000_000;
+
+    private static Order newOrder() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setCode("NO.20230801");
+        order.setAmount(3);
+        order.setPrice(9.9);
+        order.setCreated(new Date());
+        order.remark = "加急";
+        order.version = 7;
+        return order;
+    }
+
+    private static long test(CopyEngine engine, Order order) {
+        CopyConfig.setCopyEngine(engine);
+        for (int i = 0; i < WARM_UP; i++) {
+            BeanUtil.copy(new OrderDTO(), order);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMES; i++) {
+            BeanUtil.copy(new OrderDTO(), order);
+        }
+        return (System.nanoTime() - start) / TIMES;
+    }
+
+    /**
+     * 不复制空值时源字段只能读取一次：另一个线程不断把源字段在null和非null之间切换，
+     * 判断和赋值分别读取时会把null写入目标字段
+     */
+    private static void testNullSkipReadsOnce() throws InterruptedException {
+        CopyConfig.setCopyEngine(CopyEngine.METHOD_HANDLE);
+        CopyParam cp = new CopyParam(CopyFeature.COPY_NULL_VALUE, false);
+        Order order = newOrder();
+        Thread toggler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                order.setCode(null);
+                order.setCode("NO.20230801");
+            }
+        });
+        toggler.setDaemon(true);
+        toggler.start();
+        try {
+            for (int i = 0; i < TIMES; i++) {
+                OrderDTO dto = new OrderDTO();
+                dto.setCode("原值");
+                BeanUtil.copy(dto, order, cp);
+                if (dto.getCode() == null) {
+                    throw new IllegalStateException("不复制空值时目标字段被写入了null，第" + i + "次");
+                }
+            }
+        } finally {
+            toggler.interrupt();
+            toggler.join();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Order order = newOrder();
+        for (CopyEngine engine : CopyEngine.values()) {
+            long cost = test(engine, order);
+            OrderDTO dto = (OrderDTO) BeanUtil.copy(new OrderDTO(), order);
+            System.out.println(engine + ":" + cost + "ns/op " + dto);
+        }
+        testNullSkipReadsOnce();
+        CopyConfig.setCopyEngine(CopyEngine.REFLECT);
+    }
+}
@@ -0,0 +1,69 @@
+package com.cyser.test.copier;
+
+import com.cyser.base.enums.CopyEngine;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.utils.BeanUtil;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 批量复制与逐个复制的对比
+ */
+public class CopyAllTest {
+
+    private static final int SIZE = 10_000;
+
+    private static final int ROUNDS = 50;
+
+    private static List<Order> newOrders() {
+        List<Order> orders = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            Order order = new Order();
+            order.setId((long) i);
+            order.setCode("NO." + i);
+            order.setAmount(i % 10);
+            order.setPrice(i * 0.5);
+            order.setCreated(new Date());
+            order.remark = "r" + i;
+            order.version = i;
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static List<OrderDTO> loop(List<Order> orders) {
+        List<OrderDTO> result = new ArrayList<>();
+        for (Order order : orders) {
+            result.add((OrderDTO) BeanUtil.copy(new OrderDTO(), order));
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        List<Order> orders = newOrders();
+        for (CopyEngine engine : new CopyEngine[]{CopyEngine.REFLECT, CopyEngine.BYTECODE}) {
+            CopyConfig.setCopyEngine(engine);
+            for (int i = 0; i < ROUNDS; i++) {
+                loop(orders);
+                BeanUtil.copyAll(orders, OrderDTO.class, null);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                loop(orders);
+            }
+            long loop_cost = (System.nanoTime() - start) / ROUNDS / 1000;
+            start = System.nanoTime();
+            List<OrderDTO> dtos = null;
+            for (int i = 0; i < ROUNDS; i++) {
+                dtos = BeanUtil.copyAll(orders, OrderDTO.class, null);
+            }
+            long batch_cost = (System.nanoTime() - start) / ROUNDS / 1000;
+            System.out.println(engine + " 逐个复制:" + loop_cost + "us 批量复制:" + batch_cost + "us " + dtos.get(SIZE - 1));
+        }
+        OrderDTO[] array = BeanUtil.copyAll(orders.toArray(new Order[0]), OrderDTO.class, null);
+        System.out.println("数组:" + array.length + " " + array[0]);
+        CopyConfig.setCopyEngine(CopyEngine.REFLECT);
+    }
+}
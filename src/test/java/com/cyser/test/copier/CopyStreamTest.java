@@ -0,0 +1,60 @@
+package com.cyser.test.copier;
+
+import com.cyser.base.utils.BeanUtil;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 惰性复制Stream、Iterator
+ */
+public class CopyStreamTest {
+
+    private static Order newOrder(long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCode("NO." + id);
+        order.setCreated(new Date());
+        return order;
+    }
+
+    public static void main(String[] args) {
+        // 无限Stream只复制被消费的元素
+        AtomicInteger read = new AtomicInteger();
+        List<OrderDTO> first = BeanUtil.copyStream(Stream.iterate(0L, i -> i + 1).map(i -> {
+            read.incrementAndGet();
+            return newOrder(i);
+        }), OrderDTO.class, null).limit(5).collect(Collectors.toList());
+        System.out.println("读取" + read.get() + "个源对象，复制结果:" + first);
+
+        // SIZED、ORDERED特征保留，toArray按大小预分配，parallel结果顺序不变
+        List<Order> orders = new ArrayList<>();
+        for (long i = 0; i < 100_000; i++) {
+            orders.add(newOrder(i));
+        }
+        Spliterator<OrderDTO> spliterator = BeanUtil.copyStream(orders.stream(), OrderDTO.class, null).spliterator();
+        System.out.println("SIZED:" + spliterator.hasCharacteristics(Spliterator.SIZED)
+                + " ORDERED:" + spliterator.hasCharacteristics(Spliterator.ORDERED)
+                + " size:" + spliterator.getExactSizeIfKnown());
+        Object[] array = BeanUtil.copyStream(orders.parallelStream(), OrderDTO.class, null).toArray();
+        for (int i = 0; i < array.length; i++) {
+            if (((OrderDTO) array[i]).getId() != i) {
+                throw new IllegalStateException("第" + i + "个元素顺序错误");
+            }
+        }
+        System.out.println("并行复制" + array.length + "个，顺序一致");
+
+        Iterator<OrderDTO> iterator = BeanUtil.copyIterator(orders.iterator(), OrderDTO.class, null);
+        long sum = 0;
+        while (iterator.hasNext()) {
+            sum += iterator.next().getId();
+        }
+        System.out.println("Iterator复制id之和:" + sum);
+    }
+}
@@ -0,0 +1,23 @@
+package com.cyser.test.copier;
+
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+public class Order {
+
+    private Long id;
+
+    private String code;
+
+    private int amount;
+
+    private double price;
+
+    private Date created;
+
+    public String remark;
+
+    public long version;
+}
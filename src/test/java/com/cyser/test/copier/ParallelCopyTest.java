@@ -0,0 +1,63 @@
+package com.cyser.test.copier;
+
+import com.cyser.base.enums.CopyEngine;
+import com.cyser.base.enums.CopyFeature;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.utils.BeanUtil;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 大集合顺序复制与并行复制的对比，并行复制的结果顺序必须与源集合一致
+ */
+public class ParallelCopyTest {
+
+    private static final int SIZE = 1_000_000;
+
+    private static final int ROUNDS = 5;
+
+    private static List<Order> newOrders(int size) {
+        List<Order> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Order order = new Order();
+            order.setId((long) i);
+            order.setCode("NO." + i);
+            order.setAmount(i % 10);
+            order.setCreated(new Date());
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static long test(List<Order> orders, CopyParam cp) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            List<OrderDTO> dtos = BeanUtil.copyAll(orders, OrderDTO.class, cp);
+            for (int j = 0; j < dtos.size(); j += 9973) {
+                if (dtos.get(j).getId() != j) {
+                    throw new IllegalStateException("第" + j + "个元素顺序错误");
+                }
+            }
+        }
+        return (System.nanoTime() - start) / ROUNDS / 1_000_000;
+    }
+
+    public static void main(String[] args) {
+        List<Order> orders = newOrders(SIZE);
+        CopyParam sequential = new CopyParam();
+        CopyParam parallel = new CopyParam(CopyFeature.PARALLEL, true);
+        for (CopyEngine engine : new CopyEngine[]{CopyEngine.REFLECT, CopyEngine.BYTECODE}) {
+            CopyConfig.setCopyEngine(engine);
+            test(orders, sequential);
+            test(orders, parallel);
+            System.out.println(engine + " 顺序:" + test(orders, sequential) + "ms 并行:" + test(orders, parallel) + "ms");
+        }
+        // 元素较少时退回顺序复制
+        List<Order> small = newOrders(CopyConfig.getParallelMinChunkSize() * 3);
+        System.out.println("小集合 顺序:" + test(small, sequential) + "ms 并行:" + test(small, parallel) + "ms");
+        CopyConfig.setCopyEngine(CopyEngine.REFLECT);
+    }
+}
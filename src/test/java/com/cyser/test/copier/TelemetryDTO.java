@@ -0,0 +1,15 @@
+package com.cyser.test.copier;
+
+import lombok.Data;
+
+@Data
+public class TelemetryDTO {
+
+    private String device;
+
+    private long[] timestamps;
+
+    private double[] values;
+
+    private long[] counts;
+}
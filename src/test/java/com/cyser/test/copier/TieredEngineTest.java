@@ -0,0 +1,54 @@
+package com.cyser.test.copier;
+
+import com.cyser.base.bean.TierStatistics;
+import com.cyser.base.cache.CopierCache;
+import com.cyser.base.enums.CopyEngine;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.utils.BeanUtil;
+
+import java.util.Date;
+
+/**
+ * 分层拷贝引擎：先按反射复制，达到阈值后在后台生成拷贝类并切换，打印各阶段耗时与各层调用占比
+ * <br/>
+ * 关闭编译期生成的拷贝器，否则其它测试为同一对类生成的拷贝器会绕过分层引擎
+ */
+public class TieredEngineTest {
+
+    private static final int ROUNDS = 10;
+
+    private static final int TIMES = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Order order = new Order();
+        order.setId(1L);
+        order.setCode("NO.20230801");
+        order.setAmount(3);
+        order.setPrice(9.9);
+        order.setCreated(new Date());
+        order.remark = "加急";
+        order.version = 7;
+
+        CopyConfig.setCompiledCopierEnabled(false);
+        CopyConfig.setCopyEngine(CopyEngine.TIERED);
+        CopyConfig.setTieredThreshold(10_000);
+        CopierCache.resetTierStatistics();
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < TIMES; i++) {
+                BeanUtil.copy(new OrderDTO(), order);
+            }
+            System.out.println("round " + round + ": " + (System.nanoTime() - start) / TIMES + "ns/op, " + CopierCache.getTierStatistics());
+            Thread.sleep(10);
+        }
+        TierStatistics statistics = CopierCache.getTierStatistics();
+        if (statistics.reflect_copies < 10_000 || statistics.compiled_copies == 0 || statistics.compiled_plans == 0) {
+            throw new IllegalStateException("分层拷贝引擎没有切换到生成的拷贝器: " + statistics);
+        }
+        OrderDTO dto = (OrderDTO) BeanUtil.copy(new OrderDTO(), order);
+        System.out.println(dto);
+        CopyConfig.setCopyEngine(CopyEngine.REFLECT);
+        CopyConfig.setTieredThreshold(1000);
+        CopyConfig.setCompiledCopierEnabled(true);
+    }
+}
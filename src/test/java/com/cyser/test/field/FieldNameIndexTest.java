@@ -0,0 +1,77 @@
+package com.cyser.test.field;
+
+import com.cyser.base.bean.FieldDefinition;
+import com.cyser.base.bean.FieldNameIndex;
+import com.cyser.base.cache.CopyableFieldsCache;
+import com.cyser.base.enums.CopyFeature;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.base.utils.ClassUtil;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 字段名称索引：不区分大小写、忽略下划线匹配字段，最后与转小写后查HashMap(CaseInsensitiveMap的做法)比较耗时
+ */
+public class FieldNameIndexTest {
+
+    private static final int TIMES = 1_000_000;
+
+    private static final String[] NAMES = {"ID", "OrderCode", "TOTALAMOUNT", "createdtime", "missing"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, FieldDefinition> fd_map = CopyableFieldsCache.getSerialFieldDefinitions(OrderView.class.getClassLoader(), ClassUtil.parseType(OrderView.class));
+        FieldNameIndex ignore_case = FieldNameIndex.of(fd_map, false);
+        FieldNameIndex ignore_underscore = FieldNameIndex.of(fd_map, true);
+        System.out.println(ignore_case.indexOf("ORDERCODE") + " " + ignore_case.indexOf("order_code") + " " + ignore_case.indexOf("remark"));
+        System.out.println(ignore_underscore.indexOf("order_code") + " " + ignore_underscore.indexOf("CREATED-TIME") + " " + ignore_underscore.indexOf("x.total_amount", 2, 14));
+
+        OrderRow row = new OrderRow();
+        row.ID = 1L;
+        row.order_code = "NO.1";
+        row.total_amount = 3;
+        row.created_time = new Date();
+        System.out.println(BeanUtil.copy(new OrderView(), row, new CopyParam(CopyFeature.CASE_SENSITIVE, false)));
+        System.out.println(BeanUtil.copy(new OrderView(), row, new CopyParam(CopyFeature.IGNORE_UNDERSCORE, true)));
+
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("ID", 2);
+        columns.put("ORDER_CODE", "NO.2");
+        columns.put("total-amount", "5");
+        System.out.println(BeanUtil.fromMap(columns, OrderView.class, new CopyParam(CopyFeature.IGNORE_UNDERSCORE, true)));
+
+        Map<String, FieldDefinition> lower_map = new HashMap<>();
+        fd_map.forEach((name, fd) -> lower_map.put(name.toLowerCase(), fd));
+        for (int round = 0; round < 10; round++) {
+            long start = System.nanoTime();
+            int hits = lookupByIndex(ignore_case);
+            long index = (System.nanoTime() - start) * 1000 / TIMES;
+            start = System.nanoTime();
+            hits += lookupByLowerCase(lower_map);
+            long lower = (System.nanoTime() - start) * 1000 / TIMES;
+            System.out.println("索引:" + index / 1000.0 + "ns 转小写:" + lower / 1000.0 + "ns " + hits);
+        }
+    }
+
+    private static int lookupByIndex(FieldNameIndex index) {
+        int hits = 0;
+        for (int i = 0; i < TIMES; i++) {
+            if (index.get(NAMES[i % NAMES.length]) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static int lookupByLowerCase(Map<String, FieldDefinition> lower_map) {
+        int hits = 0;
+        for (int i = 0; i < TIMES; i++) {
+            if (lower_map.get(NAMES[i % NAMES.length].toLowerCase()) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
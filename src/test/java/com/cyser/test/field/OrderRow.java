@@ -0,0 +1,17 @@
+package com.cyser.test.field;
+
+import java.util.Date;
+
+/**
+ * 数据库风格的字段名称
+ */
+public class OrderRow {
+
+    public Long ID;
+
+    public String order_code;
+
+    public int total_amount;
+
+    public Date created_time;
+}
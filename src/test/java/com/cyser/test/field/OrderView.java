@@ -0,0 +1,19 @@
+package com.cyser.test.field;
+
+import java.util.Date;
+
+public class OrderView {
+
+    public Long id;
+
+    public String orderCode;
+
+    public int totalAmount;
+
+    public Date createdTime;
+
+    @Override
+    public String toString() {
+        return "OrderView(" + id + "," + orderCode + "," + totalAmount + "," + createdTime + ")";
+    }
+}
@@ -0,0 +1,13 @@
+package com.cyser.test.map;
+
+import lombok.Data;
+
+@Data
+public class Address {
+
+    private String city;
+
+    private String street;
+
+    private int zip;
+}
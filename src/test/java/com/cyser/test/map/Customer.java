@@ -0,0 +1,29 @@
+package com.cyser.test.map;
+
+import com.cyser.base.annotations.TimeFormat;
+import com.cyser.base.enums.FastDateFormatPattern;
+import com.cyser.test.copier.Order;
+import com.cyser.test.enums.Fruit;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+public class Customer {
+
+    private Long id;
+
+    private String name;
+
+    private boolean vip;
+
+    private Fruit fruit;
+
+    @TimeFormat(value = FastDateFormatPattern.CN_DATE_FORMAT)
+    private Date birthday;
+
+    private Address address;
+
+    private List<Order> orders;
+}
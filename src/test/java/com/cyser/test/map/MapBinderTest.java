@@ -0,0 +1,85 @@
+package com.cyser.test.map;
+
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.base.utils.JsonUtil;
+import com.cyser.test.copier.Order;
+import com.cyser.test.enums.Fruit;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 实体类与Map互转：嵌套Map、点分隔的键、JSON风格的值，最后与经过JSON互转比较耗时
+ */
+public class MapBinderTest {
+
+    private static final int TIMES = 100_000;
+
+    public static void main(String[] args) {
+        Customer customer = newCustomer();
+        Map<String, Object> nested = BeanUtil.toMap(customer);
+        System.out.println(nested);
+        Map<String, Object> flat = BeanUtil.toMap(customer, true, null);
+        System.out.println(flat);
+        System.out.println(BeanUtil.fromMap(nested, Customer.class));
+        System.out.println(BeanUtil.fromMap(flat, Customer.class));
+
+        // 值的类型与字段不一致：数字字符串、整数转Long、日期字符串、枚举名称、集合中的Map
+        Map<String, Object> loose = new HashMap<>();
+        loose.put("id", 7);
+        loose.put("name", 123);
+        loose.put("vip", "true");
+        loose.put("fruit", "pear");
+        loose.put("birthday", "2024年02月29日");
+        loose.put("address.city", "杭州");
+        loose.put("address.zip", "310000");
+        Map<String, Object> order = new HashMap<>();
+        order.put("id", 1);
+        order.put("amount", "3");
+        List<Object> orders = new ArrayList<>();
+        orders.add(order);
+        loose.put("orders", orders);
+        System.out.println(BeanUtil.fromMap(loose, Customer.class));
+
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < TIMES; i++) {
+                BeanUtil.fromMap(BeanUtil.toMap(customer), Customer.class);
+            }
+            long binder = (System.nanoTime() - start) / TIMES;
+            start = System.nanoTime();
+            for (int i = 0; i < TIMES; i++) {
+                Map map = JsonUtil.json2Pojo(JsonUtil.pojo2Json(customer), Map.class);
+                JsonUtil.json2Pojo(JsonUtil.pojo2Json(map), Customer.class);
+            }
+            long json = (System.nanoTime() - start) / TIMES;
+            System.out.println("MapBinder:" + binder + "ns JSON:" + json + "ns");
+        }
+    }
+
+    private static Customer newCustomer() {
+        Address address = new Address();
+        address.setCity("上海");
+        address.setStreet("南京路");
+        address.setZip(200000);
+        Order order = new Order();
+        order.setId(1L);
+        order.setCode("NO.1");
+        order.setAmount(2);
+        order.setCreated(new Date());
+        List<Order> orders = new ArrayList<>();
+        orders.add(order);
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setName("张三");
+        customer.setVip(true);
+        customer.setFruit(Fruit.apple);
+        customer.setBirthday(new Date());
+        customer.setAddress(address);
+        customer.setOrders(orders);
+        return customer;
+    }
+}
@@ -0,0 +1,108 @@
+package com.cyser.test.pipeline;
+
+import com.cyser.base.bean.StageMetrics;
+import com.cyser.base.pipeline.CopyPipeline;
+import com.cyser.base.pipeline.FlowAdapter;
+import com.cyser.test.copier.Order;
+import com.cyser.test.copier.OrderDTO;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 读取 -> 复制 -> 写入，写入慢时队列被填满，读取线程阻塞等待；
+ * 最后检查下游onSubscribe执行期间流水线结束时，Flow.Processor的onComplete在onSubscribe返回后才发出
+ */
+public class CopyPipelineTest {
+
+    private static final int SIZE = 200_000;
+
+    /**
+     * 下游的onSubscribe执行较慢，期间上游结束，事件顺序应该是onSubscribe、onComplete
+     */
+    private static void testFlowSignalOrder() throws Exception {
+        if (!FlowAdapter.isSupported()) {
+            return;
+        }
+        Class<?> subscriber_clazz = Class.forName("java.util.concurrent.Flow$Subscriber");
+        Method subscribe = Class.forName("java.util.concurrent.Flow$Publisher").getMethod("subscribe", subscriber_clazz);
+        Method on_complete = subscriber_clazz.getMethod("onComplete");
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        Object subscriber = Proxy.newProxyInstance(CopyPipelineTest.class.getClassLoader(), new Class<?>[]{subscriber_clazz},
+                (proxy, method, method_args) -> {
+                    if (method.getName().equals("onSubscribe")) {
+                        events.add("onSubscribe-start");
+                        Thread.sleep(300);
+                        events.add("onSubscribe-end");
+                    } else if (method.getDeclaringClass() == subscriber_clazz) {
+                        events.add(method.getName());
+                    }
+                    return null;
+                });
+        Object processor = FlowAdapter.toProcessor(CopyPipeline.<Order>builder().copy("copy", 1, OrderDTO.class, null));
+        Thread subscribing = new Thread(() -> {
+            try {
+                subscribe.invoke(processor, subscriber);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        subscribing.start();
+        Thread.sleep(100);
+        on_complete.invoke(processor);
+        subscribing.join();
+        Thread.sleep(100);
+        List<String> expected = Arrays.asList("onSubscribe-start", "onSubscribe-end", "onComplete");
+        if (!expected.equals(events)) {
+            throw new IllegalStateException("Flow信号顺序错误: " + events);
+        }
+        System.out.println("Flow信号顺序: " + events);
+    }
+
+    public static void main(String[] args) throws Exception {
+        AtomicLong written = new AtomicLong();
+        CopyPipeline<Order> pipeline = CopyPipeline.<Order>builder()
+                .queueCapacity(4096)
+                .batchSize(256)
+                .copy("copy", 2, OrderDTO.class, null)
+                .map("enrich", 1, dto -> {
+                    dto.setCode(dto.getCode() + "-" + dto.getId());
+                    return dto;
+                })
+                .sink("write", 1, batch -> {
+                    // 模拟批量写库
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    written.addAndGet(batch.size());
+                });
+        long start = System.nanoTime();
+        for (long i = 0; i < SIZE; i++) {
+            Order order = new Order();
+            order.setId(i);
+            order.setCode("NO." + i);
+            order.setCreated(new Date());
+            pipeline.submit(order);
+            if (i % 50_000 == 0) {
+                for (StageMetrics metrics : pipeline.getMetrics()) {
+                    System.out.println("  " + metrics);
+                }
+            }
+        }
+        pipeline.complete();
+        pipeline.await();
+        System.out.println("写入" + written.get() + "个，耗时" + (System.nanoTime() - start) / 1_000_000 + "ms");
+        for (StageMetrics metrics : pipeline.getMetrics()) {
+            System.out.println("  " + metrics);
+        }
+        testFlowSignalOrder();
+    }
+}
@@ -0,0 +1,61 @@
+package com.cyser.test.primitive;
+
+import com.cyser.base.enums.CopyEngine;
+import com.cyser.base.enums.FieldAccessorType;
+import com.cyser.base.param.CopyConfig;
+import com.cyser.base.param.CopyParam;
+import com.cyser.base.utils.BeanUtil;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 只有基本类型字段的对象复制时不应分配内存(包括int转long等拓宽)
+ * <br/>
+ * 使用com.sun.management.ThreadMXBean统计当前线程分配的字节数，参数-Dfield.accessor=UNSAFE可指定字段读写方式
+ */
+public class PrimitiveAllocationTest {
+
+    private static final int WARM_UP = 200_000;
+
+    private static final int TIMES = 1_000_000;
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static double test(CopyEngine engine, PrimitiveBean src, PrimitiveDTO target, CopyParam cp) {
+        CopyConfig.setCopyEngine(engine);
+        for (int i = 0; i < WARM_UP; i++) {
+            BeanUtil.copy(target, src, cp);
+        }
+        long start = allocatedBytes();
+        for (int i = 0; i < TIMES; i++) {
+            BeanUtil.copy(target, src, cp);
+        }
+        return (double) (allocatedBytes() - start) / TIMES;
+    }
+
+    public static void main(String[] args) {
+        String accessor = System.getProperty("field.accessor");
+        if (accessor != null) {
+            CopyConfig.setFieldAccessorType(FieldAccessorType.valueOf(accessor));
+        }
+        PrimitiveBean src = new PrimitiveBean();
+        src.setId(1);
+        src.setCount(2);
+        src.setTime(3L);
+        src.setPrice(4.5);
+        src.setRate(5.5f);
+        src.setLevel((short) 6);
+        src.setGrade('A');
+        src.setValid(true);
+        PrimitiveDTO target = new PrimitiveDTO();
+        CopyParam cp = new CopyParam();
+        for (CopyEngine engine : CopyEngine.values()) {
+            double bytes = test(engine, src, target, cp);
+            System.out.println(engine + ":" + String.format("%.2f", bytes) + " B/op" + (bytes >= 1 ? "，复制过程中有内存分配" : ""));
+        }
+        System.out.println(target);
+        CopyConfig.setCopyEngine(CopyEngine.REFLECT);
+    }
+}
@@ -0,0 +1,23 @@
+package com.cyser.test.primitive;
+
+import lombok.Data;
+
+@Data
+public class PrimitiveBean {
+
+    private int id;
+
+    private int count;
+
+    private long time;
+
+    private double price;
+
+    private float rate;
+
+    private short level;
+
+    private char grade;
+
+    private boolean valid;
+}
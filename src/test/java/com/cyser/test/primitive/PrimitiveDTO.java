@@ -0,0 +1,23 @@
+package com.cyser.test.primitive;
+
+import lombok.Data;
+
+@Data
+public class PrimitiveDTO {
+
+    private int id;
+
+    private long count;
+
+    private long time;
+
+    private double price;
+
+    private double rate;
+
+    private int level;
+
+    private char grade;
+
+    private boolean valid;
+}
@@ -0,0 +1,25 @@
+package com.cyser.test.warmup;
+
+import com.cyser.base.utils.BeanUtil;
+import com.cyser.test.copier.Order;
+import com.cyser.test.copier.OrderDTO;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预热后第一次复制不再需要解析字段和生成拷贝计划
+ */
+public class WarmUpTest {
+
+    public static void main(String[] args) {
+        Map<Class<?>, Long> costs = BeanUtil.warmUp("com.cyser.test");
+        costs.forEach((clazz, cost) -> System.out.println(clazz.getName() + ": " + TimeUnit.NANOSECONDS.toMicros(cost) + "us"));
+
+        long warm_up = BeanUtil.warmUp(Order.class, OrderDTO.class);
+        long start = System.nanoTime();
+        BeanUtil.copy(new OrderDTO(), new Order());
+        long first_copy = System.nanoTime() - start;
+        System.out.println("warmUp(Order, OrderDTO): " + TimeUnit.NANOSECONDS.toMicros(warm_up) + "us, first copy: " + TimeUnit.NANOSECONDS.toMicros(first_copy) + "us");
+    }
+}